@@ -0,0 +1,75 @@
+package io.github.ingvarc.jdk10;
+
+import io.github.ingvarc.jdk10.io.AsyncLineSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints lines from 16 threads through a {@code PrintStream} set up like {@code System.out}, autoflushing through a
+ * 128 byte buffer, next to {@link AsyncLineSink} with either overflow policy.
+ * <p>
+ * Both write to a file in {@code java.io.tmpdir}, truncated before every iteration, instead of the console, whose
+ * speed would dominate. The number of lines the dropping sink dropped is printed after every iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class AsyncLineSinkBenchmark {
+
+    private static final String LINE = "Walter Isaacson 65";
+
+    private Path file;
+    private PrintStream printStream;
+    private FileChannel channel;
+    private AsyncLineSink blockingSink;
+    private AsyncLineSink droppingSink;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("sink", ".log");
+        printStream = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 128), true);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        blockingSink = new AsyncLineSink(channel);
+        droppingSink = new AsyncLineSink(channel, 1 << 14, AsyncLineSink.Overflow.DROP, Duration.ZERO, 1 << 16);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        blockingSink.close();
+        droppingSink.close();
+        System.out.println("dropped " + droppingSink.getDropped() + " of "
+                + (droppingSink.getDropped() + droppingSink.getWritten()));
+        printStream.close();
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void printStream() {
+        printStream.println(LINE);
+    }
+
+    @Benchmark
+    public boolean asyncBlocking() {
+        return blockingSink.println(LINE);
+    }
+
+    @Benchmark
+    public boolean asyncDropping() {
+        return droppingSink.println(LINE);
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.ingvarc.jdk10;
+
+import io.github.ingvarc.jdk10.columnar.AuthorTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans authors kept as an {@code ArrayList<Author>}, like in {@code LocalVariableTypeInference.main}, next to an
+ * {@link AuthorTable}. {@link AuthorTableFootprint} reports the retained heap of both.
+ * <p>
+ * The list is shuffled, as objects allocated over time are scattered over the heap, so that its scans follow pointers
+ * the way they do in a long-running application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorTableBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1000", "1000000"})
+    private int distinctNames;
+
+    private List<Author> list;
+    private AuthorTable table;
+    private String name;
+
+    @Setup
+    public void setUp() {
+        list = authors(size, distinctNames);
+        table = new AuthorTable(size);
+        for (Author author : list) {
+            table.add(author.getName(), author.getAge());
+        }
+        name = list.get(size / 2).getName();
+        Collections.shuffle(list, new Random(42));
+    }
+
+    static List<Author> authors(int size, int distinctNames) {
+        Random random = new Random(42);
+        List<Author> authors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            authors.add(new Author("Author " + random.nextInt(distinctNames), 20 + random.nextInt(70)));
+        }
+        return authors;
+    }
+
+    @Benchmark
+    public int listCountAgeGreaterThan() {
+        int count = 0;
+        for (Author author : list) {
+            if (author.getAge() > 60) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tableCountAgeGreaterThan() {
+        return table.countAgeGreaterThan(60);
+    }
+
+    @Benchmark
+    public long listSumAges() {
+        long sum = 0;
+        for (Author author : list) {
+            sum += author.getAge();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long tableSumAges() {
+        return table.sumAges();
+    }
+
+    @Benchmark
+    public List<Author> listFilterAgeGreaterThan() {
+        List<Author> selected = new ArrayList<>();
+        for (Author author : list) {
+            if (author.getAge() > 60) {
+                selected.add(author);
+            }
+        }
+        return selected;
+    }
+
+    @Benchmark
+    public int[] tableFilterAgeGreaterThan() {
+        return table.rowsWithAgeGreaterThan(60);
+    }
+
+    @Benchmark
+    public int listCountName() {
+        int count = 0;
+        for (Author author : list) {
+            if (author.getName().equals(name)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tableCountName() {
+        return table.rowsWithName(name).length;
+    }
+
+    /**
+     * The shape of {@code LocalVariableTypeInference.Author}.
+     */
+    static class Author {
+        private final String name;
+        private final int age;
+
+        Author(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getAge() {
+            return age;
+        }
+    }
+}
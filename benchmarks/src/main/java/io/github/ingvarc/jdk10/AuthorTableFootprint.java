@@ -0,0 +1,32 @@
+package io.github.ingvarc.jdk10;
+
+import io.github.ingvarc.jdk10.AuthorTableBenchmark.Author;
+import io.github.ingvarc.jdk10.columnar.AuthorTable;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+
+/**
+ * Prints the retained heap of authors kept as an {@code ArrayList<Author>} and as an {@link AuthorTable}, as measured
+ * by JOL. The list shares equal names only when they are the same instance, as names parsed from input are not.
+ * <pre>
+ * java -Djdk.attach.allowAttachSelf -cp benchmarks/target/benchmarks.jar io.github.ingvarc.jdk10.AuthorTableFootprint
+ * </pre>
+ */
+public class AuthorTableFootprint {
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %10s %16s %16s%n", "authors", "names", "ArrayList", "AuthorTable");
+        for (int size : new int[]{10_000, 1_000_000}) {
+            for (int distinctNames : new int[]{1000, size}) {
+                List<Author> list = AuthorTableBenchmark.authors(size, distinctNames);
+                AuthorTable table = new AuthorTable();
+                for (Author author : list) {
+                    table.add(author.getName(), author.getAge());
+                }
+                System.out.printf("%10d %10d %16d %16d%n", size, distinctNames,
+                        GraphLayout.parseInstance(list).totalSize(), GraphLayout.parseInstance(table).totalSize());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.ingvarc.jdk10;
+
+import io.github.ingvarc.jdk10.io.MappedLineReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads a generated UTF-8 file of mixed ASCII and non-ASCII lines with {@code BufferedReader.lines()}, as
+ * {@code LocalVariableTypeInference.main} does, next to {@link MappedLineReader}.
+ * <p>
+ * Every line is decoded and its length summed, so that no reader can skip the decoding. The file is written once per
+ * trial into {@code java.io.tmpdir}; after the first iteration it is read from the page cache.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedLineReaderBenchmark {
+
+    private static final String[] WORDS = {
+            "Walter", "Isaacson", "Joanne", "Rowling", "type", "inference", "Größe", "naïve", "€", "日本語", "😀"
+    };
+
+    @Param({"1024"})
+    private int megabytes;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("lines", ".txt");
+        Random random = new Random(42);
+        long size = (long) megabytes << 20;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                1 << 16)) {
+            StringBuilder line = new StringBuilder();
+            for (long written = 0; written < size; ) {
+                line.setLength(0);
+                for (int words = 1 + random.nextInt(12); words > 0; words--) {
+                    line.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                line.append(random.nextInt()).append('\n');
+                out.write(line.toString());
+                written += line.length();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bufferedReaderLines() throws IOException {
+        try (var in = new FileInputStream(file.toFile())) {
+            return new BufferedReader(new InputStreamReader(in))
+                    .lines()
+                    .mapToLong(String::length)
+                    .sum();
+        }
+    }
+
+    @Benchmark
+    public long bufferedReaderLinesUtf8() throws IOException {
+        try (var in = new FileInputStream(file.toFile())) {
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    .lines()
+                    .mapToLong(String::length)
+                    .sum();
+        }
+    }
+
+    @Benchmark
+    public long mappedLineReader() throws IOException {
+        LongAdder length = new LongAdder();
+        new MappedLineReader().forEachBatch(file, batch -> {
+            long sum = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                sum += batch.get(i).length();
+            }
+            length.add(sum);
+        });
+        return length.sum();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.time.CoarseClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code now()} calls of {@link DateTimeAPI} with {@link CoarseClock}.
+ * <p>
+ * The benchmarks run on 16 threads to show the cost under contention; use {@code -t} for other thread counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class CoarseClockBenchmark {
+
+    private final Clock systemUTC = Clock.systemUTC();
+    private final Clock systemDefaultZone = Clock.systemDefaultZone();
+    private CoarseClock coarse;
+
+    @Setup
+    public void setUp() {
+        coarse = CoarseClock.start(Duration.ofMillis(1), ZoneId.of("Asia/Tokyo"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        coarse.close();
+    }
+
+    @Benchmark
+    public Instant instantNow() {
+        return Instant.now();
+    }
+
+    @Benchmark
+    public long systemUTCMillis() {
+        return systemUTC.millis();
+    }
+
+    @Benchmark
+    public long systemDefaultZoneMillis() {
+        return systemDefaultZone.millis();
+    }
+
+    @Benchmark
+    public long coarseMillis() {
+        return coarse.epochMillis();
+    }
+
+    @Benchmark
+    public long coarseNanos() {
+        return coarse.epochNanos();
+    }
+
+    @Benchmark
+    public Instant coarseInstant() {
+        return coarse.instant();
+    }
+
+    @Benchmark
+    public LocalTime localTimeNowZoneOf() {
+        return LocalTime.now(ZoneId.of("Asia/Tokyo"));
+    }
+
+    @Benchmark
+    public LocalTime localTimeNowSystemDefaultZone() {
+        return LocalTime.now(systemDefaultZone);
+    }
+
+    @Benchmark
+    public LocalTime localTimeNowCoarse() {
+        return LocalTime.now(coarse);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.time.DateTimeCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the inline {@link DateTimeFormatter} calls of {@link DateTimeAPI} with {@link DateTimeCodec}.
+ * <p>
+ * Run with {@code -prof gc} to see the fast paths allocate nothing per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeCodecBenchmark {
+
+    private static final Locale GERMAN = new Locale("de");
+
+    private final LocalDateTime dateTime = LocalDateTime.of(2018, Month.MAY, 25, 13, 30);
+    private final LocalDate date = dateTime.toLocalDate();
+    private final Instant instant = Instant.parse("2018-05-26T10:30:00.123Z");
+    private final DateTimeCodec codec = new DateTimeCodec();
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final char[] chars = new char[DateTimeCodec.MAX_ISO_INSTANT_LENGTH];
+        final StringBuilder builder = new StringBuilder(DateTimeCodec.MAX_ISO_INSTANT_LENGTH);
+    }
+
+    @Benchmark
+    public String ofPatternFormat() {
+        return dateTime.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+    }
+
+    @Benchmark
+    public String cachedPatternFormat() {
+        return dateTime.format(codec.formatter("dd.MM.yyyy"));
+    }
+
+    @Benchmark
+    public String ofPatternGermanFormat() {
+        return dateTime.format(DateTimeFormatter.ofPattern("d. MMMM yyyy", GERMAN));
+    }
+
+    @Benchmark
+    public String cachedPatternGermanFormat() {
+        return dateTime.format(codec.formatter("d. MMMM yyyy", GERMAN));
+    }
+
+    @Benchmark
+    public LocalDate ofPatternParse() {
+        return LocalDate.parse("25.05.2015", DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+    }
+
+    @Benchmark
+    public LocalDate cachedPatternParse() {
+        return LocalDate.parse("25.05.2015", codec.formatter("dd.MM.yyyy"));
+    }
+
+    @Benchmark
+    public String basicIsoDate() {
+        return dateTime.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    @Benchmark
+    public int basicIsoDateFastPath(Buffer buffer) {
+        return DateTimeCodec.formatBasicIsoDate(date, buffer.chars, 0);
+    }
+
+    @Benchmark
+    public String isoLocalDate() {
+        return date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    @Benchmark
+    public int isoLocalDateFastPath(Buffer buffer) {
+        return DateTimeCodec.formatIsoLocalDate(date, buffer.chars, 0);
+    }
+
+    @Benchmark
+    public StringBuilder isoLocalDateFastPathBuilder(Buffer buffer) {
+        buffer.builder.setLength(0);
+        return DateTimeCodec.formatIsoLocalDate(date, buffer.builder);
+    }
+
+    @Benchmark
+    public String isoInstant() {
+        return DateTimeFormatter.ISO_INSTANT.format(instant);
+    }
+
+    @Benchmark
+    public int isoInstantFastPath(Buffer buffer) {
+        return DateTimeCodec.formatIsoInstant(instant, buffer.chars, 0);
+    }
+
+    @Benchmark
+    public LocalDate parseIsoLocalDate() {
+        return LocalDate.parse("2018-05-25");
+    }
+
+    @Benchmark
+    public long parseIsoLocalDateFastPath() {
+        return DateTimeCodec.parseIsoLocalDate("2018-05-25", 0);
+    }
+
+    @Benchmark
+    public Instant parseIsoInstant() {
+        return Instant.parse("2018-05-26T10:30:00Z");
+    }
+
+    @Benchmark
+    public long parseIsoInstantFastPath() {
+        return DateTimeCodec.parseIsoInstant("2018-05-26T10:30:00Z", 0, 20);
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.time.EpochDays;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code LocalDate} arithmetic of {@link DateTimeAPI} applied to a column of dates
+ * with the bulk variants of {@link EpochDays}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EpochDaysBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private int[] dates;
+    private int[] otherDates;
+    private int[] result;
+    private long[] periods;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int from = (int) LocalDate.of(1990, 1, 1).toEpochDay();
+        int to = (int) LocalDate.of(2050, 1, 1).toEpochDay();
+        dates = random.ints(size, from, to).toArray();
+        otherDates = random.ints(size, from, to).toArray();
+        result = new int[size];
+        periods = new long[size];
+    }
+
+    @Benchmark
+    public int[] localDatePlusMonths() {
+        for (int i = 0; i < size; i++) {
+            result[i] = (int) LocalDate.ofEpochDay(dates[i]).plusMonths(1).toEpochDay();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] epochDaysPlusMonths() {
+        EpochDays.plusMonths(dates, 1, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] localDatePlusDays() {
+        for (int i = 0; i < size; i++) {
+            result[i] = (int) LocalDate.ofEpochDay(dates[i]).plusDays(1).toEpochDay();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] epochDaysPlusDays() {
+        EpochDays.plusDays(dates, 1, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] lastDayOfMonthAdjuster() {
+        for (int i = 0; i < size; i++) {
+            result[i] = (int) LocalDate.ofEpochDay(dates[i]).with(TemporalAdjusters.lastDayOfMonth()).toEpochDay();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] epochDaysLastDayOfMonth() {
+        EpochDays.lastDayOfMonth(dates, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] nextSaturdayAdjuster() {
+        for (int i = 0; i < size; i++) {
+            result[i] = (int) LocalDate.ofEpochDay(dates[i]).with(TemporalAdjusters.next(DayOfWeek.SATURDAY)).toEpochDay();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] epochDaysNextSaturday() {
+        EpochDays.next(dates, DayOfWeek.SATURDAY, result);
+        return result;
+    }
+
+    @Benchmark
+    public long[] periodBetween() {
+        for (int i = 0; i < size; i++) {
+            Period period = Period.between(LocalDate.ofEpochDay(dates[i]), LocalDate.ofEpochDay(otherDates[i]));
+            periods[i] = period.toTotalMonths() << 32 | (period.getDays() & 0xFFFFFFFFL);
+        }
+        return periods;
+    }
+
+    @Benchmark
+    public long[] epochDaysBetween() {
+        EpochDays.between(dates, otherDates, periods);
+        return periods;
+    }
+}
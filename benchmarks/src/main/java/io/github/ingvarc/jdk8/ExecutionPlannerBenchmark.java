@@ -0,0 +1,87 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.parallel.ExecutionPlanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the max reduction of a shuffled {@code List<Integer>} and the {@code IntStream.range(1, size).filter(...)
+ * .findFirst()} search of {@code Streams} sequentially, in parallel in the common pool and as planned by an
+ * {@link ExecutionPlanner} with a worker per processor.
+ * <p>
+ * On 1000 elements the parallel runs take several times longer than the sequential ones, and the planned runs should
+ * stay close to the sequential ones. On a million elements the planned max reduction should reach the parallel
+ * speedup on as many cores, while the search, which stops at 42 whatever the size, stays sequential. On a single
+ * processor the planner never goes parallel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionPlannerBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private List<Integer> list;
+    private ExecutionPlanner planner;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            list.add(i);
+        }
+        Collections.shuffle(list, new Random(42));
+        planner = new ExecutionPlanner("benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        planner.close();
+    }
+
+    @Benchmark
+    public int sequentialMax() {
+        return list.stream().reduce(Math::max).get();
+    }
+
+    @Benchmark
+    public int parallelMax() {
+        return list.parallelStream().reduce(Math::max).get();
+    }
+
+    @Benchmark
+    public int plannedMax() {
+        return planner.run("max", list.stream(), stream -> stream.reduce(Math::max).get());
+    }
+
+    @Benchmark
+    public int sequentialFindFirst() {
+        return IntStream.range(1, size)
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int parallelFindFirst() {
+        return IntStream.range(1, size)
+                .parallel()
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int plannedFindFirst() {
+        return planner.run("findFirst", IntStream.range(1, size),
+                stream -> stream.filter(x -> (x % 42) == 0).findFirst().getAsInt());
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.primitives.IntCollectors;
+import io.github.ingvarc.jdk8.primitives.IntIntMap;
+import io.github.ingvarc.jdk8.primitives.IntList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the boxed collectors used in {@link Streams#main(String...)} with {@link IntCollectors}.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation rate next to the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntCollectorsBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    private List<Integer> boxedShuffled;
+    private IntList shuffled;
+
+    @Setup
+    public void setUp() {
+        boxedShuffled = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            boxedShuffled.add(i);
+        }
+        Collections.shuffle(boxedShuffled, new Random(42));
+
+        shuffled = new IntList(size);
+        for (Integer value : boxedShuffled) {
+            shuffled.add(value);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> boxedToList() {
+        return IntStream.range(0, size)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntList toIntList() {
+        return IntCollectors.toIntList(IntStream.range(0, size));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> boxedToMap() {
+        return IntStream.range(0, size)
+                .boxed()
+                .collect(Collectors.toMap(Function.identity(), (x) -> x % 4));
+    }
+
+    @Benchmark
+    public IntIntMap toIntIntMap() {
+        return IntCollectors.toIntIntMap(IntStream.range(0, size), x -> x, x -> x % 4);
+    }
+
+    @Benchmark
+    public int boxedShuffledMax() {
+        return boxedShuffled.stream()
+                .reduce(Math::max)
+                .get();
+    }
+
+    @Benchmark
+    public int shuffledMax() {
+        return shuffled.stream()
+                .max()
+                .getAsInt();
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.time.LegacyDateBridge;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reproduces each legacy conversion of {@code DateTimeAPI.conversion} next to its {@link LegacyDateBridge} version.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LegacyDateBridgeBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private final ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+    private final ZonedDateTime dateTime = ZonedDateTime.of(2018, 5, 26, 10, 30, 0, 0, tokyo);
+    private final Instant instant = dateTime.toInstant();
+    private final long epochMilli = instant.toEpochMilli();
+    private final Date date = new Date(epochMilli);
+    private final TimeZone timeZone = TimeZone.getTimeZone(tokyo);
+    private final Calendar calendar = GregorianCalendar.from(dateTime);
+
+    private long[] epochMillis;
+    private Date[] dates;
+    private Date[] reusedDates;
+
+    @Setup
+    public void setUp() {
+        epochMillis = new Random(42).longs(BATCH, 0, epochMilli).toArray();
+        dates = LegacyDateBridge.toDates(epochMillis);
+        reusedDates = new Date[BATCH];
+    }
+
+    @Benchmark
+    public Instant dateToInstant() {
+        return date.toInstant();
+    }
+
+    @Benchmark
+    public Instant calendarGetInstantToInstant() {
+        return Calendar.getInstance().toInstant();
+    }
+
+    @Benchmark
+    public Instant bridgeCalendarToInstant() {
+        return LegacyDateBridge.calendar(epochMilli, tokyo).toInstant();
+    }
+
+    @Benchmark
+    public ZoneId timeZoneToZoneId() {
+        return timeZone.toZoneId();
+    }
+
+    @Benchmark
+    public ZoneId bridgeZoneId() {
+        return LegacyDateBridge.zoneId(timeZone);
+    }
+
+    @Benchmark
+    public ZonedDateTime calendarToZonedDateTime() {
+        return ((GregorianCalendar) calendar).toZonedDateTime();
+    }
+
+    @Benchmark
+    public ZonedDateTime bridgeToZonedDateTime() {
+        return LegacyDateBridge.toZonedDateTime(calendar);
+    }
+
+    @Benchmark
+    public Date dateFromInstant() {
+        return Date.from(instant);
+    }
+
+    @Benchmark
+    public TimeZone getTimeZone() {
+        return TimeZone.getTimeZone(tokyo);
+    }
+
+    @Benchmark
+    public TimeZone bridgeTimeZone() {
+        return LegacyDateBridge.timeZone(tokyo);
+    }
+
+    @Benchmark
+    public GregorianCalendar gregorianCalendarFrom() {
+        return GregorianCalendar.from(dateTime);
+    }
+
+    @Benchmark
+    public GregorianCalendar bridgeCalendar() {
+        return LegacyDateBridge.calendar(dateTime);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Date[] datesFromEpochMillis() {
+        Date[] result = new Date[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            result[i] = Date.from(Instant.ofEpochMilli(epochMillis[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Date[] bridgeDatesReused() {
+        LegacyDateBridge.toDates(epochMillis, reusedDates);
+        return reusedDates;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] epochMillisFromDates() {
+        long[] result = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            result[i] = dates[i].toInstant().toEpochMilli();
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] bridgeEpochMillis() {
+        return LegacyDateBridge.toEpochMillis(dates);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.merge.MultiStreams;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Joins {@code streams} sorted runs of 100,000 ints in all with {@code Stream.concat}, as {@code Streams} does with
+ * two, chained over all of them, next to {@link MultiStreams}: concatenated and summed, or sorted into an array, by
+ * {@code sorted()} after the concatenation or by merging the runs.
+ * <p>
+ * Every element of the chained concatenation goes down a tree as deep as there are streams, and {@code sorted()}
+ * buffers and sorts all of them again, while the merge takes about {@code log2(streams)} comparisons per element.
+ * The flat concatenation should stay flat as the streams grow in number while the chained one grows with them. The
+ * sorts in the JDK find the presorted runs too, though, and merge them pairwise, so on a few runs {@code sorted()}
+ * keeps up with the merge, or beats it on ints; the merge should pull ahead on a thousand of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiStreamsBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"10", "100", "1000"})
+    private int streams;
+
+    private int[][] runs;
+    private Integer[][] boxedRuns;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        runs = new int[streams][];
+        boxedRuns = new Integer[streams][];
+        for (int i = 0; i < streams; i++) {
+            runs[i] = random.ints(SIZE / streams).sorted().toArray();
+            boxedRuns[i] = IntStream.of(runs[i]).boxed().toArray(Integer[]::new);
+        }
+    }
+
+    private List<Stream<Integer>> boxedStreams() {
+        List<Stream<Integer>> list = new ArrayList<>(streams);
+        for (Integer[] run : boxedRuns) {
+            list.add(Arrays.stream(run));
+        }
+        return list;
+    }
+
+    private List<IntStream> intStreams() {
+        List<IntStream> list = new ArrayList<>(streams);
+        for (int[] run : runs) {
+            list.add(Arrays.stream(run));
+        }
+        return list;
+    }
+
+    private Stream<Integer> chainedConcat() {
+        return boxedStreams().stream().reduce(Stream.empty(), Stream::concat);
+    }
+
+    private IntStream chainedIntConcat() {
+        return intStreams().stream().reduce(IntStream.empty(), IntStream::concat);
+    }
+
+    @Benchmark
+    public long chainedConcatSum() {
+        return chainedConcat().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long flatConcatSum() {
+        return MultiStreams.concat(boxedStreams()).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public Object[] chainedConcatSorted() {
+        return chainedConcat().sorted().toArray();
+    }
+
+    @Benchmark
+    public Object[] mergeSorted() {
+        return MultiStreams.mergeSorted(boxedStreams()).toArray();
+    }
+
+    @Benchmark
+    public int[] chainedIntConcatSorted() {
+        return chainedIntConcat().sorted().toArray();
+    }
+
+    @Benchmark
+    public int[] mergeSortedInts() {
+        return MultiStreams.mergeSortedInts(intStreams()).toArray();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.primitives.OffHeapIntArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a million ints, shuffles them and takes their maximum in parallel, as {@code Streams} does with an
+ * {@code ArrayList<Integer>}, {@code Collections.shuffle} and {@code parallelStream().reduce(Math::max)}, next to
+ * {@link OffHeapIntArray}.
+ * <p>
+ * The boxed list allocates an {@code Integer} per value beyond the cache, and once shuffled its elements point all
+ * over the heap, so the reduction misses the cache on most of them. The off-heap array reads the values in place and
+ * its shuffle runs in parallel. Run with {@code -prof gc} to see the allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OffHeapIntArrayBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    private List<Integer> list;
+    private OffHeapIntArray array;
+
+    @Setup
+    public void setUp() {
+        list = fillList();
+        Collections.shuffle(list);
+        array = OffHeapIntArray.allocate(SIZE);
+        array.setAll(i -> (int) i + 1);
+        array.shuffle(new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public List<Integer> fillList() {
+        List<Integer> list = new ArrayList<>(SIZE);
+        for (int i = 1; i <= SIZE; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public OffHeapIntArray fillOffHeap() {
+        array.setAll(i -> (int) i + 1);
+        return array;
+    }
+
+    @Benchmark
+    public List<Integer> shuffleList() {
+        Collections.shuffle(list);
+        return list;
+    }
+
+    @Benchmark
+    public OffHeapIntArray shuffleOffHeap() {
+        array.shuffle();
+        return array;
+    }
+
+    @Benchmark
+    public int listParallelMax() {
+        return list.parallelStream().reduce(Math::max).get();
+    }
+
+    @Benchmark
+    public int offHeapParallelStreamMax() {
+        return array.parallelStream().max().getAsInt();
+    }
+
+    @Benchmark
+    public int offHeapReduceMax() {
+        return array.reduce(Integer.MIN_VALUE, Math::max);
+    }
+}
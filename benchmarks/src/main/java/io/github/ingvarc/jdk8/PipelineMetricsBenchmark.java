@@ -0,0 +1,85 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.instrument.PipelineMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the {@code IntStream.range(1, 1000).filter(...).findFirst()} examples of {@code Streams} plain and wrapped in
+ * {@link PipelineMetrics}, counting only or timed as well, plus a long pipeline to show the cost per element.
+ * <p>
+ * The budget for counting is at most 0.5 us per sequential and 2 us per parallel execution of the short-circuiting
+ * examples, and 0.5 ns per element and stage of the long pipeline.
+ * <p>
+ * The budget for timing is the same for the short-circuiting examples, and 1.5 ns per element and stage of the long
+ * pipeline: although only one execution in 16 is timed, the timed lambdas keep the JIT compiler from optimizing the
+ * loop of the untimed ones as well, which take about four times as long as plain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineMetricsBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"false", "true"})
+    private boolean timed;
+
+    private PipelineMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = new PipelineMetrics("benchmark", timed);
+    }
+
+    @Benchmark
+    public int findFirst() {
+        return IntStream.range(1, 1000)
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int instrumentedFindFirst() {
+        return metrics.of(IntStream.range(1, 1000))
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int parallelFindFirst() {
+        return IntStream.range(1, 1000)
+                .parallel()
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int instrumentedParallelFindFirst() {
+        return metrics.of(IntStream.range(1, 1000))
+                .parallel()
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int mapFilterSum() {
+        return IntStream.range(0, SIZE)
+                .map(x -> x * 31)
+                .filter(x -> (x & 1) == 0)
+                .sum();
+    }
+
+    @Benchmark
+    public int instrumentedMapFilterSum() {
+        return metrics.of(IntStream.range(0, SIZE))
+                .map(x -> x * 31)
+                .filter(x -> (x & 1) == 0)
+                .sum();
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.DefaultMethods.LegacyInterface;
+import io.github.ingvarc.jdk8.dispatch.PluginDispatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls {@code LegacyInterface.newMethod()} of {@code DefaultMethods} on {@code implementations} different classes,
+ * half of which override the default method, through the interface and through {@link PluginDispatch}.
+ * <p>
+ * With one or two classes the interface call site is inlined by the JIT compiler anyway; from three on it is
+ * megamorphic. The dispatch is measured with its invoker held in a {@code static final} field, where the exact class
+ * checks and the calls of the known classes are inlined, and in an instance field, where every call goes through an
+ * opaque method handle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PluginDispatchBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private static final List<Class<? extends LegacyInterface>> PLUGINS = Arrays.asList(
+            Plugin0.class, Plugin1.class, Plugin2.class, Plugin3.class,
+            Plugin4.class, Plugin5.class, Plugin6.class, Plugin7.class,
+            Plugin8.class, Plugin9.class, Plugin10.class, Plugin11.class,
+            Plugin12.class, Plugin13.class, Plugin14.class, Plugin15.class);
+
+    private static final MethodHandle NEW_METHOD_1 = invoker(1);
+    private static final MethodHandle NEW_METHOD_2 = invoker(2);
+    private static final MethodHandle NEW_METHOD_4 = invoker(4);
+    private static final MethodHandle NEW_METHOD_16 = invoker(16);
+
+    @Param({"1", "2", "4", "16"})
+    private int implementations;
+
+    private LegacyInterface[] plugins;
+    private MethodHandle newMethod;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        Random random = new Random(42);
+        plugins = new LegacyInterface[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            plugins[i] = PLUGINS.get(random.nextInt(implementations)).getDeclaredConstructor().newInstance();
+        }
+        newMethod = invoker(implementations);
+    }
+
+    private static MethodHandle invoker(int implementations) {
+        return PluginDispatch.of(MethodHandles.lookup(), LegacyInterface.class, "newMethod",
+                MethodType.methodType(String.class), PLUGINS.subList(0, implementations)).invoker();
+    }
+
+    @Benchmark
+    public int interfaceCall() {
+        int length = 0;
+        for (LegacyInterface plugin : plugins) {
+            length += plugin.newMethod().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int dispatch() throws Throwable {
+        switch (implementations) {
+            case 1:
+                return dispatch1();
+            case 2:
+                return dispatch2();
+            case 4:
+                return dispatch4();
+            default:
+                return dispatch16();
+        }
+    }
+
+    @Benchmark
+    public int dispatchFromInstanceField() throws Throwable {
+        int length = 0;
+        for (LegacyInterface plugin : plugins) {
+            length += ((String) newMethod.invokeExact(plugin)).length();
+        }
+        return length;
+    }
+
+    private int dispatch1() throws Throwable {
+        int length = 0;
+        for (LegacyInterface plugin : plugins) {
+            length += ((String) NEW_METHOD_1.invokeExact(plugin)).length();
+        }
+        return length;
+    }
+
+    private int dispatch2() throws Throwable {
+        int length = 0;
+        for (LegacyInterface plugin : plugins) {
+            length += ((String) NEW_METHOD_2.invokeExact(plugin)).length();
+        }
+        return length;
+    }
+
+    private int dispatch4() throws Throwable {
+        int length = 0;
+        for (LegacyInterface plugin : plugins) {
+            length += ((String) NEW_METHOD_4.invokeExact(plugin)).length();
+        }
+        return length;
+    }
+
+    private int dispatch16() throws Throwable {
+        int length = 0;
+        for (LegacyInterface plugin : plugins) {
+            length += ((String) NEW_METHOD_16.invokeExact(plugin)).length();
+        }
+        return length;
+    }
+
+    public static class Plugin implements LegacyInterface {
+        @Override
+        public String legacyMethod() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    public static class Plugin0 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin0";
+        }
+    }
+
+    public static class Plugin1 extends Plugin {
+    }
+
+    public static class Plugin2 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin2.";
+        }
+    }
+
+    public static class Plugin3 extends Plugin {
+    }
+
+    public static class Plugin4 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin4..";
+        }
+    }
+
+    public static class Plugin5 extends Plugin {
+    }
+
+    public static class Plugin6 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin6...";
+        }
+    }
+
+    public static class Plugin7 extends Plugin {
+    }
+
+    public static class Plugin8 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin8....";
+        }
+    }
+
+    public static class Plugin9 extends Plugin {
+    }
+
+    public static class Plugin10 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin10....";
+        }
+    }
+
+    public static class Plugin11 extends Plugin {
+    }
+
+    public static class Plugin12 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin12.....";
+        }
+    }
+
+    public static class Plugin13 extends Plugin {
+    }
+
+    public static class Plugin14 extends Plugin {
+        @Override
+        public String newMethod() {
+            return "New method in Plugin14......";
+        }
+    }
+
+    public static class Plugin15 extends Plugin {
+    }
+}
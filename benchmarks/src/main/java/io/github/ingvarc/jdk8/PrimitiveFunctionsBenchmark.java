@@ -0,0 +1,100 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.function.IntIntToIntFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Applies {@code BiFunction<Integer, Integer, Integer>} and {@code Stream<Integer>.reduce}, as
+ * {@code LocalVariableTypeInference} and {@code Streams} do, next to {@link IntIntToIntFunction}.
+ * <p>
+ * The call sites see {@code morphism} different functions in turn: one keeps them monomorphic and lets the JIT
+ * compiler inline the function and eliminate the boxing, four make them megamorphic, where every call is a virtual
+ * call and every boxed result beyond the {@code Integer} cache is allocated. Run with {@code -prof gc} to see the
+ * allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveFunctionsBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @SuppressWarnings("unchecked")
+    private static final BiFunction<Integer, Integer, Integer>[] BI_FUNCTIONS = new BiFunction[]{
+            (BiFunction<Integer, Integer, Integer>) (x, y) -> x + y,
+            (BiFunction<Integer, Integer, Integer>) (x, y) -> x > y ? x : y,
+            (BiFunction<Integer, Integer, Integer>) (x, y) -> x ^ y,
+            (BiFunction<Integer, Integer, Integer>) (x, y) -> x - y
+    };
+
+    @SuppressWarnings("unchecked")
+    private static final BinaryOperator<Integer>[] BINARY_OPERATORS = new BinaryOperator[]{
+            (BinaryOperator<Integer>) (x, y) -> x + y,
+            (BinaryOperator<Integer>) (x, y) -> x > y ? x : y,
+            (BinaryOperator<Integer>) (x, y) -> x ^ y,
+            (BinaryOperator<Integer>) (x, y) -> x - y
+    };
+
+    private static final IntIntToIntFunction[] FUNCTIONS = {
+            (x, y) -> x + y,
+            (x, y) -> x > y ? x : y,
+            (x, y) -> x ^ y,
+            (x, y) -> x - y
+    };
+
+    @Param({"1", "2", "4"})
+    private int morphism;
+
+    private int[] values;
+    private List<Integer> boxedValues;
+    private int invocation;
+
+    @Setup
+    public void setUp() {
+        values = new Random(42).ints(SIZE, 1000, 1_000_000).toArray();
+        boxedValues = IntStream.of(values).boxed().collect(Collectors.toList());
+    }
+
+    private int next() {
+        return invocation++ % morphism;
+    }
+
+    @Benchmark
+    public int biFunctionLoop() {
+        Integer result = 0;
+        for (int i = 0; i < values.length; i++) {
+            result = BI_FUNCTIONS[i % morphism].apply(result, values[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int intIntToIntFunctionLoop() {
+        int result = 0;
+        for (int i = 0; i < values.length; i++) {
+            result = FUNCTIONS[i % morphism].applyAsInt(result, values[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int boxedStreamReduce() {
+        return boxedValues.stream().reduce(BINARY_OPERATORS[next()]).orElse(0);
+    }
+
+    @Benchmark
+    public int intStreamReduce() {
+        return IntStream.of(values).reduce(FUNCTIONS[next()]).orElse(0);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.stats.DoubleStatistics;
+import io.github.ingvarc.jdk8.stats.RandomStreams;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.DoubleStream;
+
+/**
+ * Averages a million random doubles with {@code DoubleStream.generate(Math::random)}, as {@code Streams} does, next
+ * to {@link RandomStreams} and {@link DoubleStatistics}, on a pool of {@code threads} threads.
+ * <p>
+ * The sequential {@code Math::random} stream is the baseline for every thread count. In parallel, all threads of
+ * {@code Math::random} contend on the seed of one {@code Random} and the unsized stream splits poorly, while the
+ * splittable streams give every task a generator of its own; the speedup over the baseline is what they gain on as
+ * many cores. The statistics add the variance, min and max, and with a compression of 100 the quartiles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RandomStatisticsBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double mathRandomAverage() {
+        return DoubleStream.generate(Math::random)
+                .limit(SIZE)
+                .average()
+                .getAsDouble();
+    }
+
+    @Benchmark
+    public double mathRandomParallelAverage() {
+        return pool.submit(() -> DoubleStream.generate(Math::random)
+                .parallel()
+                .limit(SIZE)
+                .average()
+                .getAsDouble()).join();
+    }
+
+    @Benchmark
+    public double splittableAverage() {
+        return pool.submit(() -> RandomStreams.doubles(SIZE)
+                .parallel()
+                .average()
+                .getAsDouble()).join();
+    }
+
+    @Benchmark
+    public DoubleStatistics statistics() {
+        return pool.submit(() -> DoubleStatistics.of(RandomStreams.doubles(SIZE).parallel())).join();
+    }
+
+    @Benchmark
+    public DoubleStatistics statisticsWithQuantiles() {
+        return pool.submit(() -> RandomStreams.doubles(SIZE)
+                .parallel()
+                .collect(() -> new DoubleStatistics(100), DoubleStatistics::accept, DoubleStatistics::combine)).join();
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.search.RangeSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Compares {@link RangeSearch} with the parallel {@code findFirst}/{@code findAny} examples of {@link Streams}.
+ * <p>
+ * The speed is compared on the first four benchmarks, which all test the same bare predicate. The {@code counted}
+ * ones run the same searches again and report the {@code evaluations} counter: the predicate calls per second.
+ * Dividing it by their primary score gives the predicate calls per search, i.e. how much work was wasted. Their
+ * throughput is not comparable with the others, as the JDK searches count through a shared {@code LongAdder} there.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeSearchBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    @Param({"42", "99991"})
+    int divisor;
+
+    private final RangeSearch search = new RangeSearch();
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Evaluations {
+        public long evaluations;
+    }
+
+    private IntPredicate divisible() {
+        int d = divisor;
+        return x -> (x % d) == 0;
+    }
+
+    private IntPredicate counting(LongAdder counter) {
+        int d = divisor;
+        return x -> {
+            counter.increment();
+            return (x % d) == 0;
+        };
+    }
+
+    @Benchmark
+    public int jdkFindFirst() {
+        return IntStream.range(1, size)
+                .parallel()
+                .filter(divisible())
+                .findFirst().orElse(-1);
+    }
+
+    @Benchmark
+    public int jdkFindAny() {
+        return IntStream.range(1, size)
+                .unordered()
+                .parallel()
+                .filter(divisible())
+                .findAny().orElse(-1);
+    }
+
+    @Benchmark
+    public int findFirst() {
+        return search.findFirst(1, size, divisible()).getValue().orElse(-1);
+    }
+
+    @Benchmark
+    public int findAny() {
+        return search.findAny(1, size, divisible()).getValue().orElse(-1);
+    }
+
+    @Benchmark
+    public int countedJdkFindFirst(Evaluations evaluations) {
+        LongAdder counter = new LongAdder();
+        int result = IntStream.range(1, size)
+                .parallel()
+                .filter(counting(counter))
+                .findFirst().orElse(-1);
+        evaluations.evaluations += counter.sum();
+        return result;
+    }
+
+    @Benchmark
+    public int countedJdkFindAny(Evaluations evaluations) {
+        LongAdder counter = new LongAdder();
+        int result = IntStream.range(1, size)
+                .unordered()
+                .parallel()
+                .filter(counting(counter))
+                .findAny().orElse(-1);
+        evaluations.evaluations += counter.sum();
+        return result;
+    }
+
+    @Benchmark
+    public int countedFindFirst(Evaluations evaluations) {
+        var result = search.findFirst(1, size, divisible());
+        evaluations.evaluations += result.getEvaluations();
+        return result.getValue().orElse(-1);
+    }
+
+    @Benchmark
+    public int countedFindAny(Evaluations evaluations) {
+        var result = search.findAny(1, size, divisible());
+        evaluations.evaluations += result.getEvaluations();
+        return result.getValue().orElse(-1);
+    }
+}
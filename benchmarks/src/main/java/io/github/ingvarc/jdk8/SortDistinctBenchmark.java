@@ -0,0 +1,82 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.sort.SortDistinct;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link SortDistinct} with the {@code distinct().sorted()} chain of {@link Streams}
+ * on keys where every distinct value occurs four times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortDistinctBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    private String[] keys;
+    private Path spillDirectory;
+    private SortDistinct spilling;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = Long.toString(random.nextInt(size / 4) * 7919L, 36);
+        }
+        spillDirectory = Files.createTempDirectory("sort-distinct");
+        // roughly four spilled runs
+        spilling = new SortDistinct(size * 100L / 4, spillDirectory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    @Benchmark
+    public List<String> distinctSorted() {
+        return Arrays.stream(keys)
+                .distinct()
+                .sorted(String::compareTo)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> parallelDistinctSorted() {
+        return Arrays.stream(keys)
+                .parallel()
+                .distinct()
+                .sorted(String::compareTo)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> sortedDistinct() {
+        return SortDistinct.sortedDistinct(Arrays.stream(keys))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> spillingSortedDistinct() {
+        try (Stream<String> sorted = spilling.apply(Arrays.stream(keys))) {
+            return sorted.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
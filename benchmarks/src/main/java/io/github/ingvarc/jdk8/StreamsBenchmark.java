@@ -0,0 +1,173 @@
+package io.github.ingvarc.jdk8;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of the pipelines shown in {@link Streams#main(String...)},
+ * each run sequentially and in parallel over a range of input sizes.
+ * <p>
+ * The {@code findFirst} searches stop at 42 whatever the size, so their parallel runs only show what evaluating
+ * more elements than needed costs, ordered or not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamsBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    @Param({"sequential", "parallel"})
+    String mode;
+
+    private List<String> words;
+    private List<String> sentences;
+    private List<Integer> intList;
+
+    @Setup
+    public void setUp() {
+        String[] samples = {"Foo", "Bar", "Baz", "Baz", "Foo", "Bar", "Marco", "Polo"};
+        words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add(samples[i % samples.length] + (i % 1000));
+        }
+        Collections.shuffle(words, new Random(42));
+
+        sentences = new ArrayList<>(size / 3);
+        for (int i = 0; i + 2 < size; i += 3) {
+            sentences.add(words.get(i) + " " + words.get(i + 1) + " " + words.get(i + 2));
+        }
+
+        intList = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            intList.add(i);
+        }
+        Collections.shuffle(intList, new Random(42));
+    }
+
+    private boolean parallel() {
+        return "parallel".equals(mode);
+    }
+
+    private <T> Stream<T> stream(Collection<T> source) {
+        return parallel() ? source.parallelStream() : source.stream();
+    }
+
+    private IntStream range(int endExclusive) {
+        IntStream range = IntStream.range(0, endExclusive);
+        return parallel() ? range.parallel() : range;
+    }
+
+    @Benchmark
+    public List<String> filterCollect() {
+        return stream(words)
+                .filter((s) -> s.startsWith("B"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> mapLength() {
+        return stream(words)
+                .map(String::length)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int maxLength() {
+        return stream(words)
+                .map(String::length)
+                .reduce((left, right) -> (left > right ? left : right))
+                .orElse(0);
+    }
+
+    @Benchmark
+    public List<String> flatMapSplit() {
+        return stream(sentences)
+                .flatMap((element) -> Arrays.stream(element.split(" ")))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> distinct() {
+        return stream(words)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> sorted() {
+        return stream(words)
+                .sorted(String::compareTo)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> boxedToMap() {
+        return range(size)
+                .boxed()
+                .collect(Collectors.toMap(Function.identity(), (x) -> x % 4));
+    }
+
+    @Benchmark
+    public int shuffledMax() {
+        return stream(intList)
+                .reduce(Math::max)
+                .get();
+    }
+
+    @Benchmark
+    public double randomAverage() {
+        DoubleStream stream = DoubleStream.generate(Math::random);
+        return (parallel() ? stream.parallel() : stream)
+                .limit(size)
+                .average()
+                .getAsDouble();
+    }
+
+    @Benchmark
+    public int sum() {
+        return range(size)
+                .sum();
+    }
+
+    @Benchmark
+    public int reduceSum() {
+        return range(size)
+                .reduce((r1, r2) -> r2 + r1)
+                .getAsInt();
+    }
+
+    @Benchmark
+    public List<Integer> concat() {
+        int half = size / 2;
+        return Stream.concat(stream(intList.subList(0, half)), stream(intList.subList(half, size)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int findFirst() {
+        IntStream range = IntStream.range(1, size);
+        return (parallel() ? range.parallel() : range)
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+
+    @Benchmark
+    public int unorderedFindFirst() {
+        IntStream range = IntStream.range(1, size).unordered();
+        return (parallel() ? range.parallel() : range)
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt();
+    }
+}
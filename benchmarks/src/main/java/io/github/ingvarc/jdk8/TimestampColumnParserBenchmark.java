@@ -0,0 +1,77 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.time.TimestampColumnParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a file of ISO instants line by line with {@code Instant.parse}, as in {@link DateTimeAPI},
+ * with {@link TimestampColumnParser} on a heap buffer and on the memory-mapped file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimestampColumnParserBenchmark {
+
+    @Param({"100000", "1000000"})
+    int rows;
+
+    private Path file;
+    private ByteBuffer buffer;
+    private final TimestampColumnParser parser = new TimestampColumnParser();
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        long now = Instant.parse("2018-05-26T10:30:00Z").toEpochMilli();
+        StringBuilder text = new StringBuilder(rows * 25);
+        for (int i = 0; i < rows; i++) {
+            text.append(Instant.ofEpochMilli(now + random.nextInt(1_000_000_000))).append('\n');
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        buffer = ByteBuffer.wrap(bytes);
+        file = Files.createTempFile("timestamps", ".txt");
+        Files.write(file, bytes);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long[] instantParseLines() throws IOException {
+        long[] values = new long[rows];
+        int size = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                values[size++] = Instant.parse(line).toEpochMilli();
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    @Benchmark
+    public long[] parseBuffer() {
+        return parser.parse(buffer).getValues();
+    }
+
+    @Benchmark
+    public long[] parseMappedFile() throws IOException {
+        return parser.parse(file).getValues();
+    }
+}
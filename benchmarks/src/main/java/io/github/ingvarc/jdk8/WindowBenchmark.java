@@ -0,0 +1,98 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.window.DoubleWindow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds random doubles, one per operation, to windows of {@code size} values over an endless stream, as
+ * {@code Streams} does with a {@link DoubleWindow}: sliding by every value, by a sixteenth of the size with a
+ * timestamp per value, and tumbling, next to a ring of the last values which is aggregated again for every value.
+ * <p>
+ * The throughput of the windows should stay about the same as the size grows, while that of the ring falls with it.
+ * The latency is sampled per value: the median and the 99th percentile should stay about the same whatever the size.
+ * The values which flip the two stacks of the window, one per {@code size}, take time in proportion to the size,
+ * but they are hard to tell from the noise of the machine in the highest percentiles.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WindowBenchmark {
+
+    private static final int VALUES = 1 << 16;
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private double[] values;
+    private int next;
+    private long time;
+
+    private DoubleWindow sliding;
+    private DoubleWindow hopping;
+    private DoubleWindow tumbling;
+    private double[] ring;
+    private int ringIndex;
+
+    @Setup
+    public void setUp() {
+        values = new Random(42).doubles(VALUES).toArray();
+        sliding = DoubleWindow.ofCount(size, 1);
+        hopping = DoubleWindow.ofTime(size, Math.max(1, size / 16));
+        tumbling = DoubleWindow.ofCount(size);
+        ring = new double[size];
+    }
+
+    private double nextValue() {
+        return values[next++ & (VALUES - 1)];
+    }
+
+    @Benchmark
+    public double sliding() {
+        sliding.add(nextValue());
+        return sliding.getAverage();
+    }
+
+    @Benchmark
+    public double hopping() {
+        hopping.accept(time++, nextValue());
+        return hopping.getAverage();
+    }
+
+    @Benchmark
+    public double tumbling() {
+        tumbling.add(nextValue());
+        return tumbling.getAverage();
+    }
+
+    @Benchmark
+    public void recomputedRing(Blackhole blackhole) {
+        ring[ringIndex] = nextValue();
+        ringIndex = ringIndex + 1 < size ? ringIndex + 1 : 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : ring) {
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        blackhole.consume(sum / size);
+        blackhole.consume(min);
+        blackhole.consume(max);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double slidingLatency() {
+        sliding.add(nextValue());
+        return sliding.getAverage();
+    }
+}
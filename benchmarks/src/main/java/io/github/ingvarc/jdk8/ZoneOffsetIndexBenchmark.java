@@ -0,0 +1,72 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.time.ZoneOffsetIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code LocalDateTime.ofInstant} and {@code atZone} conversions of {@link DateTimeAPI}
+ * with {@link ZoneOffsetIndex}, per zone, over a column of event timestamps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZoneOffsetIndexBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Param({"UTC", "Asia/Tokyo", "America/New_York", "Europe/Berlin", "Australia/Lord_Howe"})
+    String zoneId;
+
+    private ZoneId zone;
+    private ZoneOffsetIndex index;
+    private long[] epochSeconds;
+    private long[] result;
+
+    @Setup
+    public void setUp() {
+        zone = ZoneId.of(zoneId);
+        index = ZoneOffsetIndex.of(zone, 2000, 2040);
+        long from = Instant.parse("2015-01-01T00:00:00Z").getEpochSecond();
+        long to = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+        epochSeconds = new Random(42).longs(SIZE, from, to).toArray();
+        result = new long[SIZE];
+    }
+
+    @Benchmark
+    public long[] ofInstant() {
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds[i]), zone).toEpochSecond(ZoneOffset.UTC);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long[] indexToLocal() {
+        index.toLocalEpochSeconds(epochSeconds, result);
+        return result;
+    }
+
+    @Benchmark
+    public long[] atZone() {
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = LocalDateTime.ofEpochSecond(epochSeconds[i], 0, ZoneOffset.UTC).atZone(zone).toEpochSecond();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long[] indexToInstant() {
+        index.toEpochSeconds(epochSeconds, result);
+        return result;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.ingvarc.jdk9;
+
+import io.github.ingvarc.jdk9.collections.CompactCollections;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of {@code Map.ofEntries} and {@code Set.of} next to the {@link CompactCollections} layouts.
+ * <p>
+ * Every invocation looks up a batch of keys, half of them present, which are equal to but not the same instances as
+ * the stored keys. {@link CompactCollectionsFootprint} reports the retained heap of the same collections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompactCollectionsBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private String[] queries;
+    private Map<String, Integer> mapOfEntries;
+    private Map<String, Integer> hashSortedMap;
+    private Map<String, Integer> perfectHashMap;
+    private Set<String> setOf;
+    private Set<String> hashSortedSet;
+    private Set<String> perfectHashSet;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        String[] keys = keys(size);
+        Map.Entry<String, Integer>[] entries = new Map.Entry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = Map.entry(keys[i], i);
+        }
+        mapOfEntries = Map.ofEntries(entries);
+        hashSortedMap = CompactCollections.mapOfEntries(entries);
+        perfectHashMap = CompactCollections.stringMapOfEntries(entries);
+        setOf = Set.of(keys);
+        hashSortedSet = CompactCollections.setOf(keys);
+        perfectHashSet = CompactCollections.stringSetOf(keys);
+
+        Random random = new Random(42);
+        queries = new String[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            queries[i] = random.nextBoolean()
+                    ? new String(keys[random.nextInt(size)].toCharArray())
+                    : "missing-" + random.nextInt();
+        }
+    }
+
+    /**
+     * Distinct keys shaped like identifiers.
+     */
+    static String[] keys(int size) {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key-" + Integer.toString(i * 0x9E3779B1, 36);
+        }
+        return keys;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void mapOfEntriesGet(Blackhole blackhole) {
+        get(mapOfEntries, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void hashSortedMapGet(Blackhole blackhole) {
+        get(hashSortedMap, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void perfectHashMapGet(Blackhole blackhole) {
+        get(perfectHashMap, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void setOfContains(Blackhole blackhole) {
+        contains(setOf, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void hashSortedSetContains(Blackhole blackhole) {
+        contains(hashSortedSet, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void perfectHashSetContains(Blackhole blackhole) {
+        contains(perfectHashSet, blackhole);
+    }
+
+    private void get(Map<String, Integer> map, Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(map.get(query));
+        }
+    }
+
+    private void contains(Set<String> set, Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(set.contains(query));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.ingvarc.jdk9;
+
+import io.github.ingvarc.jdk9.collections.CompactCollections;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prints the retained heap of {@code Map.ofEntries} and {@code Set.of} next to the {@link CompactCollections} layouts,
+ * keys included, as measured by JOL.
+ * <pre>
+ * java -Djdk.attach.allowAttachSelf -cp benchmarks/target/benchmarks.jar io.github.ingvarc.jdk9.CompactCollectionsFootprint
+ * </pre>
+ */
+public class CompactCollectionsFootprint {
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) {
+        System.out.printf("%8s %16s %16s %16s %16s %16s %16s%n", "size",
+                "Map.ofEntries", "hash sorted map", "perfect hash map", "Set.of", "hash sorted set", "perfect hash set");
+        for (int size : new int[]{1000, 10000, 100000}) {
+            String[] keys = CompactCollectionsBenchmark.keys(size);
+            Map.Entry<String, Integer>[] entries = new Map.Entry[size];
+            for (int i = 0; i < size; i++) {
+                entries[i] = Map.entry(keys[i], i);
+            }
+            System.out.printf("%8d %16d %16d %16d %16d %16d %16d%n", size,
+                    footprint(Map.ofEntries(entries)),
+                    footprint(CompactCollections.mapOfEntries(entries)),
+                    footprint(CompactCollections.stringMapOfEntries(entries)),
+                    footprint(Set.of(keys)),
+                    footprint(CompactCollections.setOf(keys)),
+                    footprint(CompactCollections.stringSetOf(keys)));
+        }
+    }
+
+    private static long footprint(Object collection) {
+        return GraphLayout.parseInstance(collection).totalSize();
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.ingvarc.jdk9;
+
+import io.github.ingvarc.jdk9.collections.InternedMaps;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the retained heap of per-tenant reference data loaded with plain {@code Map.ofEntries} and with
+ * {@link InternedMaps}, as measured by JOL, next to the hit rate and the estimated bytes saved.
+ * <p>
+ * Every tenant loads the same few maps, parsing fresh keys and values like a configuration loader would, and half of
+ * the maps also carry a tenant-specific entry.
+ * <pre>
+ * java -Djdk.attach.allowAttachSelf -cp benchmarks/target/benchmarks.jar io.github.ingvarc.jdk9.InternedMapsFootprint
+ * </pre>
+ */
+public class InternedMapsFootprint {
+
+    private static final int MAPS_PER_TENANT = 8;
+
+    public static void main(String[] args) {
+        System.out.printf("%8s %8s %16s %16s %10s %16s%n",
+                "tenants", "entries", "Map.ofEntries", "InternedMaps", "hit rate", "estimated saved");
+        for (int tenants : new int[]{10, 100, 1000}) {
+            for (int entries : new int[]{10, 100}) {
+                InternedMaps interned = new InternedMaps();
+                List<Map<String, Object>> plainMaps = new ArrayList<>();
+                List<Map<String, Object>> internedMaps = new ArrayList<>();
+                for (int tenant = 0; tenant < tenants; tenant++) {
+                    for (int map = 0; map < MAPS_PER_TENANT; map++) {
+                        plainMaps.add(Map.ofEntries(load(tenant, map, entries)));
+                        internedMaps.add(interned.ofEntries(load(tenant, map, entries)));
+                    }
+                }
+                System.out.printf("%8d %8d %16d %16d %9.1f%% %16d%n", tenants, entries,
+                        GraphLayout.parseInstance(plainMaps).totalSize(),
+                        GraphLayout.parseInstance(internedMaps).totalSize(),
+                        interned.getHitRate() * 100, interned.getBytesSaved());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map.Entry<String, Object>[] load(int tenant, int map, int entries) {
+        boolean tenantSpecific = map % 2 == 1;
+        Map.Entry<String, Object>[] loaded = new Map.Entry[tenantSpecific ? entries + 1 : entries];
+        for (int i = 0; i < entries; i++) {
+            Object value = i % 2 == 0 ? "value-" + map + "-" + i : Long.valueOf(1_000_000L * map + i);
+            loaded[i] = Map.entry("setting." + map + "." + i, value);
+        }
+        if (tenantSpecific) {
+            loaded[entries] = Map.entry("tenant", "tenant-" + tenant);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ingvarc.jdk9;
+
+import io.github.ingvarc.jdk9.optional.OptionalCollectors;
+import io.github.ingvarc.jdk9.optional.PresenceCount;
+import io.github.ingvarc.jdk9.optional.PresenceCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Counts present and empty values of a parallel stream of {@code Optional}s as {@code OptionalUpdates.main} does,
+ * with {@code AtomicInteger}s, next to {@link PresenceCounter} and {@link OptionalCollectors}.
+ * <p>
+ * The stream runs in a pool of the given parallelism; more threads than cores still show the contention of the
+ * shared counters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OptionalCountingBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"1", "4", "16", "64"})
+    private int threads;
+
+    private List<Optional<String>> optionals;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        optionals = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            optionals.add(random.nextInt(10) < 7 ? Optional.of(Integer.toString(i)) : Optional.empty());
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int atomicIntegers() {
+        return pool.submit(() -> {
+            AtomicInteger successCounter = new AtomicInteger(0);
+            AtomicInteger onEmptyOptionalCounter = new AtomicInteger(0);
+            optionals.parallelStream()
+                    .forEach(v -> v.ifPresentOrElse(x -> successCounter.incrementAndGet(),
+                            onEmptyOptionalCounter::incrementAndGet));
+            return successCounter.get() + onEmptyOptionalCounter.get();
+        }).join();
+    }
+
+    @Benchmark
+    public long presenceCounter() {
+        return pool.submit(() -> {
+            PresenceCounter counter = new PresenceCounter();
+            optionals.parallelStream().forEach(counter);
+            return counter.getPresent() + counter.getEmpty();
+        }).join();
+    }
+
+    @Benchmark
+    public long countingPresence() {
+        return pool.submit(() -> optionals.parallelStream()
+                .collect(OptionalCollectors.countingPresence())
+                .getTotal()).join();
+    }
+
+    @Benchmark
+    public PresenceCount<List<String>> partitioningByPresence() {
+        return pool.submit(() -> optionals.parallelStream()
+                .collect(OptionalCollectors.partitioningByPresence(Collectors.toList()))).join();
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.ingvarc.jdk9;
+
+import io.github.ingvarc.jdk9.optional.OptionalStreams;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Flattens a list of {@code Optional}s with {@code flatMap(Optional::stream)}, as {@code OptionalUpdates.main} does,
+ * next to {@link OptionalStreams}; 70% of the values are present.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@State(Scope.Benchmark)
+public class OptionalStreamsBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"sequential", "parallel"})
+    private String mode;
+
+    private List<Optional<String>> optionals;
+    private List<OptionalInt> optionalInts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        optionals = new ArrayList<>(size);
+        optionalInts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean present = random.nextInt(10) < 7;
+            optionals.add(present ? Optional.of(Integer.toString(i)) : Optional.empty());
+            optionalInts.add(present ? OptionalInt.of(i) : OptionalInt.empty());
+        }
+    }
+
+    private <T> Stream<T> stream(List<T> list) {
+        return "parallel".equals(mode) ? list.parallelStream() : list.stream();
+    }
+
+    @Benchmark
+    public long flatMapOptionalStream() {
+        return stream(optionals).flatMap(Optional::stream).mapToInt(String::length).sum();
+    }
+
+    @Benchmark
+    public long present() {
+        return OptionalStreams.present(stream(optionals)).mapToInt(String::length).sum();
+    }
+
+    @Benchmark
+    public long flatMapToIntOptionalIntStream() {
+        return stream(optionalInts).flatMapToInt(OptionalInt::stream).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long presentInts() {
+        return OptionalStreams.presentInts(stream(optionalInts)).asLongStream().sum();
+    }
+
+    /**
+     * Short-circuiting pulls the values one by one through {@code tryAdvance}.
+     */
+    @Benchmark
+    public Optional<String> flatMapOptionalStreamFindFirst() {
+        return stream(optionals).flatMap(Optional::stream).filter(s -> s.endsWith("99999")).findFirst();
+    }
+
+    @Benchmark
+    public Optional<String> presentFindFirst() {
+        return OptionalStreams.present(stream(optionals)).filter(s -> s.endsWith("99999")).findFirst();
+    }
+}
@@ -1,6 +1,12 @@
 package io.github.ingvarc.jdk10;
 
+import io.github.ingvarc.jdk10.columnar.AuthorTable;
+import io.github.ingvarc.jdk10.io.AsyncLineSink;
+import io.github.ingvarc.jdk10.io.MappedLineReader;
+import io.github.ingvarc.jdk8.function.IntIntToIntFunction;
+
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
@@ -90,6 +96,22 @@ public class LocalVariableTypeInference {
             System.out.println(author.getName() + " " + author.getAge());
         }
 
+        // the same lines written in batches by a background thread instead of locking and flushing System.out per line
+        try (var sink = AsyncLineSink.standardOutput()) {
+            for (var author : authors) {
+                sink.println(author.getName() + " " + author.getAge());
+            }
+        }
+
+        // the same authors stored column by column and read through one reusable cursor
+        var authorTable = new AuthorTable();
+        authorTable.add("Walter Isaacson", 65);
+        authorTable.add("Joanne Rowling", 52);
+        authorTable.countAgeGreaterThan(60); // 1
+        for (var cursor = authorTable.cursor(); cursor.next(); ) {
+            System.out.println(cursor.getName() + " " + cursor.getAge());
+        }
+
         var numbers = List.of("one", "two", "three");
         for (String aNumber : numbers) {
             System.out.println(aNumber);
@@ -106,6 +128,14 @@ public class LocalVariableTypeInference {
         }
 
 
+        // the same lines decoded as UTF-8 from a memory-mapped file, in parallel batches and in no particular order
+        try {
+            new MappedLineReader().forEachLine(Paths.get("non-existent-file"), System.out::println);
+        } catch (IOException ex) {
+            System.out.println("There's still no `non-existent-file`");
+        }
+
+
         // CharSequence & Comparable comparableCharSequence = getComparableCharSequence("s");
         var comparableCharSequence = getComparableCharSequence("The Force will be with you. Always.");
         System.out.println(comparableCharSequence.length());
@@ -134,6 +164,7 @@ public class LocalVariableTypeInference {
 
         // Lambdas must always declare an explicit type
         BiFunction<Integer, Integer, Integer> add = (x, y) -> x + y;
+        IntIntToIntFunction addInts = (x, y) -> x + y;              // the same without boxing
         // var add = (x, y) -> x + y;                               // DOESN'T COMPILE
         // var nameSupplier = () -> "Luke";                         // DOESN'T COMPILE
         // var nameFetcher = LocalVariableTypeInference::getName;   // DOESN'T COMPILE
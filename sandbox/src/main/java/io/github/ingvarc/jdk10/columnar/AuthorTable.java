@@ -0,0 +1,204 @@
+package io.github.ingvarc.jdk10.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A growable table of authors stored column by column, the struct-of-arrays counterpart of {@code ArrayList<Author>}.
+ * <p>
+ * Every author is a row of an {@code int[]} column of ages and an {@code int[]} column of name ids. The names are
+ * dictionary-encoded: each distinct name is stored once, as UTF-8 in a shared {@code byte[]} arena, and rows refer to
+ * it by id. There is no object, and no object header or pointer to follow, per author.
+ * <p>
+ * Rows are read in place through a {@link Cursor}, a flyweight which can be moved over the rows. The scans over the
+ * age column are plain counted loops without branches on the data, which the JIT compiler can unroll and vectorize,
+ * and filtering by name compares ids instead of strings.
+ */
+public class AuthorTable {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final NameDictionary names = new NameDictionary();
+    private int[] ages;
+    private int[] nameIds;
+    private int size;
+
+    public AuthorTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AuthorTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        ages = new int[initialCapacity];
+        nameIds = new int[initialCapacity];
+    }
+
+    /**
+     * @return the row of the author
+     */
+    public int add(String name, int age) {
+        int nameId = names.add(name);
+        if (size == ages.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, 2 * size);
+            ages = Arrays.copyOf(ages, capacity);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+        }
+        ages[size] = age;
+        nameIds[size] = nameId;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The number of distinct names.
+     */
+    public int getNameCount() {
+        return names.size();
+    }
+
+    public int getAge(int row) {
+        checkRow(row);
+        return ages[row];
+    }
+
+    /**
+     * The id of the name of the row, the same for all the rows of an equal name.
+     */
+    public int getNameId(int row) {
+        checkRow(row);
+        return nameIds[row];
+    }
+
+    /**
+     * Decodes the name of the row into a new {@code String}.
+     */
+    public String getName(int row) {
+        return names.get(getNameId(row));
+    }
+
+    /**
+     * A cursor before the first row.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public int countAgeGreaterThan(int age) {
+        int[] ages = this.ages;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += ages[i] > age ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the rows of an age from {@code from} inclusive to {@code to} exclusive.
+     */
+    public int countAgeBetween(int from, int to) {
+        int[] ages = this.ages;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += ages[i] >= from & ages[i] < to ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * The rows of an age greater than the given one, in ascending order.
+     */
+    public int[] rowsWithAgeGreaterThan(int age) {
+        int[] ages = this.ages;
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            rows[n] = i;
+            n += ages[i] > age ? 1 : 0;
+        }
+        return Arrays.copyOf(rows, n);
+    }
+
+    /**
+     * The rows of the name, in ascending order.
+     */
+    public int[] rowsWithName(String name) {
+        int nameId = names.idOf(name);
+        if (nameId < 0) {
+            return new int[0];
+        }
+        int[] nameIds = this.nameIds;
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            rows[n] = i;
+            n += nameIds[i] == nameId ? 1 : 0;
+        }
+        return Arrays.copyOf(rows, n);
+    }
+
+    public long sumAges() {
+        int[] ages = this.ages;
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += ages[i];
+        }
+        return sum;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of 0.." + size);
+        }
+    }
+
+    /**
+     * A movable view of one row of the table.
+     */
+    public final class Cursor {
+
+        private int row = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next row.
+         *
+         * @return false if there is none
+         */
+        public boolean next() {
+            if (row + 1 >= size) {
+                row = size;
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        public Cursor moveTo(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getAge() {
+            return AuthorTable.this.getAge(row);
+        }
+
+        public int getNameId() {
+            return AuthorTable.this.getNameId(row);
+        }
+
+        public String getName() {
+            return AuthorTable.this.getName(row);
+        }
+    }
+}
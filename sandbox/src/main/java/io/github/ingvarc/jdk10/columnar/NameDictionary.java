@@ -0,0 +1,123 @@
+package io.github.ingvarc.jdk10.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns dense ids to distinct strings and stores them as UTF-8 in one {@code byte[]} arena with an {@code int[]} of
+ * offsets.
+ * <p>
+ * The ids are found through an open addressing table of ids hashed by the bytes of their strings, so no
+ * {@code String} is kept per entry; strings are decoded again when asked for.
+ */
+final class NameDictionary {
+
+    private byte[] arena = new byte[256];
+    private int arenaSize;
+    private int[] offsets = new int[17];
+    private int size;
+    private int[] hashes = new int[16];
+
+    /**
+     * Ids plus one in slots hashed by the bytes of their strings, 0 in free slots; at most half full.
+     */
+    private int[] table = new int[32];
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The number of bytes of all the strings.
+     */
+    int arenaSize() {
+        return arenaSize;
+    }
+
+    String get(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " out of 0.." + size);
+        }
+        return new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The id of the string, or -1 if it has none.
+     */
+    int idOf(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes);
+        for (int slot = hash & (table.length - 1); table[slot] != 0; slot = (slot + 1) & (table.length - 1)) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && matches(id, bytes)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The id of the string, which is assigned the next id if it has none yet.
+     */
+    int add(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes);
+        int slot = hash & (table.length - 1);
+        for (; table[slot] != 0; slot = (slot + 1) & (table.length - 1)) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && matches(id, bytes)) {
+                return id;
+            }
+        }
+        if (arenaSize + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaSize + bytes.length, 2 * arena.length));
+        }
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, 2 * size);
+            offsets = Arrays.copyOf(offsets, 2 * size + 1);
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        arenaSize += bytes.length;
+        int id = size++;
+        offsets[size] = arenaSize;
+        hashes[id] = hash;
+        table[slot] = id + 1;
+        if (2 * size > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private boolean matches(int id, byte[] bytes) {
+        int from = offsets[id];
+        if (offsets[id + 1] - from != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena[from + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        table = new int[2 * table.length];
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & (table.length - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 0;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
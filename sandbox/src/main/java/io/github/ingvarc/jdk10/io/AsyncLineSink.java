@@ -0,0 +1,288 @@
+package io.github.ingvarc.jdk10.io;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes lines to a file channel from a background thread.
+ * <p>
+ * {@code System.out.println} takes the lock of the {@code PrintStream} and flushes it for every line, so threads
+ * printing in a loop wait for each other and for a system call per line. Here a line is only converted to a
+ * {@code String} by the calling thread and put into a lock-free ring buffer. A single writer thread takes the lines in
+ * batches, encodes them as UTF-8 into a direct {@code ByteBuffer} and writes it to the channel when it is full or
+ * when the flush policy says so.
+ * <p>
+ * The flush delay is how long encoded lines may wait in the buffer for more to come: with {@link Duration#ZERO} the
+ * buffer is written as soon as no more lines are queued, a longer delay makes fewer, larger writes at the cost of
+ * latency. When the ring buffer is full, lines are either dropped and counted or the calling thread waits for space,
+ * depending on the {@link Overflow} policy.
+ * <p>
+ * Closing the sink writes the lines queued so far, stops the writer and rethrows any error it got; the channel itself
+ * is left open. Lines printed while the sink is being closed may be lost.
+ */
+public class AsyncLineSink implements AutoCloseable {
+
+    /**
+     * What to do with a line when the ring buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * Drop the line and count it as dropped.
+         */
+        DROP,
+        /**
+         * Wait until the writer makes space.
+         */
+        BLOCK
+    }
+
+    static final int DEFAULT_CAPACITY = 1 << 14;
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int BATCH = 256;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final FileChannel channel;
+    private final RecordRing<String> ring;
+    private final Overflow overflow;
+    private final long flushDelayNanos;
+    private final ByteBuffer buffer;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private volatile boolean closed;
+    /**
+     * The first error writing to the channel, an {@code IOException} or a {@code RuntimeException}.
+     */
+    private volatile Exception failure;
+
+    /**
+     * Creates a sink writing to the standard output, as {@code System.out} does, with the default settings.
+     */
+    public static AsyncLineSink standardOutput() {
+        return new AsyncLineSink(new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+
+    /**
+     * Creates a sink queueing up to 16384 lines, blocking when they are full and writing them in batches of 64 KB as
+     * soon as no more are queued.
+     */
+    public AsyncLineSink(FileChannel channel) {
+        this(channel, DEFAULT_CAPACITY, Overflow.BLOCK, Duration.ZERO, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel    the channel the lines are written to
+     * @param capacity   the number of lines queued before overflowing, rounded up to a power of two
+     * @param overflow   what to do with a line when that many are queued
+     * @param flushDelay how long encoded lines may wait for more before they are written
+     * @param bufferSize the number of bytes encoded before they are written regardless of the delay
+     */
+    public AsyncLineSink(FileChannel channel, int capacity, Overflow overflow, Duration flushDelay, int bufferSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        if (flushDelay.isNegative()) {
+            throw new IllegalArgumentException("Illegal flush delay: " + flushDelay);
+        }
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+        }
+        this.channel = channel;
+        this.ring = new RecordRing<>(capacity);
+        this.overflow = overflow;
+        this.flushDelayNanos = flushDelay.toNanos();
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.writer = new Thread(this::write, "async-line-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the line, which is converted with {@code String.valueOf} by the calling thread.
+     *
+     * @return false if the line was dropped
+     * @throws IllegalStateException if the sink is closed, or if the line waits for space and the writer has stopped
+     */
+    public boolean println(Object line) {
+        if (closed) {
+            throw new IllegalStateException("Sink is closed");
+        }
+        String text = String.valueOf(line);
+        if (ring.offer(text)) {
+            return true;
+        }
+        if (overflow == Overflow.DROP) {
+            dropped.increment();
+            return false;
+        }
+        while (!ring.offer(text)) {
+            if (closed) {
+                throw new IllegalStateException("Sink is closed");
+            }
+            if (!writer.isAlive()) {
+                throw new IllegalStateException("Sink writer has stopped", failure);
+            }
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        return true;
+    }
+
+    /**
+     * The number of lines queued and not yet taken by the writer, approximate while lines are added.
+     */
+    public int getQueueDepth() {
+        return ring.size();
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * The number of lines written to the channel, or dropped after the channel failed.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * @throws IOException the first error writing to the channel; a {@code RuntimeException} is rethrown as is
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Exception e = failure;
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e != null) {
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * The writer thread, which records what stops it as the failure.
+     */
+    private void write() {
+        try {
+            writeLines();
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private void writeLines() {
+        String[] lines = new String[BATCH];
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long unflushedSince = 0;
+        while (true) {
+            boolean closing = closed;
+            int n = ring.drain(lines, BATCH);
+            for (int i = 0; i < n; i++) {
+                if (buffer.position() == 0) {
+                    unflushedSince = System.nanoTime();
+                }
+                encode(lines[i], encoder);
+                lines[i] = null;
+            }
+            written.add(n);
+            if (n == BATCH) {
+                continue;
+            }
+            long waited = System.nanoTime() - unflushedSince;
+            if (buffer.position() > 0 && (closing || waited >= flushDelayNanos)) {
+                flush();
+            }
+            if (closing && n == 0 && ring.size() == 0) {
+                return;
+            }
+            if (n == 0) {
+                long due = buffer.position() > 0 ? flushDelayNanos - waited : MAX_PARK_NANOS;
+                LockSupport.parkNanos(this, Math.max(1, Math.min(due, MAX_PARK_NANOS)));
+            }
+        }
+    }
+
+    private void encode(String line, CharsetEncoder encoder) {
+        int i = 0;
+        int length = line.length();
+        while (i < length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buffer.put((byte) c);
+            i++;
+        }
+        if (i < length) {
+            CharBuffer chars = CharBuffer.wrap(line, i, length);
+            encoder.reset();
+            while (encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW) {
+                flush();
+            }
+            while (encoder.flush(buffer) == CoderResult.OVERFLOW) {
+                flush();
+            }
+        }
+        if (buffer.remaining() < LINE_SEPARATOR.length) {
+            flush();
+        }
+        buffer.put(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the buffer out; after a failure the lines are discarded so that producers never wait forever.
+     */
+    private void flush() {
+        buffer.flip();
+        if (failure == null) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.ingvarc.jdk10.io;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The lines of one segment of a file.
+ */
+public final class LineBatch {
+
+    private final long index;
+    private final long offset;
+    private final String[] lines;
+
+    LineBatch(long index, long offset, String[] lines) {
+        this.index = index;
+        this.offset = offset;
+        this.lines = lines;
+    }
+
+    /**
+     * The position of the segment in the file, starting at 0, which restores the order of the batches if needed.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * The byte offset of the first line in the file.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public int size() {
+        return lines.length;
+    }
+
+    public String get(int i) {
+        return lines[i];
+    }
+
+    public List<String> getLines() {
+        return Collections.unmodifiableList(Arrays.asList(lines));
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.ingvarc.jdk10.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Reads the lines of a UTF-8 file in parallel batches.
+ * <p>
+ * Unlike {@code new BufferedReader(new InputStreamReader(file)).lines()}, which decodes with the platform charset and
+ * hands out one line at a time on one thread, the file is memory-mapped segment by segment. Each segment ends at a
+ * newline, so its lines can be decoded independently, straight from the mapped buffer, and passed as one
+ * {@link LineBatch} to a handler running on the executor.
+ * <p>
+ * The calling thread only maps and splits the segments. At most {@code maxPendingBatches} segments are submitted and
+ * not yet handled at a time: once that many are pending the calling thread waits, so a slow handler holds back reading
+ * instead of letting mapped segments pile up.
+ * <p>
+ * Lines end with {@code \n} or {@code \r\n}; a last line without a newline is read too. A line longer than the segment
+ * size makes its segment grow to hold it. Batches are handled in no particular order and concurrently, their
+ * {@link LineBatch#getIndex() index} gives their order in the file.
+ */
+public class MappedLineReader {
+
+    static final int DEFAULT_SEGMENT_SIZE = 4 << 20;
+
+    /**
+     * The number of chars each thread keeps to decode lines into; a longer line gets a buffer of its own.
+     */
+    static final int KEPT_CHARS = 64 << 10;
+
+    private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[KEPT_CHARS]);
+
+    private final Executor executor;
+    private final int segmentSize;
+    private final int maxPendingBatches;
+
+    /**
+     * Creates a reader handling segments of 4 MB in the common pool, with twice as many pending as the pool has threads.
+     */
+    public MappedLineReader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE, 2 * Math.max(1, ForkJoinPool.getCommonPoolParallelism()));
+    }
+
+    /**
+     * @param executor          the executor decoding and handling the batches
+     * @param segmentSize       the number of bytes mapped per batch, extended to the next newline
+     * @param maxPendingBatches the number of batches submitted and not yet handled before reading waits
+     */
+    public MappedLineReader(Executor executor, int segmentSize, int maxPendingBatches) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Illegal segment size: " + segmentSize);
+        }
+        if (maxPendingBatches <= 0) {
+            throw new IllegalArgumentException("Illegal number of pending batches: " + maxPendingBatches);
+        }
+        this.executor = executor;
+        this.segmentSize = segmentSize;
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    /**
+     * Passes every line to the action, which is called concurrently and in no particular order.
+     *
+     * @return the number of lines
+     */
+    public long forEachLine(Path file, Consumer<? super String> action) throws IOException {
+        return forEachBatch(file, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                action.accept(batch.get(i));
+            }
+        });
+    }
+
+    /**
+     * Passes the lines of every segment to the handler, which is called concurrently and in no particular order.
+     * <p>
+     * Returns once all the batches have been handled. If the handler throws, no more segments are read and the first
+     * exception is rethrown, even a checked one thrown without being declared.
+     *
+     * @return the number of lines
+     */
+    public long forEachBatch(Path file, Consumer<? super LineBatch> handler) throws IOException {
+        Semaphore pending = new Semaphore(maxPendingBatches);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder lines = new LongAdder();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long index = 0;
+            for (long offset = 0; offset < size && failure.get() == null; index++) {
+                MappedByteBuffer segment = mapSegment(channel, offset, size);
+                long segmentIndex = index;
+                long segmentOffset = offset;
+                offset += segment.limit();
+                pending.acquireUninterruptibly();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            LineBatch batch = new LineBatch(segmentIndex, segmentOffset, decodeLines(segment));
+                            lines.add(batch.size());
+                            handler.accept(batch);
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            pending.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    pending.release();
+                    throw e;
+                }
+            }
+        } finally {
+            pending.acquireUninterruptibly(maxPendingBatches);
+        }
+        Throwable e = failure.get();
+        if (e instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) e).getCause();
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e != null) {
+            throw MappedLineReader.<RuntimeException>sneakyThrow(e);
+        }
+        return lines.sum();
+    }
+
+    /**
+     * Rethrows a checked exception which the handler threw without declaring it, as it was thrown.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    /**
+     * Maps the segment at the offset, limited to just after its last newline.
+     */
+    private MappedByteBuffer mapSegment(FileChannel channel, long offset, long size) throws IOException {
+        long length = segmentSize;
+        while (true) {
+            length = Math.min(length, size - offset);
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            if (offset + length == size) {
+                return segment;
+            }
+            for (int i = (int) length - 1; i >= 0; i--) {
+                if (segment.get(i) == '\n') {
+                    segment.limit(i + 1);
+                    return segment;
+                }
+            }
+            if (length == Integer.MAX_VALUE) {
+                throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes at offset " + offset);
+            }
+            length = Math.min(2 * length, Integer.MAX_VALUE);
+        }
+    }
+
+    private static String[] decodeLines(MappedByteBuffer segment) {
+        List<String> lines = new ArrayList<>();
+        int limit = segment.limit();
+        char[] kept = CHARS.get();
+        for (int start = 0; start < limit; ) {
+            char[] chars = kept;
+            int to = (int) Math.min(limit, (long) start + chars.length);
+            long decoded = Utf8.decode(segment, start, to, (byte) '\n', chars);
+            int end = (int) (decoded >>> 32);
+            if (end == to && to < limit) {
+                int lineEnd = to;
+                while (lineEnd < limit && segment.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                chars = new char[lineEnd - start];
+                decoded = Utf8.decode(segment, start, lineEnd, (byte) '\n', chars);
+                end = (int) (decoded >>> 32);
+            }
+            int length = (int) decoded;
+            if (length > 0 && chars[length - 1] == '\r') {
+                length--;
+            }
+            lines.add(new String(chars, 0, length));
+            start = end + 1;
+        }
+        return lines.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.ingvarc.jdk10.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue for many producers and one consumer.
+ * <p>
+ * Every slot carries a sequence number telling whose turn it is (Vyukov's bounded queue): a producer claims a position
+ * with one compare-and-set on the tail and publishes the element by advancing the sequence of its slot, the consumer
+ * takes it once the sequence says so and hands the slot to the producer one lap ahead. Producers contend only on the
+ * tail and never wait for one another to finish writing.
+ */
+final class RecordRing<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Written by the consumer only.
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    RecordRing(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        elements = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        int slot = (int) position & mask;
+        elements[slot] = element;
+        sequences.lazySet(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Takes up to {@code max} elements into {@code drained}; called by the consumer only.
+     *
+     * @return the number of elements taken
+     */
+    @SuppressWarnings("unchecked")
+    int drain(E[] drained, int max) {
+        long position = head;
+        int n = 0;
+        while (n < max) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break;
+            }
+            drained[n++] = (E) elements[slot];
+            elements[slot] = null;
+            sequences.lazySet(slot, position + elements.length);
+            position++;
+        }
+        head = position;
+        return n;
+    }
+
+    /**
+     * The number of elements claimed by producers and not yet taken, which is approximate while they run.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(elements.length, tail.get() - head));
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ingvarc.jdk10.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes UTF-8 from a buffer, which may be memory-mapped, without copying it to a {@code byte[]} first.
+ * <p>
+ * Malformed input is replaced as the Unicode standard recommends: every maximal subpart of an ill-formed sequence
+ * becomes one {@code U+FFFD}. {@code new String(bytes, UTF_8)} gives the same text except that it may replace some
+ * encoded surrogates with fewer {@code U+FFFD}s.
+ */
+final class Utf8 {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private Utf8() {
+    }
+
+    /**
+     * Decodes the bytes from {@code from} up to {@code to} or the first {@code stop} byte, which must be ASCII, into
+     * {@code chars}, which holds at least {@code to - from} chars.
+     *
+     * @return the number of chars decoded in the low 32 bits and the index of the {@code stop} byte, or {@code to},
+     * in the high 32 bits
+     */
+    static long decode(ByteBuffer buffer, int from, int to, byte stop, char[] chars) {
+        int n = 0;
+        int i = from;
+        while (i < to) {
+            int b = buffer.get(i);
+            if (b >= 0) {
+                if (b == stop) {
+                    break;
+                }
+                chars[n++] = (char) b;
+                i++;
+                continue;
+            }
+            b &= 0xFF;
+            int length;
+            int min = 0x80;
+            int max = 0xBF;
+            if (b >= 0xC2 && b <= 0xDF) {
+                length = 2;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                length = 3;
+                if (b == 0xE0) {
+                    min = 0xA0;
+                } else if (b == 0xED) {
+                    max = 0x9F;
+                }
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                length = 4;
+                if (b == 0xF0) {
+                    min = 0x90;
+                } else if (b == 0xF4) {
+                    max = 0x8F;
+                }
+            } else {
+                chars[n++] = REPLACEMENT;
+                i++;
+                continue;
+            }
+            int codePoint = b & (0xFF >> (length + 1));
+            int valid = 1;
+            while (valid < length && i + valid < to) {
+                int next = buffer.get(i + valid) & 0xFF;
+                if (next < min || next > max) {
+                    break;
+                }
+                codePoint = codePoint << 6 | next & 0x3F;
+                min = 0x80;
+                max = 0xBF;
+                valid++;
+            }
+            i += valid;
+            if (valid < length) {
+                chars[n++] = REPLACEMENT;
+            } else if (length < 4) {
+                chars[n++] = (char) codePoint;
+            } else {
+                chars[n++] = Character.highSurrogate(codePoint);
+                chars[n++] = Character.lowSurrogate(codePoint);
+            }
+        }
+        return (long) i << 32 | n;
+    }
+}
@@ -1,5 +1,13 @@
 package io.github.ingvarc.jdk8;
 
+import io.github.ingvarc.jdk8.time.CoarseClock;
+import io.github.ingvarc.jdk8.time.DateTimeCodec;
+import io.github.ingvarc.jdk8.time.EpochDays;
+import io.github.ingvarc.jdk8.time.LegacyDateBridge;
+import io.github.ingvarc.jdk8.time.TimestampColumnParser;
+import io.github.ingvarc.jdk8.time.ZoneOffsetIndex;
+
+import java.nio.CharBuffer;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
@@ -48,6 +56,12 @@ public class DateTimeAPI {
         LocalTime.now(ZoneId.of("America/New_York"));   // the current time from the system clock in New York time-zone
         LocalTime.now(ZoneId.of("Asia/Tokyo"));         // the current time from the system clock in Tokyo time-zone
         LocalTime.now(Clock.systemUTC());               // the current time from the system clock in UTC time-zone
+
+        // a clock refreshed in the background, reading it doesn't touch the system clock or resolve the zone again
+        try (CoarseClock clock = CoarseClock.start(Duration.ofMillis(1), ZoneId.of("Asia/Tokyo"))) {
+            LocalTime.now(clock);   // the current time in Tokyo, at most a millisecond old
+            clock.epochMillis();    // the same as Instant.now().toEpochMilli() without allocating an Instant
+        }
     }
 
     private static void localDateTimeInformation() {
@@ -147,6 +161,13 @@ public class DateTimeAPI {
         LocalDate.parse("2018-05-25");  // 2018-05-25
         LocalDate.parse("2018-W21-5", DateTimeFormatter.ISO_WEEK_DATE); // 2018-05-25
         LocalDate.parse("25.05.2015", DateTimeFormatter.ofPattern("dd.MM.yyyy")); // 2018-05-25
+
+        // formatters are immutable and thread-safe, so they can be built once and reused
+        DateTimeCodec codec = new DateTimeCodec();
+        dateTime.format(codec.formatter("dd.MM.yyyy"));    // 25.05.2018, the pattern is only parsed on the first call
+        LocalDate.parse("25.05.2015", codec.formatter("dd.MM.yyyy"));   // 2015-05-25
+        DateTimeCodec.formatIsoLocalDate(dateTime.toLocalDate(), new StringBuilder());  // 2018-05-25 without a formatter
+        DateTimeCodec.parseIsoLocalDate("2018-05-25", 0);  // 17676, the epoch day of 2018-05-25
     }
 
     private static void temporalAdjuster() {
@@ -157,6 +178,13 @@ public class DateTimeAPI {
         localDate.with(TemporalAdjusters.lastDayOfYear());      // the last day of 2018 (2018-12-31)
         localDate.with(TemporalAdjusters.firstDayOfNextMonth());    // the first day of june 2018 (2018-06-01)
         localDate.with(TemporalAdjusters.next(DayOfWeek.SATURDAY)); // next saturday (2018-05-26)
+
+        // the same adjustments on a primitive epoch day, without a LocalDate per step
+        int epochDay = (int) localDate.toEpochDay();    // 17676
+        EpochDays.firstDayOfMonth(epochDay);            // 17652 (2018-05-01)
+        EpochDays.lastDayOfMonth(epochDay);             // 17682 (2018-05-31)
+        EpochDays.next(epochDay, DayOfWeek.SATURDAY);   // 17677 (2018-05-26)
+        EpochDays.plusMonths(epochDay, 1);              // 17707 (2018-06-25)
     }
 
     private static void conversion() {
@@ -167,6 +195,11 @@ public class DateTimeAPI {
         LocalDateTime.ofInstant(Instant.now(), ZoneId.of("Asia/Tokyo"));    // Instant -> LocalDateTime
         LocalDateTime.now().toInstant(ZoneOffset.ofHours(-6));  // LocalDateTime -> Instant
 
+        // the same on epoch seconds with the zone's transitions looked up in a precomputed index
+        ZoneOffsetIndex tokyo = ZoneOffsetIndex.of(ZoneId.of("Asia/Tokyo"), 2000, 2040);
+        tokyo.toLocalEpochSecond(1527330600L);  // 1527363000, 2018-05-26T10:30Z is 2018-05-26T19:30 in Tokyo
+        tokyo.toEpochSecond(1527363000L);       // 1527330600
+
         // convert from/to old date/calendar/timezone classes
         new Date().toInstant();
         Calendar.getInstance().toInstant();
@@ -175,6 +208,11 @@ public class DateTimeAPI {
         Date.from(Instant.now());
         TimeZone.getTimeZone(ZoneId.of("Asia/Tokyo"));
         GregorianCalendar.from(ZonedDateTime.now());
+
+        // the same without a new TimeZone or Calendar per call
+        LegacyDateBridge.timeZone(ZoneId.of("Asia/Tokyo"));    // cached, must not be modified
+        LegacyDateBridge.calendar(ZonedDateTime.now());         // the calendar of the current thread, reused by the next call
+        LegacyDateBridge.toDates(new long[]{1527325200000L});   // dates of 2018-05-26T09:00:00Z, reusable for the next batch
     }
 
     private static void timestamps() {
@@ -183,6 +221,11 @@ public class DateTimeAPI {
 
         Instant.parse("2018-05-26T10:30:00Z"); // parsing from ISO 8601
 
+        // parsing many timestamps at once into epoch millis, without an Instant per value
+        new TimestampColumnParser()
+                .parse(CharBuffer.wrap("2018-05-26T10:30:00Z\n1527325200000\n2018-05-25"))
+                .getValues();   // [1527330600000, 1527325200000, 1527206400000]
+
         Instant.now().toString();       // current time as ISO 8601 format
         Instant.now().getEpochSecond(); // current time as unix timestamp
         Instant.now().toEpochMilli();   // current time in millis
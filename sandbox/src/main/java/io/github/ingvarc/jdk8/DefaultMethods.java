@@ -1,16 +1,33 @@
 package io.github.ingvarc.jdk8;
 
+import io.github.ingvarc.jdk8.dispatch.PluginDispatch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
 /**
  * The use case of default methods.
  */
 public class DefaultMethods {
 
-    public static void main(String[] args) {
+    /**
+     * The invoker in a constant, so that the JIT inlines its class checks and the calls of the known classes.
+     */
+    private static final MethodHandle NEW_METHOD = PluginDispatch.of(MethodHandles.lookup(), LegacyInterface.class,
+            "newMethod", MethodType.methodType(String.class), Arrays.asList(NewClass.class, LegacyClass.class)).invoker();
+
+    public static void main(String[] args) throws Throwable {
         new NewClass().legacyMethod(); // "Legacy method in NewClass"
         new NewClass().newMethod(); // "New method in NewClass"
 
         new LegacyClass().legacyMethod(); // "Legacy method in LegacyClass"
         new LegacyClass().newMethod(); // "Default method in LegacyInterface"
+
+        // the same calls through handles resolved once per class, inlined per known class when held in a constant
+        String fromNewClass = (String) NEW_METHOD.invokeExact((LegacyInterface) new NewClass()); // "New method in NewClass"
+        String fromLegacyClass = (String) NEW_METHOD.invokeExact((LegacyInterface) new LegacyClass()); // "Default method in LegacyInterface"
     }
 
     public interface LegacyInterface {
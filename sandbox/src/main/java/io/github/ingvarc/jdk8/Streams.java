@@ -0,0 +1,224 @@
+package io.github.ingvarc.jdk8;
+
+import io.github.ingvarc.jdk8.function.IntIntToIntFunction;
+import io.github.ingvarc.jdk8.function.PrimitiveFunctions;
+import io.github.ingvarc.jdk8.instrument.PipelineMetrics;
+import io.github.ingvarc.jdk8.merge.MultiStreams;
+import io.github.ingvarc.jdk8.parallel.ExecutionPlanner;
+import io.github.ingvarc.jdk8.primitives.IntCollectors;
+import io.github.ingvarc.jdk8.primitives.OffHeapIntArray;
+import io.github.ingvarc.jdk8.search.RangeSearch;
+import io.github.ingvarc.jdk8.sort.SortDistinct;
+import io.github.ingvarc.jdk8.stats.DoubleStatistics;
+import io.github.ingvarc.jdk8.stats.RandomStreams;
+import io.github.ingvarc.jdk8.window.DoubleWindow;
+import io.github.ingvarc.jdk8.window.IntWindow;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The class to experiment with Stream API.
+ */
+public class Streams {
+
+    static int invocations = 0;
+
+    public static void main(String... args) {
+
+        Stream.of("Foo", "Bar", "Baz")
+                .findFirst()
+                .orElse(""); // "Foo"
+
+        Stream.of("Foo", "Bar", "Baz")
+                .filter((s) -> s.startsWith("B"))
+                .collect(Collectors.toList()); // "Bar", "Baz"
+
+        Stream.of("Foo", "Bar", "Baz")
+                .map(String::length)
+                .collect(Collectors.toList()); // 3, 3, 3
+
+        Stream.of("Foo", "BarBar", "BazBazBaz")
+                .map(String::length)
+                .reduce((left, right) -> (left > right ? left : right))
+                .orElse(0); // 9
+
+        Stream.of("Foo Bar Baz")
+                .flatMap((element) -> Arrays.stream(element.split(" ")))
+                .collect(Collectors.toList()); // "Foo", "Bar", "Baz"
+
+        Stream.of("Foo", "Bar", "Baz", "Baz", "Foo", "Bar")
+                .distinct()
+                .collect(Collectors.toList()); // "Foo", "Bar", "Baz"
+
+        Stream.of("Foo", "Bar", "Baz")
+                .sorted(String::compareTo)
+                .collect(Collectors.toList()); // "Bar", "Baz", "Foo"
+
+        // both at once with a parallel merge sort and a single deduplicating pass
+        SortDistinct.sortedDistinct(Stream.of("Foo", "Bar", "Baz", "Baz", "Foo", "Bar"))
+                .collect(Collectors.toList()); // "Bar", "Baz", "Foo"
+
+        IntStream.range(0, 1000)
+                .boxed()
+                .collect(Collectors.toCollection(ArrayList::new)); // 0, 1, 2, 3, ...
+
+        IntStream.range(0, 1000)
+                .boxed()
+                .collect(Collectors.toList()); // // 0, 1, 2, 3, ...
+
+        IntStream.range(0, 1000)
+                .boxed()
+                .collect(Collectors.toMap(Function.identity(), (x) -> x % 4)).get(296).equals(0);
+
+        // the same without boxing every element
+        IntCollectors.toIntList(IntStream.range(0, 1000)); // 0, 1, 2, 3, ...
+        IntCollectors.toIntIntMap(IntStream.range(0, 1000), x -> x, x -> x % 4).get(296); // 0
+
+        StringBuilder stringBuilder = new StringBuilder();
+        Stream.of("Foo", "Bar", "Baz").forEach(stringBuilder::append); // "FooBarBaz"
+
+        // lazy
+        Stream<String> stream = Stream.of("Foo", "Marco", "Bar", "Polo", "Baz")
+                .filter((s) -> {
+                    invocations++;
+                    return s.length() == 3;
+                });
+
+        Iterator<String> iterator = stream.iterator();
+        iterator.next(); // invocations == 1
+        iterator.next();
+        iterator.next(); // invocations == 3
+
+        // eager
+        invocations = 0;
+        List<String> aList = Stream.of("Foo", "Marco", "Bar", "Polo", "Baz")
+                .filter((s) -> {
+                    invocations++;
+                    return s.length() == 3;
+                })
+                .collect(Collectors.toList()); // aList.size() == 3; invocations == 5
+
+        invocations = 0;
+        IntStream.range(1, 1000)
+                .filter(x -> {
+                    invocations++;
+                    return (x % 42) == 0;
+                })
+                .findFirst().getAsInt(); // 42, invocations == 42
+
+        // `invocations++` is not atomic, parallel filters have to count with a thread-safe counter
+        LongAdder parallelInvocations = new LongAdder();
+        IntStream.range(1, 1000)
+                .parallel()
+                .filter(x -> {
+                    parallelInvocations.increment();
+                    return (x % 42) == 0;
+                })
+                .findFirst().getAsInt(); // 42, parallelInvocations.sum() == ? since parallel streams can evaluate more
+
+        parallelInvocations.reset();
+        IntStream.range(1, 1000)
+                .unordered()
+                .parallel()
+                .filter(x -> {
+                    parallelInvocations.increment();
+                    return (x % 42) == 0;
+                })
+                .findFirst().getAsInt(); // ? since unordered streams don't have any particular order, ? since parallel streams can evaluate more
+
+        // the same counts for every stage without touching the lambdas, also in parallel and exposed through JMX
+        PipelineMetrics metrics = PipelineMetrics.register("firstMultipleOf42");
+        metrics.of(IntStream.range(1, 1000))
+                .parallel()
+                .filter(x -> (x % 42) == 0)
+                .findFirst().getAsInt(); // 42
+        metrics.snapshot().getStage("source/filter").getElementsIn(); // ? since parallel streams can evaluate more
+        metrics.snapshot().getStage("source/filter/findFirst").getShortCircuits(); // 1
+
+        // a search cancelling the chunks past the first match, reporting the exact number of evaluations
+        new RangeSearch().findFirst(1, 1000, x -> (x % 42) == 0); // 42, getEvaluations() >= 42
+        new RangeSearch().findAny(1, 1000, x -> (x % 42) == 0);   // any multiple of 42
+
+        List<Integer> intList = new ArrayList<>(1_000_000);
+        for (int i = 1; i <= 1_000_000; i++) {
+            intList.add(i);
+        }
+        Collections.shuffle(intList);
+
+        intList.stream().reduce(Math::max).get(); // 1_000_000
+        intList.parallelStream().reduce(Math::max).get(); // 1_000_000
+
+        // the same values outside the heap without an Integer per value, filled, shuffled and reduced in parallel
+        OffHeapIntArray intArray = OffHeapIntArray.allocate(1_000_000);
+        intArray.setAll(i -> (int) i + 1);
+        intArray.shuffle();
+        intArray.reduce(Integer.MIN_VALUE, Math::max); // 1_000_000
+        intArray.parallelStream().max().getAsInt(); // 1_000_000
+
+        // the same choice made from the measured time per element, in a pool of its own instead of the common pool
+        try (ExecutionPlanner planner = new ExecutionPlanner("streams")) {
+            planner.run("max", intList.stream(), s -> s.reduce(Math::max).get()); // 1_000_000
+            planner.run("firstMultipleOf42", IntStream.range(1, 1000),
+                    s -> s.filter(x -> (x % 42) == 0).findFirst().getAsInt()); // 42
+            planner.getTask("max").getSequentialRuns(); // 1, since the first runs of a task are sequential
+        }
+
+        Stream<Integer> streamOfInt = Stream.<Integer>builder().add(1).add(2).build();
+        IntStream intStream = IntStream.builder().add(1).add(2).add(3).build();
+
+        Stream<Integer> mergedStream = Stream.concat(streamOfInt, Stream.<Integer>builder().add(3).build());
+
+        // the same for any number of streams in one flat, still sized stage, or merged in order if each is sorted
+        MultiStreams.concat(Stream.of(1, 2), Stream.of(3), Stream.of(4, 5)).count(); // 5
+        MultiStreams.mergeSorted(List.of(Stream.of(1, 4), Stream.of(2, 3), Stream.of(5)))
+                .collect(Collectors.toList()); // 1, 2, 3, 4, 5
+        MultiStreams.mergeSortedInts(List.of(IntStream.of(1, 4), IntStream.of(2, 3))).toArray(); // 1, 2, 3, 4
+
+        DoubleStream.generate(Math::random)
+                .limit(1_000_000)
+                .average()
+                .getAsDouble();
+
+        // the same from a splittable generator per task, which scales in parallel, with the variance and quartiles
+        RandomStreams.doubles(1_000_000)
+                .parallel()
+                .average()
+                .getAsDouble(); // ~0.5
+        DoubleStatistics statistics = RandomStreams.doubles(1_000_000)
+                .parallel()
+                .collect(() -> new DoubleStatistics(100), DoubleStatistics::accept, DoubleStatistics::combine);
+        statistics.getVariance(); // ~0.0833
+        statistics.getQuantile(0.25); // ~0.25
+
+        // the same continuously over an endless stream, for the last 1000 values every 100 of them
+        DoubleWindow.aggregate(DoubleStream.generate(Math::random), 1000, 100, DoubleWindow::getAverage)
+                .limit(3)
+                .toArray(); // ~0.5, ~0.5, ~0.5
+
+        IntStream.range(0, 1000)
+                .sum();
+
+        // the same over the last 1000 values of an endless stream, completed every 250 values
+        IntWindow window = IntWindow.ofCount(1000, 250);
+        IntStream.iterate(0, i -> i + 1)
+                .limit(1250)
+                .forEach(window);
+        window.getSum(); // 749500
+
+        IntStream.range(0, 1000)
+                .reduce((r1, r2) -> r2 + r1)
+                .getAsInt();
+
+        // the same with a composable primitive function, and widened to a long sum without boxing
+        IntStream.range(0, 1000)
+                .reduce(IntIntToIntFunction.of(Integer::sum).flip())
+                .getAsInt(); // 499500
+        PrimitiveFunctions.reduceToLong(IntStream.range(0, 1000), 0, (sum, value) -> sum + value, Long::sum); // 499500
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package io.github.ingvarc.jdk8.dispatch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calls one method of an interface on its implementations through method handles resolved once per class.
+ * <p>
+ * A call site of an interface method, such as a default method overridden by some of many plugins, turns megamorphic
+ * once it sees more than two classes: every call then goes through the interface table and none of the
+ * implementations is inlined. The dispatch here resolves the method of every implementation class once, caches the
+ * handle per class, and chains the handles of a known set of classes behind exact class checks. Held in a
+ * {@code static final} field, the {@link #invoker() invoker} is a constant the JIT compiler inlines as a whole: each
+ * known class then takes a check and a direct, inlinable call, like a monomorphic call site of its own. Other classes
+ * fall back to the interface call.
+ * <pre>
+ * static final MethodHandle NEW_METHOD = PluginDispatch.of(MethodHandles.lookup(), LegacyInterface.class,
+ *         "newMethod", MethodType.methodType(String.class), List.of(LegacyClass.class, NewClass.class)).invoker();
+ *
+ * String result = (String) NEW_METHOD.invokeExact(plugin);
+ * </pre>
+ */
+public final class PluginDispatch<T> {
+
+    private static final MethodHandle IS_CLASS;
+
+    static {
+        try {
+            IS_CLASS = MethodHandles.lookup().findStatic(PluginDispatch.class, "isClass",
+                    MethodType.methodType(boolean.class, Class.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandles.Lookup lookup;
+    private final Class<T> type;
+    private final String name;
+    private final MethodType methodType;
+    private final MethodHandle interfaceCall;
+    private final MethodHandle invoker;
+    private final ClassValue<MethodHandle> handles = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> implementation) {
+            return resolve(implementation);
+        }
+    };
+
+    private PluginDispatch(MethodHandles.Lookup lookup, Class<T> type, String name, MethodType methodType,
+                           List<? extends Class<? extends T>> known) throws ReflectiveOperationException {
+        this.lookup = lookup;
+        this.type = type;
+        this.name = name;
+        this.methodType = methodType;
+        this.interfaceCall = lookup.findVirtual(type, name, methodType);
+        MethodHandle chain = interfaceCall;
+        List<Class<? extends T>> classes = new ArrayList<>(known);
+        for (int i = classes.size() - 1; i >= 0; i--) {
+            Class<? extends T> implementation = classes.get(i);
+            MethodHandle test = MethodHandles.dropArguments(
+                    IS_CLASS.bindTo(implementation).asType(MethodType.methodType(boolean.class, type)),
+                    1, methodType.parameterList());
+            chain = MethodHandles.guardWithTest(test, handle(implementation), chain);
+        }
+        this.invoker = chain;
+    }
+
+    /**
+     * @param lookup     a lookup with access to the method in the implementations
+     * @param type       the interface
+     * @param name       the name of the method
+     * @param methodType the return and parameter types of the method, without the receiver
+     * @param known      the implementation classes to take the fast path, the most frequent first
+     * @throws IllegalArgumentException if the interface or a known class has no such method
+     */
+    public static <T> PluginDispatch<T> of(MethodHandles.Lookup lookup, Class<T> type, String name,
+                                           MethodType methodType, List<? extends Class<? extends T>> known) {
+        try {
+            return new PluginDispatch<>(lookup, type, name, methodType, known);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No method " + name + methodType + " in " + type.getName(), e);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * The handle calling the method on any implementation, of the method type with the interface as the first
+     * parameter; invoke it with {@code invokeExact} from a {@code static final} field for the fast path to be inlined.
+     */
+    public MethodHandle invoker() {
+        return invoker;
+    }
+
+    /**
+     * The handle calling the method of the implementation class directly, resolved on first use and cached, of the
+     * method type with the interface as the first parameter.
+     *
+     * @throws IllegalArgumentException if the class does not implement the interface or has no access to the method
+     */
+    public MethodHandle handle(Class<? extends T> implementation) {
+        if (!type.isAssignableFrom(implementation)) {
+            throw new IllegalArgumentException(implementation.getName() + " does not implement " + type.getName());
+        }
+        try {
+            return handles.get(implementation);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * The interface call of the method, the handle unknown classes fall back to.
+     */
+    public MethodHandle interfaceCall() {
+        return interfaceCall;
+    }
+
+    private MethodHandle resolve(Class<?> implementation) {
+        try {
+            return lookup.findVirtual(implementation, name, methodType)
+                    .asType(methodType.insertParameterTypes(0, type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot resolve " + name + methodType + " in " + implementation.getName(), e);
+        }
+    }
+
+    private static boolean isClass(Class<?> implementation, Object target) {
+        return target.getClass() == implementation;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+
+/**
+ * A predicate of two ints, the unboxed counterpart of {@code BiPredicate<Integer, Integer>}.
+ */
+@FunctionalInterface
+public interface IntIntPredicate {
+
+    boolean test(int left, int right);
+
+    default IntIntPredicate negate() {
+        return (left, right) -> !test(left, right);
+    }
+
+    default IntIntPredicate and(IntIntPredicate other) {
+        Objects.requireNonNull(other);
+        return (left, right) -> test(left, right) && other.test(left, right);
+    }
+
+    default IntIntPredicate or(IntIntPredicate other) {
+        Objects.requireNonNull(other);
+        return (left, right) -> test(left, right) || other.test(left, right);
+    }
+}
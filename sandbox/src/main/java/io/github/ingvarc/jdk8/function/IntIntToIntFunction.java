@@ -0,0 +1,60 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A function of two ints to an int, the unboxed counterpart of {@code BiFunction<Integer, Integer, Integer>}.
+ * <p>
+ * It is an {@link IntBinaryOperator} too, so it can be passed to {@code IntStream.reduce} as it is, and its only
+ * abstract method is the one of {@code IntBinaryOperator}, so the stream calls the function without a bridge.
+ */
+@FunctionalInterface
+public interface IntIntToIntFunction extends IntBinaryOperator {
+
+    @Override
+    int applyAsInt(int left, int right);
+
+    default IntIntToIntFunction andThen(IntUnaryOperator after) {
+        Objects.requireNonNull(after);
+        return (left, right) -> after.applyAsInt(applyAsInt(left, right));
+    }
+
+    /**
+     * The function with its arguments swapped.
+     */
+    default IntIntToIntFunction flip() {
+        return (left, right) -> applyAsInt(right, left);
+    }
+
+    /**
+     * The function of the right argument with the left one fixed.
+     */
+    default IntUnaryOperator bindLeft(int left) {
+        return right -> applyAsInt(left, right);
+    }
+
+    /**
+     * The function of the left argument with the right one fixed.
+     */
+    default IntUnaryOperator bindRight(int right) {
+        return left -> applyAsInt(left, right);
+    }
+
+    /**
+     * Applies the functions to both arguments first.
+     */
+    default IntIntToIntFunction compose(IntUnaryOperator beforeLeft, IntUnaryOperator beforeRight) {
+        Objects.requireNonNull(beforeLeft);
+        Objects.requireNonNull(beforeRight);
+        return (left, right) -> applyAsInt(beforeLeft.applyAsInt(left), beforeRight.applyAsInt(right));
+    }
+
+    /**
+     * Gives a lambda or method reference this type, so that it can be composed in place.
+     */
+    static IntIntToIntFunction of(IntIntToIntFunction function) {
+        return function;
+    }
+}
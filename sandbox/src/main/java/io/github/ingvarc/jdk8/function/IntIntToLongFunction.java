@@ -0,0 +1,18 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A function of two ints to a long, such as a product which must not overflow.
+ */
+@FunctionalInterface
+public interface IntIntToLongFunction {
+
+    long applyAsLong(int left, int right);
+
+    default IntIntToLongFunction andThen(LongUnaryOperator after) {
+        Objects.requireNonNull(after);
+        return (left, right) -> after.applyAsLong(applyAsLong(left, right));
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A function of an int and an object, the unboxed counterpart of {@code BiFunction<Integer, T, R>}.
+ */
+@FunctionalInterface
+public interface IntObjFunction<T, R> {
+
+    R apply(int value, T t);
+
+    default <V> IntObjFunction<T, V> andThen(Function<? super R, ? extends V> after) {
+        Objects.requireNonNull(after);
+        return (value, t) -> after.apply(apply(value, t));
+    }
+}
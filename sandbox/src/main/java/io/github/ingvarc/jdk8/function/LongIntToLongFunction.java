@@ -0,0 +1,18 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A function of a long and an int to a long, the accumulator of ints into a long result.
+ */
+@FunctionalInterface
+public interface LongIntToLongFunction {
+
+    long applyAsLong(long accumulated, int value);
+
+    default LongIntToLongFunction andThen(LongUnaryOperator after) {
+        Objects.requireNonNull(after);
+        return (accumulated, value) -> after.applyAsLong(applyAsLong(accumulated, value));
+    }
+}
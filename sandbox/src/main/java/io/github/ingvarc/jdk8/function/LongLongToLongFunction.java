@@ -0,0 +1,51 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A function of two longs to a long, the unboxed counterpart of {@code BiFunction<Long, Long, Long>}.
+ * <p>
+ * It is a {@link LongBinaryOperator} too, so it can be passed to {@code LongStream.reduce} as it is, and its only
+ * abstract method is the one of {@code LongBinaryOperator}, so the stream calls the function without a bridge.
+ */
+@FunctionalInterface
+public interface LongLongToLongFunction extends LongBinaryOperator {
+
+    @Override
+    long applyAsLong(long left, long right);
+
+    default LongLongToLongFunction andThen(LongUnaryOperator after) {
+        Objects.requireNonNull(after);
+        return (left, right) -> after.applyAsLong(applyAsLong(left, right));
+    }
+
+    /**
+     * The function with its arguments swapped.
+     */
+    default LongLongToLongFunction flip() {
+        return (left, right) -> applyAsLong(right, left);
+    }
+
+    /**
+     * The function of the right argument with the left one fixed.
+     */
+    default LongUnaryOperator bindLeft(long left) {
+        return right -> applyAsLong(left, right);
+    }
+
+    /**
+     * The function of the left argument with the right one fixed.
+     */
+    default LongUnaryOperator bindRight(long right) {
+        return left -> applyAsLong(left, right);
+    }
+
+    /**
+     * Gives a lambda or method reference this type, so that it can be composed in place.
+     */
+    static LongLongToLongFunction of(LongLongToLongFunction function) {
+        return function;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A function of a long and an object, the unboxed counterpart of {@code BiFunction<Long, T, R>}.
+ */
+@FunctionalInterface
+public interface LongObjFunction<T, R> {
+
+    R apply(long value, T t);
+
+    default <V> LongObjFunction<T, V> andThen(Function<? super R, ? extends V> after) {
+        Objects.requireNonNull(after);
+        return (value, t) -> after.apply(apply(value, t));
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.ingvarc.jdk8.function;
+
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Adapters between the primitive functions of this package and the streams and boxed functions of the JDK.
+ * <p>
+ * {@link IntIntToIntFunction} and {@link LongLongToLongFunction} are accepted by {@code IntStream.reduce} and
+ * {@code LongStream.reduce} as they are; the methods here cover what the primitive streams have no unboxed form for.
+ */
+public final class PrimitiveFunctions {
+
+    private PrimitiveFunctions() {
+    }
+
+    /**
+     * Reduces ints to a long without widening the stream first, like the three-argument {@code Stream.reduce}: the
+     * accumulator folds the ints of each part of a parallel stream into a long starting from the identity, and the
+     * combiner merges the results of the parts.
+     */
+    public static long reduceToLong(IntStream ints, long identity, LongIntToLongFunction accumulator,
+                                    LongLongToLongFunction combiner) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        return ints.collect(
+                () -> new long[]{identity},
+                (result, value) -> result[0] = accumulator.applyAsLong(result[0], value),
+                (left, right) -> left[0] = combiner.applyAsLong(left[0], right[0]))[0];
+    }
+
+    /**
+     * Pairs the elements of two arrays of the same length.
+     */
+    public static IntStream zip(int[] left, int[] right, IntIntToIntFunction function) {
+        if (left.length != right.length) {
+            throw new IllegalArgumentException("Lengths differ: " + left.length + " and " + right.length);
+        }
+        Objects.requireNonNull(function);
+        return IntStream.range(0, left.length).map(i -> function.applyAsInt(left[i], right[i]));
+    }
+
+    /**
+     * Maps every int together with the same object, such as a lookup table, so that the function need not capture it.
+     */
+    public static <T, R> Stream<R> mapToObj(IntStream ints, T t, IntObjFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return ints.mapToObj(value -> function.apply(value, t));
+    }
+
+    /**
+     * Maps every long together with the same object, such as a lookup table, so that the function need not capture it.
+     */
+    public static <T, R> Stream<R> mapToObj(LongStream longs, T t, LongObjFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return longs.mapToObj(value -> function.apply(value, t));
+    }
+
+    /**
+     * The function for APIs taking boxed operators; the boxing is then paid at every call again.
+     */
+    public static BinaryOperator<Integer> boxedInt(IntIntToIntFunction function) {
+        Objects.requireNonNull(function);
+        return (left, right) -> function.applyAsInt(left, right);
+    }
+
+    /**
+     * The function for APIs taking boxed operators; the boxing is then paid at every call again.
+     */
+    public static BinaryOperator<Long> boxedLong(LongLongToLongFunction function) {
+        Objects.requireNonNull(function);
+        return (left, right) -> function.applyAsLong(left, right);
+    }
+}
@@ -0,0 +1,291 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import io.github.ingvarc.jdk8.instrument.StageMetrics.Kind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The state of one instrumented pipeline: the splits of its source, the counts of its stages and where it stopped
+ * early. The stage each operation adds is kept by the stream it returns, so a stream operated upon twice fails as it
+ * would without the instrumentation instead of extending the path of another.
+ * <p>
+ * The source counts the elements it hands out in plain fields of each split, which is traversed by one thread at a
+ * time, or takes the size of a sized split traversed as a whole, and adds them to the source and to the first stage
+ * after it when the split is exhausted or the terminal operation returns.
+ * <p>
+ * The stages count the elements they pass on likewise: in plain slots of the execution when the terminal operation
+ * runs sequentially, added to the stages when it returns, and straight into the {@code LongAdder}s of the stages
+ * otherwise.
+ * <p>
+ * Only a timed execution wraps the functions of its stages to time them, the others pass them on as they are.
+ */
+final class Execution {
+
+    final boolean timed;
+    private final PipelineMetrics metrics;
+    private final List<Split> splits = new ArrayList<>(1);
+    private StageMetrics first;
+    private long[] counts = new long[4];
+    private boolean shared = true;
+    private volatile StageMetrics stoppedAt;
+    private long startNanos;
+
+    Execution(PipelineMetrics metrics) {
+        this.metrics = metrics;
+        this.timed = metrics.timeNextExecution();
+    }
+
+    /**
+     * The stage of the operation following the given stage.
+     */
+    StageMetrics next(StageMetrics previous, String operation, Kind kind) {
+        StageMetrics stage = previous.child(operation, kind);
+        if (previous.parent == null) {
+            first = stage;
+        }
+        if (stage.depth >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, stage.depth + 1));
+        }
+        return stage;
+    }
+
+    /**
+     * Counts an element passed on by the stage.
+     */
+    void count(StageMetrics stage) {
+        if (shared) {
+            stage.out.increment();
+        } else {
+            counts[stage.depth]++;
+        }
+    }
+
+    /**
+     * Records that the stage stopped taking elements, if no stage did before.
+     */
+    void stopAt(StageMetrics stage) {
+        if (stoppedAt == null) {
+            stoppedAt = stage;
+        }
+    }
+
+    /**
+     * Starts the terminal operation.
+     */
+    void begin(boolean parallel) {
+        shared = parallel;
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Adds the counts of the splits still open and records a short circuit if the pipeline stopped before
+     * the source was exhausted, at the stage that stopped it or else at the terminal operation if it may stop early.
+     */
+    void end(StageMetrics terminal, boolean shortCircuiting) {
+        long nanos = System.nanoTime() - startNanos;
+        for (StageMetrics stage = terminal; stage.parent != null; stage = stage.parent) {
+            if (!shared) {
+                stage.out.add(counts[stage.depth]);
+            }
+            stage.wallNanos.add(nanos);
+        }
+        boolean exhausted = true;
+        synchronized (splits) {
+            for (Split split : splits) {
+                exhausted &= split.flush();
+            }
+        }
+        StageMetrics stage = stoppedAt != null ? stoppedAt : shortCircuiting ? terminal : null;
+        boolean shortCircuit = stage != null && !exhausted;
+        if (shortCircuit) {
+            stage.shortCircuits.increment();
+        }
+        metrics.executed(nanos, shortCircuit);
+    }
+
+    /**
+     * Records a lazy terminal operation, {@code iterator} or {@code spliterator}, at once: its elements are counted as
+     * they are taken, but neither its time nor where it stops are known.
+     */
+    void lazy() {
+        metrics.executed(0, false);
+    }
+
+    Spliterator.OfInt source(Spliterator.OfInt spliterator) {
+        return register(new IntSplit(spliterator, this));
+    }
+
+    <T> Spliterator<T> source(Spliterator<T> spliterator) {
+        return register(new RefSplit<>(spliterator, this));
+    }
+
+    private <S extends Split> S register(S split) {
+        synchronized (splits) {
+            splits.add(split);
+        }
+        return split;
+    }
+
+    /**
+     * A split of the source counting the elements it hands out.
+     */
+    private abstract static class Split {
+        final Execution execution;
+        long count;
+        boolean exhausted;
+        private boolean flushed;
+
+        Split(Execution execution) {
+            this.execution = execution;
+        }
+
+        void exhausted() {
+            exhausted = true;
+            flush();
+        }
+
+        /**
+         * Adds the count to the source stage once and tells whether the split was exhausted.
+         */
+        synchronized boolean flush() {
+            if (!flushed) {
+                flushed = true;
+                execution.metrics.source().out.add(count);
+                if (execution.first != null) {
+                    execution.first.in.add(count);
+                }
+            }
+            return exhausted;
+        }
+    }
+
+    private static final class IntSplit extends Split implements Spliterator.OfInt {
+        private final Spliterator.OfInt delegate;
+
+        IntSplit(Spliterator.OfInt delegate, Execution execution) {
+            super(execution);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (delegate.tryAdvance(action)) {
+                count++;
+                return true;
+            }
+            exhausted();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            if (delegate.hasCharacteristics(SIZED)) {
+                count += delegate.estimateSize();
+                delegate.forEachRemaining(action);
+                exhausted();
+                return;
+            }
+            long[] taken = {0};
+            delegate.forEachRemaining((int value) -> {
+                taken[0]++;
+                action.accept(value);
+            });
+            count += taken[0];
+            exhausted();
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            Spliterator.OfInt prefix = delegate.trySplit();
+            return prefix == null ? null : execution.register(new IntSplit(prefix, execution));
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return delegate.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return delegate.getComparator();
+        }
+    }
+
+    private static final class RefSplit<T> extends Split implements Spliterator<T> {
+        private final Spliterator<T> delegate;
+
+        RefSplit(Spliterator<T> delegate, Execution execution) {
+            super(execution);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (delegate.tryAdvance(action)) {
+                count++;
+                return true;
+            }
+            exhausted();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (delegate.hasCharacteristics(SIZED)) {
+                count += delegate.estimateSize();
+                delegate.forEachRemaining(action);
+                exhausted();
+                return;
+            }
+            long[] taken = {0};
+            delegate.forEachRemaining(element -> {
+                taken[0]++;
+                action.accept(element);
+            });
+            count += taken[0];
+            exhausted();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = delegate.trySplit();
+            return prefix == null ? null : execution.register(new RefSplit<>(prefix, execution));
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return delegate.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return delegate.getComparator();
+        }
+    }
+}
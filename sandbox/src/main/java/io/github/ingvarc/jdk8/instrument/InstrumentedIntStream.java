@@ -0,0 +1,434 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import io.github.ingvarc.jdk8.instrument.StageMetrics.Kind;
+
+import java.util.IntSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * An {@code IntStream} adding a stage to its execution for every operation.
+ */
+final class InstrumentedIntStream implements IntStream {
+
+    private IntStream delegate;
+    private final Execution execution;
+
+    private final StageMetrics stage;
+    private boolean linked;
+
+    InstrumentedIntStream(IntStream delegate, Execution execution, StageMetrics stage) {
+        this.delegate = delegate;
+        this.execution = execution;
+        this.stage = stage;
+    }
+
+    /**
+     * The stage of the operation following this one. A stream takes one operation only, as in the JDK, so that an
+     * operation on a stream already operated upon fails before it adds a stage to the metrics.
+     */
+    private StageMetrics next(String operation, Kind kind) {
+        if (linked) {
+            throw new IllegalStateException("stream has already been operated upon or closed");
+        }
+        linked = true;
+        return execution.next(stage, operation, kind);
+    }
+
+    private StageMetrics begin(String operation) {
+        StageMetrics terminal = next(operation, Kind.TERMINAL);
+        execution.begin(delegate.isParallel());
+        return terminal;
+    }
+
+    private void lazy(String operation) {
+        next(operation, Kind.TERMINAL);
+        execution.lazy();
+    }
+
+    private IntPredicate timedPredicate(StageMetrics stage, IntPredicate predicate) {
+        if (!execution.timed) {
+            return predicate;
+        }
+        return value -> stage.sample() ? stage.test(predicate, value) : predicate.test(value);
+    }
+
+    private IntUnaryOperator timedOperator(StageMetrics stage, IntUnaryOperator operator) {
+        if (!execution.timed) {
+            return operator;
+        }
+        return value -> stage.sample() ? stage.applyAsInt(operator, value) : operator.applyAsInt(value);
+    }
+
+    private <R> IntFunction<R> timedFunction(StageMetrics stage, IntFunction<R> function) {
+        if (!execution.timed) {
+            return function;
+        }
+        return value -> stage.sample() ? stage.apply(function, value) : function.apply(value);
+    }
+
+    private IntConsumer timedAction(StageMetrics stage, IntConsumer action) {
+        if (!execution.timed) {
+            return action;
+        }
+        return value -> {
+            if (stage.sample()) {
+                stage.accept(action, value);
+            } else {
+                action.accept(value);
+            }
+        };
+    }
+
+    private IntStream counted(IntStream stream, StageMetrics stage) {
+        return new InstrumentedIntStream(stream.peek(value -> execution.count(stage)), execution, stage);
+    }
+
+    @Override
+    public IntStream filter(IntPredicate predicate) {
+        StageMetrics stage = next("filter", Kind.COUNTED);
+        IntPredicate test = timedPredicate(stage, predicate);
+        return new InstrumentedIntStream(delegate.filter(value -> {
+            if (test.test(value)) {
+                execution.count(stage);
+                return true;
+            }
+            return false;
+        }), execution, stage);
+    }
+
+    @Override
+    public IntStream map(IntUnaryOperator mapper) {
+        StageMetrics stage = next("map", Kind.ONE_TO_ONE);
+        return new InstrumentedIntStream(delegate.map(timedOperator(stage, mapper)), execution, stage);
+    }
+
+    @Override
+    public <U> Stream<U> mapToObj(IntFunction<? extends U> mapper) {
+        StageMetrics stage = next("mapToObj", Kind.ONE_TO_ONE);
+        return new InstrumentedStream<>(delegate.mapToObj(timedFunction(stage, mapper)), execution, stage);
+    }
+
+    @Override
+    public LongStream mapToLong(IntToLongFunction mapper) {
+        next("mapToLong", Kind.ONE_TO_ONE);
+        return delegate.mapToLong(mapper);
+    }
+
+    @Override
+    public DoubleStream mapToDouble(IntToDoubleFunction mapper) {
+        next("mapToDouble", Kind.ONE_TO_ONE);
+        return delegate.mapToDouble(mapper);
+    }
+
+    @Override
+    public IntStream flatMap(IntFunction<? extends IntStream> mapper) {
+        StageMetrics stage = next("flatMap", Kind.COUNTED);
+        return counted(delegate.flatMap(timedFunction(stage, mapper)), stage);
+    }
+
+    @Override
+    public IntStream distinct() {
+        return counted(delegate.distinct(), next("distinct", Kind.COUNTED));
+    }
+
+    @Override
+    public IntStream sorted() {
+        return counted(delegate.sorted(), next("sorted", Kind.COUNTED));
+    }
+
+    @Override
+    public IntStream peek(IntConsumer action) {
+        StageMetrics stage = next("peek", Kind.ONE_TO_ONE);
+        return new InstrumentedIntStream(delegate.peek(timedAction(stage, action)), execution, stage);
+    }
+
+    @Override
+    public IntStream limit(long maxSize) {
+        StageMetrics stage = next("limit", Kind.COUNTED);
+        AtomicLong taken = new AtomicLong();
+        return new InstrumentedIntStream(delegate.limit(maxSize).peek(value -> {
+            execution.count(stage);
+            if (taken.incrementAndGet() == maxSize) {
+                execution.stopAt(stage);
+            }
+        }), execution, stage);
+    }
+
+    @Override
+    public IntStream skip(long n) {
+        return counted(delegate.skip(n), next("skip", Kind.COUNTED));
+    }
+
+    @Override
+    public IntStream takeWhile(IntPredicate predicate) {
+        StageMetrics stage = next("takeWhile", Kind.COUNTED);
+        IntPredicate test = timedPredicate(stage, predicate);
+        return new InstrumentedIntStream(delegate.takeWhile(value -> {
+            if (test.test(value)) {
+                execution.count(stage);
+                return true;
+            }
+            execution.stopAt(stage);
+            return false;
+        }), execution, stage);
+    }
+
+    @Override
+    public IntStream dropWhile(IntPredicate predicate) {
+        StageMetrics stage = next("dropWhile", Kind.COUNTED);
+        return counted(delegate.dropWhile(timedPredicate(stage, predicate)), stage);
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        StageMetrics terminal = begin("forEach");
+        try {
+            delegate.forEach(timedAction(terminal, action));
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public void forEachOrdered(IntConsumer action) {
+        StageMetrics terminal = begin("forEachOrdered");
+        try {
+            delegate.forEachOrdered(timedAction(terminal, action));
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public int[] toArray() {
+        StageMetrics terminal = begin("toArray");
+        try {
+            return delegate.toArray();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public int reduce(int identity, IntBinaryOperator op) {
+        StageMetrics terminal = begin("reduce");
+        try {
+            return delegate.reduce(identity, op);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public OptionalInt reduce(IntBinaryOperator op) {
+        StageMetrics terminal = begin("reduce");
+        try {
+            return delegate.reduce(op);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, ObjIntConsumer<R> accumulator, BiConsumer<R, R> combiner) {
+        StageMetrics terminal = begin("collect");
+        try {
+            return delegate.collect(supplier, accumulator, combiner);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public int sum() {
+        StageMetrics terminal = begin("sum");
+        try {
+            return delegate.sum();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public OptionalInt min() {
+        StageMetrics terminal = begin("min");
+        try {
+            return delegate.min();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public OptionalInt max() {
+        StageMetrics terminal = begin("max");
+        try {
+            return delegate.max();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public long count() {
+        StageMetrics terminal = begin("count");
+        try {
+            return delegate.count();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public OptionalDouble average() {
+        StageMetrics terminal = begin("average");
+        try {
+            return delegate.average();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public IntSummaryStatistics summaryStatistics() {
+        StageMetrics terminal = begin("summaryStatistics");
+        try {
+            return delegate.summaryStatistics();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public boolean anyMatch(IntPredicate predicate) {
+        StageMetrics terminal = begin("anyMatch");
+        try {
+            return delegate.anyMatch(timedPredicate(terminal, predicate));
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public boolean allMatch(IntPredicate predicate) {
+        StageMetrics terminal = begin("allMatch");
+        try {
+            return delegate.allMatch(timedPredicate(terminal, predicate));
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public boolean noneMatch(IntPredicate predicate) {
+        StageMetrics terminal = begin("noneMatch");
+        try {
+            return delegate.noneMatch(timedPredicate(terminal, predicate));
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public OptionalInt findFirst() {
+        StageMetrics terminal = begin("findFirst");
+        try {
+            return delegate.findFirst();
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public OptionalInt findAny() {
+        StageMetrics terminal = begin("findAny");
+        try {
+            return delegate.findAny();
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public LongStream asLongStream() {
+        next("asLongStream", Kind.ONE_TO_ONE);
+        return delegate.asLongStream();
+    }
+
+    @Override
+    public DoubleStream asDoubleStream() {
+        next("asDoubleStream", Kind.ONE_TO_ONE);
+        return delegate.asDoubleStream();
+    }
+
+    @Override
+    public Stream<Integer> boxed() {
+        StageMetrics stage = next("boxed", Kind.ONE_TO_ONE);
+        return new InstrumentedStream<>(delegate.boxed(), execution, stage);
+    }
+
+    @Override
+    public IntStream sequential() {
+        delegate = delegate.sequential();
+        return this;
+    }
+
+    @Override
+    public IntStream parallel() {
+        delegate = delegate.parallel();
+        return this;
+    }
+
+    @Override
+    public IntStream unordered() {
+        delegate = delegate.unordered();
+        return this;
+    }
+
+    @Override
+    public IntStream onClose(Runnable closeHandler) {
+        delegate = delegate.onClose(closeHandler);
+        return this;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        lazy("iterator");
+        return delegate.iterator();
+    }
+
+    @Override
+    public Spliterator.OfInt spliterator() {
+        lazy("spliterator");
+        return delegate.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return delegate.isParallel();
+    }
+
+    @Override
+    public void close() {
+        linked = true;
+        delegate.close();
+    }
+}
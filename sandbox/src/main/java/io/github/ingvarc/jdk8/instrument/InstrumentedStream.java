@@ -0,0 +1,442 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import io.github.ingvarc.jdk8.instrument.StageMetrics.Kind;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A {@code Stream} adding a stage to its execution for every operation.
+ */
+final class InstrumentedStream<T> implements Stream<T> {
+
+    private Stream<T> delegate;
+    private final Execution execution;
+
+    private final StageMetrics stage;
+    private boolean linked;
+
+    InstrumentedStream(Stream<T> delegate, Execution execution, StageMetrics stage) {
+        this.delegate = delegate;
+        this.execution = execution;
+        this.stage = stage;
+    }
+
+    /**
+     * The stage of the operation following this one. A stream takes one operation only, as in the JDK, so that an
+     * operation on a stream already operated upon fails before it adds a stage to the metrics.
+     */
+    private StageMetrics next(String operation, Kind kind) {
+        if (linked) {
+            throw new IllegalStateException("stream has already been operated upon or closed");
+        }
+        linked = true;
+        return execution.next(stage, operation, kind);
+    }
+
+    private StageMetrics begin(String operation) {
+        StageMetrics terminal = next(operation, Kind.TERMINAL);
+        execution.begin(delegate.isParallel());
+        return terminal;
+    }
+
+    private void lazy(String operation) {
+        next(operation, Kind.TERMINAL);
+        execution.lazy();
+    }
+
+    private <E> Predicate<E> timedPredicate(StageMetrics stage, Predicate<E> predicate) {
+        if (!execution.timed) {
+            return predicate;
+        }
+        return element -> stage.sample() ? stage.testElement(predicate, element) : predicate.test(element);
+    }
+
+    private <E, R> Function<E, R> timedFunction(StageMetrics stage, Function<E, R> function) {
+        if (!execution.timed) {
+            return function;
+        }
+        return element -> stage.sample() ? stage.applyElement(function, element) : function.apply(element);
+    }
+
+    private <E> ToIntFunction<E> timedToIntFunction(StageMetrics stage, ToIntFunction<E> function) {
+        if (!execution.timed) {
+            return function;
+        }
+        return element -> stage.sample() ? stage.applyElementAsInt(function, element) : function.applyAsInt(element);
+    }
+
+    private <E> Consumer<E> timedAction(StageMetrics stage, Consumer<E> action) {
+        if (!execution.timed) {
+            return action;
+        }
+        return element -> {
+            if (stage.sample()) {
+                stage.acceptElement(action, element);
+            } else {
+                action.accept(element);
+            }
+        };
+    }
+
+    private Stream<T> counted(Stream<T> stream, StageMetrics stage) {
+        return new InstrumentedStream<>(stream.peek(element -> execution.count(stage)), execution, stage);
+    }
+
+    @Override
+    public Stream<T> filter(Predicate<? super T> predicate) {
+        StageMetrics stage = next("filter", Kind.COUNTED);
+        Predicate<? super T> test = timedPredicate(stage, predicate);
+        return new InstrumentedStream<>(delegate.filter(element -> {
+            if (test.test(element)) {
+                execution.count(stage);
+                return true;
+            }
+            return false;
+        }), execution, stage);
+    }
+
+    @Override
+    public <R> Stream<R> map(Function<? super T, ? extends R> mapper) {
+        StageMetrics stage = next("map", Kind.ONE_TO_ONE);
+        return new InstrumentedStream<>(delegate.map(timedFunction(stage, mapper)), execution, stage);
+    }
+
+    @Override
+    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
+        StageMetrics stage = next("mapToInt", Kind.ONE_TO_ONE);
+        return new InstrumentedIntStream(delegate.mapToInt(timedToIntFunction(stage, mapper)), execution, stage);
+    }
+
+    @Override
+    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
+        next("mapToLong", Kind.ONE_TO_ONE);
+        return delegate.mapToLong(mapper);
+    }
+
+    @Override
+    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+        next("mapToDouble", Kind.ONE_TO_ONE);
+        return delegate.mapToDouble(mapper);
+    }
+
+    @Override
+    public <R> Stream<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
+        StageMetrics stage = next("flatMap", Kind.COUNTED);
+        Stream<R> flat = delegate.flatMap(timedFunction(stage, mapper));
+        return new InstrumentedStream<>(flat.peek(element -> execution.count(stage)), execution, stage);
+    }
+
+    @Override
+    public IntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
+        StageMetrics stage = next("flatMapToInt", Kind.COUNTED);
+        IntStream flat = delegate.flatMapToInt(timedFunction(stage, mapper));
+        return new InstrumentedIntStream(flat.peek(value -> execution.count(stage)), execution, stage);
+    }
+
+    @Override
+    public LongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
+        StageMetrics stage = next("flatMapToLong", Kind.COUNTED);
+        return delegate.flatMapToLong(timedFunction(stage, mapper)).peek(value -> execution.count(stage));
+    }
+
+    @Override
+    public DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
+        StageMetrics stage = next("flatMapToDouble", Kind.COUNTED);
+        return delegate.flatMapToDouble(timedFunction(stage, mapper)).peek(value -> execution.count(stage));
+    }
+
+    @Override
+    public Stream<T> distinct() {
+        return counted(delegate.distinct(), next("distinct", Kind.COUNTED));
+    }
+
+    @Override
+    public Stream<T> sorted() {
+        return counted(delegate.sorted(), next("sorted", Kind.COUNTED));
+    }
+
+    @Override
+    public Stream<T> sorted(Comparator<? super T> comparator) {
+        return counted(delegate.sorted(comparator), next("sorted", Kind.COUNTED));
+    }
+
+    @Override
+    public Stream<T> peek(Consumer<? super T> action) {
+        StageMetrics stage = next("peek", Kind.ONE_TO_ONE);
+        return new InstrumentedStream<>(delegate.peek(timedAction(stage, action)), execution, stage);
+    }
+
+    @Override
+    public Stream<T> limit(long maxSize) {
+        StageMetrics stage = next("limit", Kind.COUNTED);
+        AtomicLong taken = new AtomicLong();
+        return new InstrumentedStream<>(delegate.limit(maxSize).peek(element -> {
+            execution.count(stage);
+            if (taken.incrementAndGet() == maxSize) {
+                execution.stopAt(stage);
+            }
+        }), execution, stage);
+    }
+
+    @Override
+    public Stream<T> skip(long n) {
+        return counted(delegate.skip(n), next("skip", Kind.COUNTED));
+    }
+
+    @Override
+    public Stream<T> takeWhile(Predicate<? super T> predicate) {
+        StageMetrics stage = next("takeWhile", Kind.COUNTED);
+        Predicate<? super T> test = timedPredicate(stage, predicate);
+        return new InstrumentedStream<>(delegate.takeWhile(element -> {
+            if (test.test(element)) {
+                execution.count(stage);
+                return true;
+            }
+            execution.stopAt(stage);
+            return false;
+        }), execution, stage);
+    }
+
+    @Override
+    public Stream<T> dropWhile(Predicate<? super T> predicate) {
+        StageMetrics stage = next("dropWhile", Kind.COUNTED);
+        return counted(delegate.dropWhile(timedPredicate(stage, predicate)), stage);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        StageMetrics terminal = begin("forEach");
+        try {
+            delegate.forEach(timedAction(terminal, action));
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public void forEachOrdered(Consumer<? super T> action) {
+        StageMetrics terminal = begin("forEachOrdered");
+        try {
+            delegate.forEachOrdered(timedAction(terminal, action));
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        StageMetrics terminal = begin("toArray");
+        try {
+            return delegate.toArray();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public <A> A[] toArray(IntFunction<A[]> generator) {
+        StageMetrics terminal = begin("toArray");
+        try {
+            return delegate.toArray(generator);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        StageMetrics terminal = begin("reduce");
+        try {
+            return delegate.reduce(identity, accumulator);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        StageMetrics terminal = begin("reduce");
+        try {
+            return delegate.reduce(accumulator);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        StageMetrics terminal = begin("reduce");
+        try {
+            return delegate.reduce(identity, accumulator, combiner);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+        StageMetrics terminal = begin("collect");
+        try {
+            return delegate.collect(supplier, accumulator, combiner);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        StageMetrics terminal = begin("collect");
+        try {
+            return delegate.collect(collector);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public Optional<T> min(Comparator<? super T> comparator) {
+        StageMetrics terminal = begin("min");
+        try {
+            return delegate.min(comparator);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public Optional<T> max(Comparator<? super T> comparator) {
+        StageMetrics terminal = begin("max");
+        try {
+            return delegate.max(comparator);
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public long count() {
+        StageMetrics terminal = begin("count");
+        try {
+            return delegate.count();
+        } finally {
+            execution.end(terminal, false);
+        }
+    }
+
+    @Override
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        StageMetrics terminal = begin("anyMatch");
+        try {
+            return delegate.anyMatch(timedPredicate(terminal, predicate));
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public boolean allMatch(Predicate<? super T> predicate) {
+        StageMetrics terminal = begin("allMatch");
+        try {
+            return delegate.allMatch(timedPredicate(terminal, predicate));
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        StageMetrics terminal = begin("noneMatch");
+        try {
+            return delegate.noneMatch(timedPredicate(terminal, predicate));
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public Optional<T> findFirst() {
+        StageMetrics terminal = begin("findFirst");
+        try {
+            return delegate.findFirst();
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public Optional<T> findAny() {
+        StageMetrics terminal = begin("findAny");
+        try {
+            return delegate.findAny();
+        } finally {
+            execution.end(terminal, true);
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        lazy("iterator");
+        return delegate.iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        lazy("spliterator");
+        return delegate.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return delegate.isParallel();
+    }
+
+    @Override
+    public Stream<T> sequential() {
+        delegate = delegate.sequential();
+        return this;
+    }
+
+    @Override
+    public Stream<T> parallel() {
+        delegate = delegate.parallel();
+        return this;
+    }
+
+    @Override
+    public Stream<T> unordered() {
+        delegate = delegate.unordered();
+        return this;
+    }
+
+    @Override
+    public Stream<T> onClose(Runnable closeHandler) {
+        delegate = delegate.onClose(closeHandler);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        linked = true;
+        delegate.close();
+    }
+}
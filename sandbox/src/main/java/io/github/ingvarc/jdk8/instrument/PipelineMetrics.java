@@ -0,0 +1,224 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import io.github.ingvarc.jdk8.instrument.StageMetrics.Kind;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Counts what each stage of a stream pipeline does, over all executions of the pipelines wrapped by it.
+ * <p>
+ * Instead of a static {@code invocations} field incremented in a {@code filter} lambda, as in {@code Streams}, a
+ * stream wrapped by {@link #of(IntStream)} or {@link #of(Stream)} records for every stage the elements in and out
+ * and whether the pipeline stopped there before the source was exhausted, e.g. in {@code findFirst} or
+ * {@code limit}:
+ * <pre>
+ * PipelineMetrics metrics = PipelineMetrics.register("firstMultipleOf42");
+ * metrics.of(IntStream.range(1, 1000))
+ *         .filter(x -&gt; (x % 42) == 0)
+ *         .findFirst();
+ * metrics.snapshot().getStage("source/filter").getElementsIn(); // 42
+ * </pre>
+ * The counters are {@code LongAdder}s or counted per split of the source, so parallel streams are counted exactly,
+ * except for elements still taken by cancelled tasks after a short-circuiting operation returned. The source is
+ * counted when a split is exhausted or the terminal operation returns; the stages of {@code iterator} and
+ * {@code spliterator} terminals and past {@code mapToLong}, {@code mapToDouble}, {@code asLongStream} or
+ * {@code asDoubleStream} are not instrumented.
+ * <p>
+ * Timed metrics also estimate the time spent in the function of every stage: one execution in 16 times one call in
+ * 64, once the stage has been called 100 000 times in timed executions, which is extrapolated to all the elements in
+ * and capped at the wall time of the executions reaching the stage. Counting costs a few percent for stages doing a
+ * few nanoseconds of work per element. Timing costs much more: once the JIT compiler has seen the timed functions,
+ * the clock reads they may take stop it from optimizing the loops of untimed executions as well, and a stage doing a
+ * few nanoseconds of work takes several times longer.
+ * <p>
+ * Registered metrics are exposed as a {@link PipelineMetricsMXBean}.
+ */
+public class PipelineMetrics implements PipelineMetricsMXBean {
+
+    static final String DOMAIN = "io.github.ingvarc.jdk8.instrument";
+
+    /**
+     * One in 16 executions is timed; the functions of its stages are wrapped and time one call in 64.
+     */
+    static final int TIMED_MASK = 15;
+
+    private static final ConcurrentMap<String, PipelineMetrics> REGISTERED = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final boolean timed;
+    private final StageMetrics source = new StageMetrics(null, "source", Kind.SOURCE);
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shortCircuits = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong created = new AtomicLong(1);
+
+    /**
+     * Creates metrics which are not registered with JMX and only count.
+     */
+    public PipelineMetrics(String name) {
+        this(name, false);
+    }
+
+    /**
+     * Creates metrics which are not registered with JMX.
+     *
+     * @param timed whether to sample the time spent in the functions of the stages
+     */
+    public PipelineMetrics(String name, boolean timed) {
+        this.name = name;
+        this.timed = timed;
+    }
+
+    /**
+     * The metrics registered with the platform MBean server under the name, registered on first use and only
+     * counting.
+     *
+     * @throws IllegalArgumentException if the name is not valid in an {@code ObjectName}
+     * @throws IllegalStateException    if the registration fails
+     */
+    public static PipelineMetrics register(String name) {
+        return register(name, false);
+    }
+
+    /**
+     * The metrics registered with the platform MBean server under the name, registered on first use; whether they
+     * are timed is decided by the first use.
+     *
+     * @param timed whether to sample the time spent in the functions of the stages
+     * @throws IllegalArgumentException if the name is not valid in an {@code ObjectName}
+     * @throws IllegalStateException    if the registration fails
+     */
+    public static PipelineMetrics register(String name, boolean timed) {
+        return REGISTERED.computeIfAbsent(name, key -> {
+            PipelineMetrics metrics = new PipelineMetrics(key, timed);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, metrics.objectName());
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register pipeline metrics " + key, e);
+            }
+            return metrics;
+        });
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they were registered.
+     */
+    public void unregister() {
+        if (REGISTERED.remove(name, this)) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.unregisterMBean(objectName());
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot unregister pipeline metrics " + name, e);
+            }
+        }
+    }
+
+    public ObjectName objectName() {
+        try {
+            return new ObjectName(DOMAIN + ":type=Pipeline,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Illegal pipeline name: " + name, e);
+        }
+    }
+
+    /**
+     * Wraps the stream; the stages added to the returned stream are counted, the ones already added count as the
+     * source.
+     */
+    public IntStream of(IntStream stream) {
+        Execution execution = new Execution(this);
+        IntStream source = StreamSupport.intStream(execution.source(stream.spliterator()), stream.isParallel());
+        return new InstrumentedIntStream(source.onClose(stream::close), execution, this.source);
+    }
+
+    /**
+     * Wraps the stream; the stages added to the returned stream are counted, the ones already added count as the
+     * source.
+     */
+    public <T> Stream<T> of(Stream<T> stream) {
+        Execution execution = new Execution(this);
+        Stream<T> source = StreamSupport.stream(execution.source(stream.spliterator()), stream.isParallel());
+        return new InstrumentedStream<>(source.onClose(stream::close), execution, this.source);
+    }
+
+    public PipelineSnapshot snapshot() {
+        List<StageSnapshot> stages = new ArrayList<>();
+        source.collect(stages);
+        return new PipelineSnapshot(name, executions.sum(), shortCircuits.sum(), totalNanos.sum(), stages);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isTimed() {
+        return timed;
+    }
+
+    @Override
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    @Override
+    public long getShortCircuits() {
+        return shortCircuits.sum();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public List<StageSnapshot> getStages() {
+        return snapshot().getStages();
+    }
+
+    /**
+     * Sets all counters to zero; counts of executions running meanwhile may be partly lost.
+     */
+    @Override
+    public void reset() {
+        executions.reset();
+        shortCircuits.reset();
+        totalNanos.reset();
+        source.reset();
+    }
+
+    StageMetrics source() {
+        return source;
+    }
+
+    boolean timeNextExecution() {
+        return timed && (created.getAndIncrement() & TIMED_MASK) == 0;
+    }
+
+    void executed(long nanos, boolean shortCircuit) {
+        executions.increment();
+        totalNanos.add(nanos);
+        if (shortCircuit) {
+            shortCircuits.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link PipelineMetrics}, registered as
+ * {@code io.github.ingvarc.jdk8.instrument:type=Pipeline,name=<name>}.
+ */
+public interface PipelineMetricsMXBean {
+
+    String getName();
+
+    boolean isTimed();
+
+    long getExecutions();
+
+    long getShortCircuits();
+
+    long getTotalNanos();
+
+    List<StageSnapshot> getStages();
+
+    void reset();
+}
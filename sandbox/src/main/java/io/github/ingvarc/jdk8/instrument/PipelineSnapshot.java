@@ -0,0 +1,78 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import java.util.List;
+
+/**
+ * The counters of an instrumented pipeline at the time of a snapshot.
+ */
+public class PipelineSnapshot {
+
+    private final String name;
+    private final long executions;
+    private final long shortCircuits;
+    private final long totalNanos;
+    private final List<StageSnapshot> stages;
+
+    PipelineSnapshot(String name, long executions, long shortCircuits, long totalNanos, List<StageSnapshot> stages) {
+        this.name = name;
+        this.executions = executions;
+        this.shortCircuits = shortCircuits;
+        this.totalNanos = totalNanos;
+        this.stages = stages;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The number of terminal operations run.
+     */
+    public long getExecutions() {
+        return executions;
+    }
+
+    /**
+     * The number of executions which stopped before the source was exhausted.
+     */
+    public long getShortCircuits() {
+        return shortCircuits;
+    }
+
+    /**
+     * The wall-clock time of the terminal operations, measured for every execution.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * The stages, each followed by the stages after it, starting at the source.
+     */
+    public List<StageSnapshot> getStages() {
+        return stages;
+    }
+
+    /**
+     * The stage with the given path, e.g. {@code source/filter}, or null if no pipeline reached it.
+     */
+    public StageSnapshot getStage(String path) {
+        for (StageSnapshot stage : stages) {
+            if (stage.getPath().equals(path)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(name).append("{executions=").append(executions)
+                .append(", shortCircuits=").append(shortCircuits)
+                .append(", totalNanos=").append(totalNanos).append('}');
+        for (StageSnapshot stage : stages) {
+            text.append(System.lineSeparator()).append("  ").append(stage);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package io.github.ingvarc.jdk8.instrument;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * The counters of one stage, shared by all executions of the pipelines reaching it by the same path of operations.
+ * <p>
+ * A stage only counts the elements it passes on when that differs from the elements it gets: the elements in are
+ * the elements out of its parent, and a one-to-one stage such as {@code map} passes on all of them. The source is
+ * shared by pipelines of all shapes, so the first stage after it counts the elements it gets itself.
+ */
+final class StageMetrics {
+
+    enum Kind {
+        SOURCE, ONE_TO_ONE, COUNTED, TERMINAL
+    }
+
+    /**
+     * One in 64 calls of a timed execution is timed: reading the clock twice costs 50 to 100 ns, and a stage doing a
+     * few nanoseconds of work per element must not pay that for every element.
+     */
+    static final int SAMPLE_MASK = 63;
+
+    /**
+     * The calls of a stage in timed executions before its samples count: until the JIT compiler has compiled the
+     * wrapping lambdas and the function, a call takes many times as long as it will, and such samples would inflate
+     * the estimate of every later element.
+     */
+    static final int WARMUP_CALLS = 100_000;
+
+    /**
+     * The longest a timed call counts for. A call is now and then preempted or held at a safepoint for a millisecond
+     * or more, and a few such samples would outweigh thousands of calls of a few nanoseconds.
+     */
+    static final long MAX_SAMPLE_NANOS = 10_000;
+
+    /**
+     * The time of reading the clock, subtracted from each timed call.
+     */
+    private static final long CLOCK_NANOS = clockNanos();
+
+    private static final StageMetrics[] NONE = new StageMetrics[0];
+
+    final StageMetrics parent;
+    final String operation;
+    final String path;
+    final int depth;
+    final Kind kind;
+    final LongAdder in = new LongAdder();
+    final LongAdder out = new LongAdder();
+    final LongAdder sampledCalls = new LongAdder();
+    final LongAdder sampledNanos = new LongAdder();
+    final LongAdder shortCircuits = new LongAdder();
+    /**
+     * The wall time of the executions reaching this stage, which caps its estimate.
+     */
+    final LongAdder wallNanos = new LongAdder();
+    private volatile StageMetrics[] children = NONE;
+    private long tick = 1;
+
+    StageMetrics(StageMetrics parent, String operation, Kind kind) {
+        this.parent = parent;
+        this.operation = operation;
+        this.path = parent == null ? operation : parent.path + "/" + operation;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.kind = kind;
+    }
+
+    /**
+     * The stage following this one with the given operation, created on first use.
+     */
+    StageMetrics child(String operation, Kind kind) {
+        for (StageMetrics child : children) {
+            if (child.operation.equals(operation)) {
+                return child;
+            }
+        }
+        synchronized (this) {
+            for (StageMetrics child : children) {
+                if (child.operation.equals(operation)) {
+                    return child;
+                }
+            }
+            StageMetrics child = new StageMetrics(this, operation, kind);
+            StageMetrics[] grown = Arrays.copyOf(children, children.length + 1);
+            grown[children.length] = child;
+            children = grown;
+            return child;
+        }
+    }
+
+    /**
+     * Whether to time this call; one in every {@code SAMPLE_MASK + 1} calls is timed once the stage is past its
+     * {@link #WARMUP_CALLS}. The tick is not synchronized, threads racing on it only skew the sampling.
+     */
+    boolean sample() {
+        long tick = this.tick++;
+        return (tick & SAMPLE_MASK) == 0 && tick > WARMUP_CALLS;
+    }
+
+    /**
+     * Times one call; kept out of the wrapping lambdas so that they stay small enough to be inlined.
+     */
+    boolean test(IntPredicate predicate, int value) {
+        long start = System.nanoTime();
+        boolean matches = predicate.test(value);
+        sampled(start);
+        return matches;
+    }
+
+    int applyAsInt(IntUnaryOperator operator, int value) {
+        long start = System.nanoTime();
+        int result = operator.applyAsInt(value);
+        sampled(start);
+        return result;
+    }
+
+    <R> R apply(IntFunction<R> function, int value) {
+        long start = System.nanoTime();
+        R result = function.apply(value);
+        sampled(start);
+        return result;
+    }
+
+    void accept(IntConsumer action, int value) {
+        long start = System.nanoTime();
+        action.accept(value);
+        sampled(start);
+    }
+
+    <T> boolean testElement(Predicate<T> predicate, T element) {
+        long start = System.nanoTime();
+        boolean matches = predicate.test(element);
+        sampled(start);
+        return matches;
+    }
+
+    <T, R> R applyElement(Function<T, R> function, T element) {
+        long start = System.nanoTime();
+        R result = function.apply(element);
+        sampled(start);
+        return result;
+    }
+
+    <T> int applyElementAsInt(ToIntFunction<T> function, T element) {
+        long start = System.nanoTime();
+        int result = function.applyAsInt(element);
+        sampled(start);
+        return result;
+    }
+
+    <T> void acceptElement(Consumer<T> action, T element) {
+        long start = System.nanoTime();
+        action.accept(element);
+        sampled(start);
+    }
+
+    private void sampled(long startNanos) {
+        // not clamped at 0: the clock noise around the calls of a few nanoseconds cancels out in the sum
+        sampledNanos.add(Math.min(System.nanoTime() - startNanos - CLOCK_NANOS, MAX_SAMPLE_NANOS));
+        sampledCalls.increment();
+    }
+
+    private static long clockNanos() {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long start = System.nanoTime();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
+    long in() {
+        return parent == null ? out.sum() : parent.parent == null ? in.sum() : parent.out();
+    }
+
+    long out() {
+        return kind == Kind.ONE_TO_ONE || kind == Kind.TERMINAL ? in() : out.sum();
+    }
+
+    void collect(List<StageSnapshot> snapshots) {
+        long in = in();
+        long calls = sampledCalls.sum();
+        long nanos = Math.max(0, sampledNanos.sum());
+        long estimatedNanos = calls == 0 ? 0 : (long) Math.min((double) nanos / calls * in, wallNanos.sum());
+        snapshots.add(new StageSnapshot(path, operation, depth, in, out(), estimatedNanos, calls,
+                shortCircuits.sum()));
+        for (StageMetrics child : children) {
+            child.collect(snapshots);
+        }
+    }
+
+    void reset() {
+        in.reset();
+        out.reset();
+        sampledCalls.reset();
+        sampledNanos.reset();
+        shortCircuits.reset();
+        wallNanos.reset();
+        for (StageMetrics child : children) {
+            child.reset();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.ingvarc.jdk8.instrument;
+
+/**
+ * The counters of one stage of a pipeline at the time of a snapshot.
+ * <p>
+ * Stages are identified by their path, the operations from the source to them, e.g.
+ * {@code source/filter/findFirst}; pipelines of different shapes sharing the same metrics branch off into separate
+ * paths.
+ */
+public class StageSnapshot {
+
+    private final String path;
+    private final String operation;
+    private final int depth;
+    private final long elementsIn;
+    private final long elementsOut;
+    private final long estimatedNanos;
+    private final long sampledCalls;
+    private final long shortCircuits;
+
+    StageSnapshot(String path, String operation, int depth, long elementsIn, long elementsOut, long estimatedNanos,
+                  long sampledCalls, long shortCircuits) {
+        this.path = path;
+        this.operation = operation;
+        this.depth = depth;
+        this.elementsIn = elementsIn;
+        this.elementsOut = elementsOut;
+        this.estimatedNanos = estimatedNanos;
+        this.sampledCalls = sampledCalls;
+        this.shortCircuits = shortCircuits;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * The position in the pipeline, 0 for the source.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getElementsIn() {
+        return elementsIn;
+    }
+
+    public long getElementsOut() {
+        return elementsOut;
+    }
+
+    /**
+     * The time spent in the function of the stage, extrapolated from the sampled calls to all elements in; 0 for
+     * stages without a function or without samples yet. The time of reading the clock is subtracted from each sample,
+     * so functions of a few nanoseconds are only roughly estimated, down to 0 for the ones taking less than the noise
+     * of the clock. Calls are only sampled once the stage has warmed up, each sample counts for 10 microseconds at
+     * most, and the estimate is capped at the wall time of the executions reaching the stage.
+     */
+    public long getEstimatedNanos() {
+        return estimatedNanos;
+    }
+
+    public long getSampledCalls() {
+        return sampledCalls;
+    }
+
+    /**
+     * The number of executions this stage stopped before the source was exhausted.
+     */
+    public long getShortCircuits() {
+        return shortCircuits;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{in=%d, out=%d, estimatedNanos=%d, sampledCalls=%d, shortCircuits=%d}",
+                path, elementsIn, elementsOut, estimatedNanos, sampledCalls, shortCircuits);
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.ingvarc.jdk8.merge;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Traverses a range of spliterators one after another, from a flat array instead of a tree of pairs.
+ * <p>
+ * It is sized, and sized when split, if all of its parts are and their sizes add up to less than
+ * {@code Long.MAX_VALUE}, and ordered if they all are; it is neither distinct nor sorted, even if the parts are. It
+ * splits at the part boundary which halves its size best, and once it is down to one part it splits that part.
+ */
+abstract class ConcatSpliterator<T, S extends Spliterator<T>> implements Spliterator<T> {
+
+    final S[] parts;
+    int index;
+    final int fence;
+    private final int characteristics;
+
+    ConcatSpliterator(S[] parts, int index, int fence) {
+        this.parts = parts;
+        this.index = index;
+        this.fence = fence;
+        int all = fence > index ? ~0 : SIZED | SUBSIZED;
+        long size = 0;
+        for (int i = index; i < fence; i++) {
+            all &= parts[i].characteristics();
+            size += parts[i].estimateSize();
+            if (size < 0) {
+                all &= ~(SIZED | SUBSIZED);
+                size = Long.MAX_VALUE;
+            }
+        }
+        this.characteristics = all & ~(DISTINCT | SORTED);
+    }
+
+    /**
+     * A spliterator over the parts {@code [from, to)}.
+     */
+    abstract S create(int from, int to);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public S trySplit() {
+        if (fence - index == 1) {
+            return (S) parts[index].trySplit();
+        }
+        if (fence - index < 1) {
+            return null;
+        }
+        int middle = middle();
+        S prefix = create(index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    /**
+     * The part boundary, strictly between {@code index} and {@code fence}, closest to half of the size.
+     */
+    private int middle() {
+        long half = estimateSize() / 2;
+        long size = 0;
+        for (int i = index; i < fence - 1; i++) {
+            long next = size + parts[i].estimateSize();
+            if (next < 0 || next >= half) {
+                boolean before = i > index && half - size <= next - half;
+                return before ? i : i + 1;
+            }
+            size = next;
+        }
+        return fence - 1;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        for (; index < fence; index++) {
+            if (parts[index].tryAdvance(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        for (; index < fence; index++) {
+            parts[index].forEachRemaining(action);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = 0;
+        for (int i = index; i < fence; i++) {
+            size += parts[i].estimateSize();
+            if (size < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    static final class OfRef<T> extends ConcatSpliterator<T, Spliterator<T>> {
+
+        OfRef(Spliterator<T>[] parts, int index, int fence) {
+            super(parts, index, fence);
+        }
+
+        @Override
+        Spliterator<T> create(int from, int to) {
+            return new OfRef<>(parts, from, to);
+        }
+    }
+
+    static final class OfInt extends ConcatSpliterator<Integer, Spliterator.OfInt> implements Spliterator.OfInt {
+
+        OfInt(Spliterator.OfInt[] parts, int index, int fence) {
+            super(parts, index, fence);
+        }
+
+        @Override
+        Spliterator.OfInt create(int from, int to) {
+            return new ConcatSpliterator.OfInt(parts, from, to);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            for (; index < fence; index++) {
+                if (parts[index].tryAdvance(action)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (; index < fence; index++) {
+                parts[index].forEachRemaining(action);
+            }
+        }
+    }
+
+    static final class OfLong extends ConcatSpliterator<Long, Spliterator.OfLong> implements Spliterator.OfLong {
+
+        OfLong(Spliterator.OfLong[] parts, int index, int fence) {
+            super(parts, index, fence);
+        }
+
+        @Override
+        Spliterator.OfLong create(int from, int to) {
+            return new ConcatSpliterator.OfLong(parts, from, to);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            for (; index < fence; index++) {
+                if (parts[index].tryAdvance(action)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (; index < fence; index++) {
+                parts[index].forEachRemaining(action);
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.ingvarc.jdk8.merge;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Merges sorted spliterators with a binary heap of their heads.
+ * <p>
+ * The heap holds the indices of the sources whose head was taken and not yet passed on, ordered by head and then by
+ * index, so that equal elements come out in the order of their sources. Passing on the smallest head takes the next
+ * one from the same source and sifts it down, about {@code log2(k)} comparisons per element for {@code k} sources.
+ * The heads are only taken on the first traversal, and the merge does not split. The merge only reports itself as
+ * {@code SORTED} when every source does, in the order of the merge.
+ */
+abstract class MergeSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<?>[] sources;
+    private final int[] heap;
+    private final int characteristics;
+    private int size;
+    private boolean started;
+
+    /**
+     * @param comparator the order of the merge, or null for the natural order
+     */
+    MergeSpliterator(Spliterator<?>[] sources, Comparator<?> comparator) {
+        this.sources = sources;
+        this.heap = new int[sources.length];
+        int all = ~0;
+        long total = 0;
+        for (Spliterator<?> source : sources) {
+            all &= source.characteristics();
+            if ((all & SORTED) != 0 && !Objects.equals(source.getComparator(), comparator)) {
+                all &= ~SORTED;
+            }
+            total += source.estimateSize();
+            if (total < 0) {
+                all &= ~SIZED;
+                total = Long.MAX_VALUE;
+            }
+        }
+        this.characteristics = ORDERED | (all & (SORTED | SIZED | NONNULL));
+    }
+
+    /**
+     * Whether the head of source {@code a} comes before the head of source {@code b}.
+     */
+    abstract boolean before(int a, int b);
+
+    /**
+     * Takes the next element of the source as its head.
+     *
+     * @return false if the source is exhausted
+     */
+    abstract boolean advance(int source);
+
+    /**
+     * The source of the smallest head, or -1 when all sources are exhausted.
+     */
+    final int top() {
+        if (!started) {
+            started = true;
+            for (int source = 0; source < sources.length; source++) {
+                if (advance(source)) {
+                    heap[size++] = source;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Replaces the smallest head with the next element of its source, after it was passed on.
+     */
+    final void next() {
+        if (!advance(heap[0])) {
+            heap[0] = heap[--size];
+        }
+        if (size > 1) {
+            siftDown(0);
+        }
+    }
+
+    private void siftDown(int i) {
+        int source = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], source)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = source;
+    }
+
+    @Override
+    public long estimateSize() {
+        long total = started ? size : 0;
+        for (Spliterator<?> source : sources) {
+            total += source.estimateSize();
+            if (total < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    /**
+     * Null for the natural order.
+     */
+    @Override
+    public Comparator<? super T> getComparator() {
+        return null;
+    }
+
+    static final class OfRef<T> extends MergeSpliterator<T> {
+        private final Spliterator<? extends T>[] sources;
+        private final Comparator<? super T> comparator;
+        private final Comparator<? super T> order;
+        private final Object[] heads;
+        private final Consumer<T> take = element -> taken = element;
+        private T taken;
+
+        /**
+         * @param comparator the order of the sources, or null for their natural order
+         */
+        @SuppressWarnings("unchecked")
+        OfRef(Spliterator<? extends T>[] sources, Comparator<? super T> comparator) {
+            super(sources, comparator);
+            this.sources = sources;
+            this.comparator = comparator;
+            this.order = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+            this.heads = new Object[sources.length];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean before(int a, int b) {
+            int compared = order.compare((T) heads[a], (T) heads[b]);
+            return compared < 0 || compared == 0 && a < b;
+        }
+
+        @Override
+        boolean advance(int source) {
+            if (sources[source].tryAdvance(take)) {
+                heads[source] = taken;
+                taken = null;
+                return true;
+            }
+            heads[source] = null;
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int source = top();
+            if (source < 0) {
+                return false;
+            }
+            T element = (T) heads[source];
+            next();
+            action.accept(element);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (int source = top(); source >= 0; source = top()) {
+                T element = (T) heads[source];
+                next();
+                action.accept(element);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparator;
+        }
+    }
+
+    static final class OfInt extends MergeSpliterator<Integer> implements Spliterator.OfInt {
+        private final Spliterator.OfInt[] sources;
+        private final int[] heads;
+        private final IntConsumer take = value -> taken = value;
+        private int taken;
+
+        OfInt(Spliterator.OfInt[] sources) {
+            super(sources, null);
+            this.sources = sources;
+            this.heads = new int[sources.length];
+        }
+
+        @Override
+        boolean before(int a, int b) {
+            return heads[a] < heads[b] || heads[a] == heads[b] && a < b;
+        }
+
+        @Override
+        boolean advance(int source) {
+            if (sources[source].tryAdvance(take)) {
+                heads[source] = taken;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            int source = top();
+            if (source < 0) {
+                return false;
+            }
+            int value = heads[source];
+            next();
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int source = top(); source >= 0; source = top()) {
+                int value = heads[source];
+                next();
+                action.accept(value);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return null;
+        }
+    }
+
+    static final class OfLong extends MergeSpliterator<Long> implements Spliterator.OfLong {
+        private final Spliterator.OfLong[] sources;
+        private final long[] heads;
+        private final LongConsumer take = value -> taken = value;
+        private long taken;
+
+        OfLong(Spliterator.OfLong[] sources) {
+            super(sources, null);
+            this.sources = sources;
+            this.heads = new long[sources.length];
+        }
+
+        @Override
+        boolean before(int a, int b) {
+            return heads[a] < heads[b] || heads[a] == heads[b] && a < b;
+        }
+
+        @Override
+        boolean advance(int source) {
+            if (sources[source].tryAdvance(take)) {
+                heads[source] = taken;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            int source = top();
+            if (source < 0) {
+                return false;
+            }
+            long value = heads[source];
+            next();
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (int source = top(); source >= 0; source = top()) {
+                long value = heads[source];
+                next();
+                action.accept(value);
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return null;
+        }
+    }
+}
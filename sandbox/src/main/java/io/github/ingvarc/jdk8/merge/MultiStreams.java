@@ -0,0 +1,146 @@
+package io.github.ingvarc.jdk8.merge;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.BaseStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Concatenates or merges any number of streams in one stage.
+ * <p>
+ * {@code Stream.concat}, as used in {@code Streams}, joins two streams; chaining it over {@code n} streams builds a
+ * tree of {@code n - 1} spliterators, so every element goes through up to {@code n} of them and a deep enough tree
+ * overflows the stack. {@link #concat(List)} puts the spliterators of all streams in one array instead. The result is
+ * sized and splits by halving its size as long as all the streams are sized, and it is parallel if any of them is.
+ * <p>
+ * {@link #mergeSorted(List, Comparator)} merges streams which are each sorted into one sorted stream, lazily, through
+ * a heap of the next element of every stream, instead of concatenating them and sorting everything again. The merge
+ * is stable: equal elements come in the order of the streams. It runs sequentially. When every stream reports itself
+ * as sorted in the order of the merge, e.g. after {@code sorted()}, so does the result, and a following
+ * {@code sorted()} costs nothing in the natural order. Streams which are not sorted are merged all the same, into a
+ * stream which is not reported as sorted either, so that {@code sorted()} and {@code distinct()} still work on it.
+ * <p>
+ * Closing the result closes all the streams, even if closing one of them fails.
+ */
+public final class MultiStreams {
+
+    private MultiStreams() {
+    }
+
+    @SafeVarargs
+    public static <T> Stream<T> concat(Stream<? extends T>... streams) {
+        // copied stream by stream, passing the varargs array on would let it escape
+        List<Stream<? extends T>> list = new ArrayList<>(streams.length);
+        for (Stream<? extends T> stream : streams) {
+            list.add(Objects.requireNonNull(stream));
+        }
+        return concat(list);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> concat(List<? extends Stream<? extends T>> streams) {
+        Spliterator<T>[] parts = (Spliterator<T>[]) new Spliterator<?>[streams.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = (Spliterator<T>) streams.get(i).spliterator();
+        }
+        return StreamSupport.stream(new ConcatSpliterator.OfRef<>(parts, 0, parts.length), anyParallel(streams))
+                .onClose(() -> closeAll(streams));
+    }
+
+    public static IntStream concatInts(List<? extends IntStream> streams) {
+        Spliterator.OfInt[] parts = new Spliterator.OfInt[streams.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = streams.get(i).spliterator();
+        }
+        return StreamSupport.intStream(new ConcatSpliterator.OfInt(parts, 0, parts.length), anyParallel(streams))
+                .onClose(() -> closeAll(streams));
+    }
+
+    public static LongStream concatLongs(List<? extends LongStream> streams) {
+        Spliterator.OfLong[] parts = new Spliterator.OfLong[streams.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = streams.get(i).spliterator();
+        }
+        return StreamSupport.longStream(new ConcatSpliterator.OfLong(parts, 0, parts.length), anyParallel(streams))
+                .onClose(() -> closeAll(streams));
+    }
+
+    /**
+     * Merges streams sorted in their natural order.
+     */
+    public static <T extends Comparable<? super T>> Stream<T> mergeSorted(List<? extends Stream<? extends T>> streams) {
+        return merge(streams, null);
+    }
+
+    /**
+     * Merges streams sorted in the order of the comparator.
+     */
+    public static <T> Stream<T> mergeSorted(List<? extends Stream<? extends T>> streams,
+                                            Comparator<? super T> comparator) {
+        return merge(streams, comparator);
+    }
+
+    public static IntStream mergeSortedInts(List<? extends IntStream> streams) {
+        Spliterator.OfInt[] sources = new Spliterator.OfInt[streams.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = streams.get(i).spliterator();
+        }
+        return StreamSupport.intStream(new MergeSpliterator.OfInt(sources), false)
+                .onClose(() -> closeAll(streams));
+    }
+
+    public static LongStream mergeSortedLongs(List<? extends LongStream> streams) {
+        Spliterator.OfLong[] sources = new Spliterator.OfLong[streams.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = streams.get(i).spliterator();
+        }
+        return StreamSupport.longStream(new MergeSpliterator.OfLong(sources), false)
+                .onClose(() -> closeAll(streams));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Stream<T> merge(List<? extends Stream<? extends T>> streams, Comparator<? super T> comparator) {
+        Spliterator<? extends T>[] sources = (Spliterator<? extends T>[]) new Spliterator<?>[streams.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = streams.get(i).spliterator();
+        }
+        return StreamSupport.stream(new MergeSpliterator.OfRef<T>(sources, comparator), false)
+                .onClose(() -> closeAll(streams));
+    }
+
+    private static boolean anyParallel(List<? extends BaseStream<?, ?>> streams) {
+        for (BaseStream<?, ?> stream : streams) {
+            if (stream.isParallel()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closes every stream, rethrowing the first failure with the later ones suppressed.
+     */
+    private static void closeAll(List<? extends BaseStream<?, ?>> streams) {
+        RuntimeException failure = null;
+        for (BaseStream<?, ?> stream : streams) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else if (failure != e) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.ingvarc.jdk8.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs stream pipelines sequentially or in parallel, whichever it expects to be faster, in a fork/join pool of its
+ * own.
+ * <p>
+ * Instead of choosing between {@code stream()} and {@code parallelStream()} by hand, as {@code Streams} does, every
+ * pipeline is run under a task name. The planner learns for each task the time per source element from its
+ * sequential runs and the fixed cost of going parallel from its parallel runs, both as moving averages; the time per
+ * element drops at once to a faster run, since a slow one is more likely to have been slowed down by code not yet
+ * compiled or by other threads. A run goes parallel when the time its elements are expected to take, spread over the
+ * pool, saves more than that fixed cost.
+ * <p>
+ * The first {@value #WARMUP_RUNS} runs of a task are sequential, and streams of unknown size always are. One run
+ * in {@value #EXPLORE_INTERVAL} goes the other way to measure again what the task does not do otherwise: a parallel
+ * task runs sequentially, and a sequential one in parallel if its work exceeds the default fixed cost.
+ * <p>
+ * Parallel runs use a pool bounded to the given parallelism, with worker threads named after the planner, instead of
+ * the common pool: a planner per workload keeps one heavy pipeline from starving the others. When all workers of the
+ * pool are busy, a run planned as parallel is run sequentially by the calling thread rather than queued, and counted
+ * as saturated. Joins the pool cannot compensate for with another thread beyond its bound are counted as well.
+ */
+public class ExecutionPlanner implements AutoCloseable {
+
+    /**
+     * The fixed cost of a parallel run assumed until one is measured.
+     */
+    static final long DEFAULT_OVERHEAD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    static final int WARMUP_RUNS = 4;
+
+    static final int EXPLORE_INTERVAL = 32;
+
+    /**
+     * The weight of the latest run in the moving averages.
+     */
+    private static final double ALPHA = 0.25;
+
+    private final String name;
+    private final ForkJoinPool pool;
+    private final ConcurrentMap<String, Task> tasks = new ConcurrentHashMap<>();
+    private final LongAdder saturations = new LongAdder();
+
+    /**
+     * Creates a planner with as many workers as there are processors.
+     */
+    public ExecutionPlanner(String name) {
+        this(name, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param name        the name of the planner and the prefix of its worker threads
+     * @param parallelism the number of worker threads, never exceeded
+     */
+    public ExecutionPlanner(String name, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Illegal parallelism: " + parallelism);
+        }
+        this.name = name;
+        AtomicInteger workers = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, owner -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+            worker.setName(name + "-worker-" + workers.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        }, null, false, 0, parallelism, 1, owner -> {
+            saturations.increment();
+            return true;
+        }, 60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs the pipeline on the stream, made sequential or parallel as planned for the task.
+     *
+     * @param task     the name the time per element of the pipeline is learned under
+     * @param source   the stream the pipeline starts from, whose size is taken as the number of elements
+     * @param pipeline the operations and the terminal operation of the pipeline
+     */
+    public <T, R> R run(String task, Stream<T> source, Function<? super Stream<T>, R> pipeline) {
+        Spliterator<T> spliterator = source.spliterator();
+        return execute(task, spliterator,
+                parallel -> pipeline.apply(StreamSupport.stream(spliterator, parallel).onClose(source::close)));
+    }
+
+    /**
+     * Runs the pipeline on the stream, made sequential or parallel as planned for the task.
+     *
+     * @param task     the name the time per element of the pipeline is learned under
+     * @param source   the stream the pipeline starts from, whose size is taken as the number of elements
+     * @param pipeline the operations and the terminal operation of the pipeline
+     */
+    public <R> R run(String task, IntStream source, Function<? super IntStream, R> pipeline) {
+        Spliterator.OfInt spliterator = source.spliterator();
+        return execute(task, spliterator,
+                parallel -> pipeline.apply(StreamSupport.intStream(spliterator, parallel).onClose(source::close)));
+    }
+
+    /**
+     * Whether a run of the task over that many elements would be parallel if the pool had idle workers.
+     */
+    public boolean plan(String task, long size) {
+        return task(task).plan(size, pool.getParallelism(), false);
+    }
+
+    /**
+     * Plans the run and applies the pipeline, which makes a parallel stream if given true and a sequential one otherwise.
+     */
+    private <R> R execute(String taskName, Spliterator<?> spliterator, Function<Boolean, R> pipeline) {
+        Task task = task(taskName);
+        long size = spliterator.getExactSizeIfKnown();
+        boolean parallel = task.plan(size, pool.getParallelism(), true);
+        if (parallel && pool.getActiveThreadCount() >= pool.getParallelism()) {
+            task.saturated.increment();
+            parallel = false;
+        }
+        long start = System.nanoTime();
+        R result;
+        if (parallel) {
+            result = inPool(() -> pipeline.apply(true));
+            task.parallelRun(size, System.nanoTime() - start, pool.getParallelism());
+        } else {
+            result = pipeline.apply(false);
+            task.sequentialRun(size, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the parallel pipeline in a worker of the pool, so that its tasks are forked there as well.
+     */
+    private <R> R inPool(Supplier<R> pipeline) {
+        if (ForkJoinTask.getPool() == pool) {
+            return pipeline.get();
+        }
+        try {
+            return pool.submit(pipeline::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running in " + name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private Task task(String name) {
+        return tasks.computeIfAbsent(name, Task::new);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * The number of workers running tasks or stealing, approximate.
+     */
+    public int getActiveThreadCount() {
+        return pool.getActiveThreadCount();
+    }
+
+    /**
+     * The number of tasks waiting in the queues of the pool, approximate.
+     */
+    public long getQueuedTaskCount() {
+        return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+    }
+
+    public long getStealCount() {
+        return pool.getStealCount();
+    }
+
+    /**
+     * The number of times a worker blocked in a join and the pool could not start another one in its place because
+     * it has as many threads as its parallelism allows.
+     */
+    public long getSaturations() {
+        return saturations.sum();
+    }
+
+    /**
+     * The statistics of the task, or null if it never ran.
+     */
+    public TaskStatistics getTask(String name) {
+        Task task = tasks.get(name);
+        return task == null ? null : task.snapshot();
+    }
+
+    public List<TaskStatistics> getTasks() {
+        List<TaskStatistics> statistics = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            statistics.add(task.snapshot());
+        }
+        return statistics;
+    }
+
+    /**
+     * Shuts the pool down; runs in progress complete, later parallel runs fail.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionPlanner{" +
+                "name='" + name + '\'' +
+                ", parallelism=" + getParallelism() +
+                ", active=" + getActiveThreadCount() +
+                ", queued=" + getQueuedTaskCount() +
+                ", saturations=" + getSaturations() +
+                ", tasks=" + getTasks() +
+                '}';
+    }
+
+    /**
+     * What the planner learned about one task.
+     */
+    private static final class Task {
+        final String name;
+        final LongAdder saturated = new LongAdder();
+        private long runs;
+        private long sequentialRuns;
+        private long parallelRuns;
+        private double nanosPerElement = Double.NaN;
+        private double overheadNanos = DEFAULT_OVERHEAD_NANOS;
+
+        Task(String name) {
+            this.name = name;
+        }
+
+        synchronized boolean plan(long size, int parallelism, boolean run) {
+            if (run) {
+                runs++;
+            }
+            if (parallelism == 1 || size < 2 || sequentialRuns < WARMUP_RUNS) {
+                return false;
+            }
+            double work = size * nanosPerElement;
+            double saved = work - work / parallelism;
+            boolean parallel = saved > overheadNanos;
+            if (run && runs % EXPLORE_INTERVAL == 0) {
+                return !parallel && saved > DEFAULT_OVERHEAD_NANOS;
+            }
+            return parallel;
+        }
+
+        synchronized void sequentialRun(long size, long nanos) {
+            sequentialRuns++;
+            if (size > 0) {
+                double sample = (double) nanos / size;
+                nanosPerElement = Double.isNaN(nanosPerElement) || sample < nanosPerElement
+                        ? sample
+                        : average(nanosPerElement, sample);
+            }
+        }
+
+        synchronized void parallelRun(long size, long nanos, int parallelism) {
+            parallelRuns++;
+            double overhead = Math.max(0, nanos - size * nanosPerElement / parallelism);
+            overheadNanos = average(overheadNanos, overhead);
+        }
+
+        private double average(double average, double sample) {
+            return average + ALPHA * (sample - average);
+        }
+
+        synchronized TaskStatistics snapshot() {
+            return new TaskStatistics(name, sequentialRuns, parallelRuns, saturated.sum(), nanosPerElement,
+                    overheadNanos);
+        }
+    }
+}
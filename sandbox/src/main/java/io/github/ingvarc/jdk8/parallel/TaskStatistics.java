@@ -0,0 +1,72 @@
+package io.github.ingvarc.jdk8.parallel;
+
+/**
+ * What an {@link ExecutionPlanner} decided for one task and what it learned from the runs.
+ */
+public final class TaskStatistics {
+
+    private final String name;
+    private final long sequentialRuns;
+    private final long parallelRuns;
+    private final long saturatedRuns;
+    private final double nanosPerElement;
+    private final double overheadNanos;
+
+    TaskStatistics(String name, long sequentialRuns, long parallelRuns, long saturatedRuns, double nanosPerElement,
+                   double overheadNanos) {
+        this.name = name;
+        this.sequentialRuns = sequentialRuns;
+        this.parallelRuns = parallelRuns;
+        this.saturatedRuns = saturatedRuns;
+        this.nanosPerElement = nanosPerElement;
+        this.overheadNanos = overheadNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The number of runs which ran sequentially, including the saturated ones.
+     */
+    public long getSequentialRuns() {
+        return sequentialRuns;
+    }
+
+    public long getParallelRuns() {
+        return parallelRuns;
+    }
+
+    /**
+     * The number of runs planned as parallel which ran sequentially because all workers of the pool were busy.
+     */
+    public long getSaturatedRuns() {
+        return saturatedRuns;
+    }
+
+    /**
+     * The time per source element learned from the sequential runs; NaN before the first one.
+     */
+    public double getNanosPerElement() {
+        return nanosPerElement;
+    }
+
+    /**
+     * The moving average of the time of the parallel runs beyond their work spread over the pool.
+     */
+    public double getOverheadNanos() {
+        return overheadNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStatistics{" +
+                "name='" + name + '\'' +
+                ", sequentialRuns=" + sequentialRuns +
+                ", parallelRuns=" + parallelRuns +
+                ", saturatedRuns=" + saturatedRuns +
+                ", nanosPerElement=" + nanosPerElement +
+                ", overheadNanos=" + overheadNanos +
+                '}';
+    }
+}
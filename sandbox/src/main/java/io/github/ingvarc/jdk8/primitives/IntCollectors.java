@@ -0,0 +1,38 @@
+package io.github.ingvarc.jdk8.primitives;
+
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Unboxed replacements for {@code boxed().collect(...)} on an {@link IntStream}.
+ * <pre>
+ * IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+ * IntCollectors.toIntList(IntStream.range(0, 1000));  // same elements, no Integer allocated
+ *
+ * IntStream.range(0, 1000).boxed().collect(Collectors.toMap(Function.identity(), (x) -> x % 4));
+ * IntCollectors.toIntIntMap(IntStream.range(0, 1000), x -> x, x -> x % 4);
+ * </pre>
+ */
+public final class IntCollectors {
+
+    private IntCollectors() {
+    }
+
+    public static IntList toIntList(IntStream stream) {
+        return stream.collect(IntList::new, IntList::add, IntList::addAll);
+    }
+
+    /**
+     * Collects the stream into a map, failing on duplicate keys just like {@code Collectors.toMap}.
+     *
+     * @throws IllegalStateException if the key mapper produces the same key twice
+     */
+    public static IntIntMap toIntIntMap(IntStream stream, IntUnaryOperator keyMapper, IntUnaryOperator valueMapper) {
+        return stream.collect(IntIntMap::new, (map, element) -> {
+            int key = keyMapper.applyAsInt(element);
+            if (!map.put(key, valueMapper.applyAsInt(element))) {
+                throw new IllegalStateException("Duplicate key " + key);
+            }
+        }, IntIntMap::putAllDistinct);
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.ingvarc.jdk8.primitives;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from int keys to int values, the unboxed counterpart of {@code HashMap<Integer, Integer>}.
+ * <p>
+ * Keys and values live in two parallel arrays probed linearly, so neither entries nor boxed integers are allocated.
+ * The key {@code 0} marks a free slot and is therefore stored aside.
+ */
+public class IntIntMap {
+
+    private static final int FREE_KEY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal size: " + expectedSize);
+        }
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @return true if the key was not present before
+     */
+    public boolean put(int key, int value) {
+        if (key == FREE_KEY) {
+            boolean added = !hasFreeKey;
+            if (added) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return added;
+        }
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return false;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= threshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    public int get(int key) {
+        if (key == FREE_KEY) {
+            if (hasFreeKey) {
+                return freeKeyValue;
+            }
+        } else {
+            int slot = slot(key);
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        throw new IllegalArgumentException("No mapping for key " + key);
+    }
+
+    public boolean containsKey(int key) {
+        return key == FREE_KEY ? hasFreeKey : keys[slot(key)] == key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    public void forEach(IntIntConsumer action) {
+        if (hasFreeKey) {
+            action.accept(FREE_KEY, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies all mappings of the other map into this one, failing on keys present in both.
+     *
+     * @throws IllegalStateException if a key is present in both maps, like {@code Collectors.toMap} does
+     */
+    public void putAllDistinct(IntIntMap other) {
+        other.forEach((key, value) -> {
+            if (!put(key, value)) {
+                throw new IllegalStateException("Duplicate key " + key);
+            }
+        });
+    }
+
+    /**
+     * Returns the slot holding the key or the free slot where it would be inserted.
+     */
+    private int slot(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != key && keys[slot] != FREE_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE_KEY) {
+                int slot = slot(key);
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        if (n <= 0) {
+            throw new IllegalArgumentException("Map too large: " + capacity);
+        }
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Accepts a key and its value without boxing either.
+     */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.ingvarc.jdk8.primitives;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A growable list of primitive ints, the unboxed counterpart of {@code ArrayList<Integer>}.
+ */
+public class IntList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        elements = new int[initialCapacity];
+    }
+
+    public static IntList of(int... values) {
+        IntList list = new IntList(values.length);
+        list.addAll(values, 0, values.length);
+        return list;
+    }
+
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    public void addAll(IntList other) {
+        addAll(other.elements, 0, other.size);
+    }
+
+    public void addAll(int[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        int count = to - from;
+        if (size + count > elements.length) {
+            grow(size + count);
+        }
+        System.arraycopy(values, from, elements, size, count);
+        size += count;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    /**
+     * A late-binding spliterator: it takes the elements and the size when it is first traversed, split or sized, so
+     * values added to the list before then are included.
+     */
+    public Spliterator.OfInt spliterator() {
+        return new IntListSpliterator(this, null, 0, -1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, elements.length + (elements.length >> 1) + 1);
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntList)) {
+            return false;
+        }
+        IntList other = (IntList) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + elements[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private static final class IntListSpliterator implements Spliterator.OfInt {
+        private final IntList list;
+        private int[] elements;
+        private int index;
+        /**
+         * One past the last index, or -1 until bound.
+         */
+        private int fence;
+
+        IntListSpliterator(IntList list, int[] elements, int origin, int fence) {
+            this.list = list;
+            this.elements = elements;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        private int fence() {
+            if (fence < 0) {
+                elements = list.elements;
+                fence = list.size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int hi = fence();
+            int mid = (index + hi) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+            IntListSpliterator prefix = new IntListSpliterator(list, elements, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= fence()) {
+                return false;
+            }
+            action.accept(elements[index++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = fence();
+            int[] a = elements;
+            for (int i = index; i < hi; i++) {
+                action.accept(a[i]);
+            }
+            index = hi;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package io.github.ingvarc.jdk8.primitives;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A fixed-length array of primitive ints outside the heap, indexed by {@code long}.
+ * <p>
+ * Where {@code Streams} fills an {@code ArrayList<Integer>} with a million boxed values, here the values take four
+ * bytes each in direct or memory-mapped buffers, which the garbage collector neither copies nor scans. One buffer holds
+ * at most 2 GB, so the array is made of segments of {@code 2^28} ints, and may hold billions of them. The ints are in
+ * the native byte order, also in mapped files.
+ * <p>
+ * {@link #fill}, {@link #setAll}, {@link #reduce} and {@link #shuffle} run in parallel in the common pool on blocks
+ * which never cross a segment. The shuffle is a merge shuffle: the array is cut into about as many blocks as the common
+ * pool has threads, which are shuffled with Fisher–Yates, each with a generator split off the given one, and then
+ * merged pairwise, taking the next element from either half on a coin flip and placing the rest of the elements
+ * Fisher–Yates-style. Every permutation is equally likely. A merge takes a pass over both halves, as long as
+ * shuffling them takes on one thread, so the blocks are only made as small as the threads need, and the last merge
+ * alone takes a pass over the whole array.
+ * <p>
+ * The memory is released when the array is no longer reachable and its buffers are collected.
+ */
+public class OffHeapIntArray {
+
+    static final int DEFAULT_SEGMENT_SHIFT = 28;
+
+    private static final int BLOCK_SHIFT = 16;
+
+    private final IntBuffer[] segments;
+    private final long length;
+    private final int shift;
+    private final int mask;
+    private final int blockSize;
+
+    private OffHeapIntArray(IntBuffer[] segments, long length, int shift) {
+        this.segments = segments;
+        this.length = length;
+        this.shift = shift;
+        this.mask = (1 << shift) - 1;
+        this.blockSize = 1 << Math.min(shift, BLOCK_SHIFT);
+    }
+
+    /**
+     * Allocates an array of zeros in direct buffers.
+     */
+    public static OffHeapIntArray allocate(long length) {
+        return allocate(length, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static OffHeapIntArray allocate(long length, int segmentShift) {
+        IntBuffer[] segments = new IntBuffer[segmentCount(length, segmentShift)];
+        for (int i = 0; i < segments.length; i++) {
+            int size = segmentSize(length, segmentShift, i);
+            segments[i] = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return new OffHeapIntArray(segments, length, segmentShift);
+    }
+
+    /**
+     * Maps the first {@code length * 4} bytes of the file, which is extended as needed, as an array; the changes
+     * are written to the file.
+     *
+     * @param channel a channel open for reading and writing, which may be closed once mapped
+     */
+    public static OffHeapIntArray map(FileChannel channel, long length) throws IOException {
+        return map(channel, length, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static OffHeapIntArray map(FileChannel channel, long length, int segmentShift) throws IOException {
+        IntBuffer[] segments = new IntBuffer[segmentCount(length, segmentShift)];
+        for (int i = 0; i < segments.length; i++) {
+            long position = ((long) i << segmentShift) * Integer.BYTES;
+            int size = segmentSize(length, segmentShift, i);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) size * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        return new OffHeapIntArray(segments, length, segmentShift);
+    }
+
+    private static int segmentCount(long length, int segmentShift) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Illegal length: " + length);
+        }
+        if (segmentShift < 1 || segmentShift > DEFAULT_SEGMENT_SHIFT) {
+            throw new IllegalArgumentException("Illegal segment shift: " + segmentShift);
+        }
+        long count = (length + (1L << segmentShift) - 1) >>> segmentShift;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal length: " + length);
+        }
+        return (int) count;
+    }
+
+    private static int segmentSize(long length, int segmentShift, int segment) {
+        return (int) Math.min(1L << segmentShift, length - ((long) segment << segmentShift));
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public int get(long index) {
+        checkIndex(index);
+        return segments[(int) (index >>> shift)].get((int) index & mask);
+    }
+
+    public int set(long index, int value) {
+        checkIndex(index);
+        IntBuffer segment = segments[(int) (index >>> shift)];
+        int previous = segment.get((int) index & mask);
+        segment.put((int) index & mask, value);
+        return previous;
+    }
+
+    /**
+     * Sets every element to the value, in parallel.
+     */
+    public void fill(int value) {
+        forEachBlock((segment, from, to, offset) -> {
+            for (int i = from; i < to; i++) {
+                segment.put(i, value);
+            }
+        });
+    }
+
+    /**
+     * Sets every element to the value the generator computes from its index, in parallel, like
+     * {@code Arrays.parallelSetAll}.
+     */
+    public void setAll(LongToIntFunction generator) {
+        forEachBlock((segment, from, to, offset) -> {
+            for (int i = from; i < to; i++) {
+                segment.put(i, generator.applyAsInt(offset + i));
+            }
+        });
+    }
+
+    /**
+     * Reduces the elements in parallel, like {@code IntStream.reduce(identity, operator)}: the operator must be
+     * associative and the identity its identity.
+     */
+    public int reduce(int identity, IntBinaryOperator operator) {
+        return new ReduceTask(this, 0, blocks(blockSize), identity, operator).invoke();
+    }
+
+    /**
+     * Shuffles the elements in parallel with a generator seeded at random.
+     */
+    public void shuffle() {
+        shuffle(new SplittableRandom());
+    }
+
+    /**
+     * Shuffles the elements in parallel; the same seed shuffles an array of the same length the same way as long as
+     * the parallelism of the common pool is the same.
+     */
+    public void shuffle(SplittableRandom random) {
+        int parallelism = Integer.highestOneBit(Math.max(1, ForkJoinPool.getCommonPoolParallelism()) * 2 - 1);
+        long perThread = Math.max(blockSize, (length + parallelism - 1) / parallelism);
+        int leafSize = (int) Math.min(1L << shift, Long.highestOneBit(perThread * 2 - 1));
+        new ShuffleTask(this, 0, blocks(leafSize), leafSize, random).invoke();
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    /**
+     * A spliterator over the elements, splitting in halves down to single elements; it sees the changes made while
+     * it traverses.
+     */
+    public Spliterator.OfInt spliterator() {
+        return new OffHeapSpliterator(this, 0, length);
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+    }
+
+    private long blocks(int size) {
+        return (length + size - 1) / size;
+    }
+
+    private void forEachBlock(BlockAction action) {
+        new BlockTask(this, 0, blocks(blockSize), action).invoke();
+    }
+
+    /**
+     * Applies the action to the block of the size, a power of two no larger than a segment, so it lies within one.
+     */
+    private void block(long block, int size, BlockAction action) {
+        long start = block * size;
+        int from = (int) start & mask;
+        int to = from + (int) Math.min(size, length - start);
+        action.apply(segments[(int) (start >>> shift)], from, to, start - from);
+    }
+
+    private interface BlockAction {
+        /**
+         * @param offset the index of the first element of the segment
+         */
+        void apply(IntBuffer segment, int from, int to, long offset);
+    }
+
+    /**
+     * Splits the block indices in halves.
+     */
+    private static final class BlockTask extends RecursiveAction {
+        private final OffHeapIntArray array;
+        private final long lo;
+        private final long hi;
+        private final BlockAction action;
+
+        BlockTask(OffHeapIntArray array, long lo, long hi, BlockAction action) {
+            this.array = array;
+            this.lo = lo;
+            this.hi = hi;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= 1) {
+                if (hi > lo) {
+                    array.block(lo, array.blockSize, action);
+                }
+                return;
+            }
+            long mid = (lo + hi) >>> 1;
+            ForkJoinTask.invokeAll(new BlockTask(array, lo, mid, action), new BlockTask(array, mid, hi, action));
+        }
+    }
+
+    private static final class ReduceTask extends RecursiveTask<Integer> {
+        private final OffHeapIntArray array;
+        private final long lo;
+        private final long hi;
+        private final int identity;
+        private final IntBinaryOperator operator;
+
+        ReduceTask(OffHeapIntArray array, long lo, long hi, int identity, IntBinaryOperator operator) {
+            this.array = array;
+            this.lo = lo;
+            this.hi = hi;
+            this.identity = identity;
+            this.operator = operator;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo <= 1) {
+                int accumulated = identity;
+                if (hi > lo) {
+                    long start = lo * array.blockSize;
+                    IntBuffer segment = array.segments[(int) (start >>> array.shift)];
+                    int from = (int) start & array.mask;
+                    int to = from + (int) Math.min(array.blockSize, array.length - start);
+                    for (int i = from; i < to; i++) {
+                        accumulated = operator.applyAsInt(accumulated, segment.get(i));
+                    }
+                }
+                return accumulated;
+            }
+            long mid = (lo + hi) >>> 1;
+            ReduceTask upper = new ReduceTask(array, mid, hi, identity, operator);
+            upper.fork();
+            int lower = new ReduceTask(array, lo, mid, identity, operator).compute();
+            return operator.applyAsInt(lower, upper.join());
+        }
+    }
+
+    /**
+     * Shuffles the blocks of each half with a generator of its own and merges the halves.
+     */
+    private static final class ShuffleTask extends RecursiveAction {
+        private final OffHeapIntArray array;
+        private final long lo;
+        private final long hi;
+        private final int leafSize;
+        private final SplittableRandom random;
+
+        ShuffleTask(OffHeapIntArray array, long lo, long hi, int leafSize, SplittableRandom random) {
+            this.array = array;
+            this.lo = lo;
+            this.hi = hi;
+            this.leafSize = leafSize;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= 1) {
+                if (hi > lo) {
+                    array.block(lo, leafSize, (segment, from, to, offset) -> shuffle(segment, from, to));
+                }
+                return;
+            }
+            long mid = (lo + hi) >>> 1;
+            ForkJoinTask.invokeAll(new ShuffleTask(array, lo, mid, leafSize, random.split()),
+                    new ShuffleTask(array, mid, hi, leafSize, random.split()));
+            merge(lo * leafSize, mid * leafSize, Math.min(hi * leafSize, array.length));
+        }
+
+        private void shuffle(IntBuffer segment, int from, int to) {
+            for (int i = to - 1; i > from; i--) {
+                int j = from + random.nextInt(i - from + 1);
+                int value = segment.get(i);
+                segment.put(i, segment.get(j));
+                segment.put(j, value);
+            }
+        }
+
+        /**
+         * Merges the shuffled ranges {@code [from, mid)} and {@code [mid, to)}: while both have elements left, a coin
+         * flip decides whether the next element is the next one of the first or of the second range. Once one of
+         * them runs out, the remaining elements are each swapped with a random one before them.
+         */
+        private void merge(long from, long mid, long to) {
+            long i = from;
+            long j = mid;
+            long bits = 0;
+            int bitsLeft = 0;
+            while (true) {
+                if (bitsLeft == 0) {
+                    bits = random.nextLong();
+                    bitsLeft = Long.SIZE;
+                }
+                boolean second = (bits & 1) != 0;
+                bits >>>= 1;
+                bitsLeft--;
+                if (second) {
+                    if (j == to) {
+                        break;
+                    }
+                    swap(i, j++);
+                } else if (i == j) {
+                    break;
+                }
+                i++;
+            }
+            for (; i < to; i++) {
+                swap(i, from + random.nextLong(i - from + 1));
+            }
+        }
+
+        private void swap(long i, long j) {
+            IntBuffer first = array.segments[(int) (i >>> array.shift)];
+            IntBuffer second = array.segments[(int) (j >>> array.shift)];
+            int value = first.get((int) i & array.mask);
+            first.put((int) i & array.mask, second.get((int) j & array.mask));
+            second.put((int) j & array.mask, value);
+        }
+    }
+
+    private static final class OffHeapSpliterator implements Spliterator.OfInt {
+        private final OffHeapIntArray array;
+        private long index;
+        private final long fence;
+
+        OffHeapSpliterator(OffHeapIntArray array, long index, long fence) {
+            this.array = array;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            long lo = index;
+            long mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new OffHeapSpliterator(array, lo, mid);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(array.get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            long i = index;
+            index = fence;
+            while (i < fence) {
+                IntBuffer segment = array.segments[(int) (i >>> array.shift)];
+                int from = (int) i & array.mask;
+                int to = (int) Math.min(segment.limit(), from + (fence - i));
+                for (int k = from; k < to; k++) {
+                    action.accept(segment.get(k));
+                }
+                i += to - from;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.ingvarc.jdk8.search;
+
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * A parallel search over an int range which stops evaluating the predicate as soon as the answer is known.
+ * <p>
+ * The range is split into chunks searched on a fork/join pool.
+ * In the ordered mode ({@link #findFirst}) a match cancels every chunk lying past it,
+ * while chunks before it keep running since they can still hold a smaller match.
+ * In the unordered mode ({@link #findAny}) the first match cancels all chunks.
+ * <p>
+ * Unlike the static {@code invocations} counter in {@code Streams}, predicate calls are counted with a {@link LongAdder}
+ * per run, so the number of wasted evaluations is exact even when the chunks run concurrently.
+ */
+public class RangeSearch {
+
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a search running in the common pool with a chunk size derived from the range and the pool parallelism.
+     */
+    public RangeSearch() {
+        this(ForkJoinPool.commonPool(), 0);
+    }
+
+    /**
+     * @param pool      the pool running the chunks
+     * @param chunkSize the number of elements searched by one task, or 0 to derive it from the range
+     */
+    public RangeSearch(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Finds the smallest element of {@code [from, to)} matching the predicate, like
+     * {@code IntStream.range(from, to).parallel().filter(predicate).findFirst()}.
+     */
+    public SearchResult findFirst(int from, int to, IntPredicate predicate) {
+        return search(from, to, predicate, true);
+    }
+
+    /**
+     * Finds any element of {@code [from, to)} matching the predicate, like
+     * {@code IntStream.range(from, to).unordered().parallel().filter(predicate).findAny()}.
+     */
+    public SearchResult findAny(int from, int to, IntPredicate predicate) {
+        return search(from, to, predicate, false);
+    }
+
+    private SearchResult search(int from, int to, IntPredicate predicate, boolean ordered) {
+        if (from >= to) {
+            return new SearchResult(OptionalInt.empty(), 0, 0, 0);
+        }
+        long length = (long) to - from;
+        int size = chunkSize > 0
+                ? chunkSize
+                : (int) Math.max(1, length / ((long) pool.getParallelism() * CHUNKS_PER_THREAD));
+        int chunks = (int) ((length + size - 1) / size);
+
+        Run run = new Run(from, to, size, predicate, ordered);
+        pool.invoke(new ChunkTask(run, 0, chunks));
+
+        int found = run.match.get();
+        OptionalInt value = run.found() ? OptionalInt.of(found) : OptionalInt.empty();
+        return new SearchResult(value, run.evaluations.sum(), chunks, run.cancelledChunks.intValue());
+    }
+
+    /**
+     * The state shared by all chunks of one search.
+     */
+    private static final class Run {
+        final int from;
+        final int to;
+        final int chunkSize;
+        final IntPredicate predicate;
+        final boolean ordered;
+
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder cancelledChunks = new LongAdder();
+
+        /**
+         * The best match so far; {@code to} until something matches. Only ever decreases.
+         */
+        final AtomicInteger match;
+
+        Run(int from, int to, int chunkSize, IntPredicate predicate, boolean ordered) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.predicate = predicate;
+            this.ordered = ordered;
+            this.match = new AtomicInteger(to);
+        }
+
+        boolean found() {
+            return match.get() != to;
+        }
+
+        /**
+         * Whether searching from this element on can no longer change the result.
+         */
+        boolean cancelled(int element) {
+            return ordered ? element >= match.get() : found();
+        }
+
+        void offer(int element) {
+            int current;
+            do {
+                current = match.get();
+            } while (element < current && !match.compareAndSet(current, element));
+        }
+
+        void searchChunk(int chunk) {
+            int start = (int) (from + (long) chunk * chunkSize);
+            int end = (int) Math.min((long) start + chunkSize, to);
+            if (cancelled(start)) {
+                cancelledChunks.increment();
+                return;
+            }
+            long evaluated = 0;
+            for (int element = start; element < end && !cancelled(element); element++) {
+                evaluated++;
+                if (predicate.test(element)) {
+                    offer(element);
+                    break;
+                }
+            }
+            evaluations.add(evaluated);
+        }
+    }
+
+    /**
+     * Splits the chunk indices in halves, keeping the lower half on the current thread so ordered searches
+     * reach the early chunks first.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private final Run run;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(Run run, int lo, int hi) {
+            this.run = run;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                run.searchChunk(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            ChunkTask upper = new ChunkTask(run, mid, hi);
+            upper.fork();
+            new ChunkTask(run, lo, mid).compute();
+            upper.join();
+        }
+    }
+}
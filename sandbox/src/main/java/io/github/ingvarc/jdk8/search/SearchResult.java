@@ -0,0 +1,53 @@
+package io.github.ingvarc.jdk8.search;
+
+import java.util.OptionalInt;
+
+/**
+ * The outcome of a {@link RangeSearch} together with how much work it took.
+ */
+public final class SearchResult {
+
+    private final OptionalInt value;
+    private final long evaluations;
+    private final int chunks;
+    private final int cancelledChunks;
+
+    SearchResult(OptionalInt value, long evaluations, int chunks, int cancelledChunks) {
+        this.value = value;
+        this.evaluations = evaluations;
+        this.chunks = chunks;
+        this.cancelledChunks = cancelledChunks;
+    }
+
+    public OptionalInt getValue() {
+        return value;
+    }
+
+    /**
+     * The number of times the predicate was called.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * The number of chunks skipped entirely because a match was already known.
+     */
+    public int getCancelledChunks() {
+        return cancelledChunks;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "value=" + value +
+                ", evaluations=" + evaluations +
+                ", chunks=" + chunks +
+                ", cancelledChunks=" + cancelledChunks +
+                '}';
+    }
+}
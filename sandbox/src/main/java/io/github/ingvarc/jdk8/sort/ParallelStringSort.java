@@ -0,0 +1,208 @@
+package io.github.ingvarc.jdk8.sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A parallel merge sort of strings in {@link String#compareTo natural order}.
+ * <p>
+ * Each string gets a {@code long} key packing its first four chars, so most comparisons are a single
+ * primitive comparison and never touch the string itself; only strings sharing a four-char prefix
+ * fall back to {@link String#compareTo}.
+ * <p>
+ * {@link #sortDistinct} fuses deduplication into the merges: equal strings meeting in a merge are emitted once,
+ * so duplicates shrink every merge level above them instead of being removed in a pass of their own.
+ */
+public final class ParallelStringSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    private ParallelStringSort() {
+    }
+
+    /**
+     * Sorts the array in place.
+     */
+    public static void sort(String[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the array in place.
+     */
+    public static void sort(String[] a, int from, int to) {
+        run(a, from, to, false);
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the array in place and removes duplicates, keeping the first of each.
+     * The slots freed at the end of the range are cleared.
+     *
+     * @return the end of the sorted distinct range
+     */
+    public static int sortDistinct(String[] a, int from, int to) {
+        return run(a, from, to, true);
+    }
+
+    private static int run(String[] a, int from, int to, boolean distinct) {
+        int length = to - from;
+        if (length < 2) {
+            return to;
+        }
+        Buffers buffers = new Buffers(Arrays.copyOfRange(a, from, to), distinct);
+        int end = ForkJoinPool.commonPool().invoke(new SortTask(buffers, 0, length));
+        System.arraycopy(buffers.strings, 0, a, from, end);
+        Arrays.fill(a, from + end, to, null);
+        return from + end;
+    }
+
+    /**
+     * Packs the first four chars into a key which compares, unsigned, like the prefixes themselves.
+     */
+    static long prefix(String s) {
+        long key = 0;
+        int length = Math.min(s.length(), 4);
+        for (int i = 0; i < 4; i++) {
+            key = (key << 16) | (i < length ? s.charAt(i) : 0);
+        }
+        return key;
+    }
+
+    /**
+     * The strings with their prefix keys, and the scratch space the merges copy their left halves into.
+     */
+    private static final class Buffers {
+        final String[] strings;
+        final long[] keys;
+        final String[] scratch;
+        final long[] scratchKeys;
+        final boolean distinct;
+
+        Buffers(String[] strings, boolean distinct) {
+            this.strings = strings;
+            this.keys = new long[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                keys[i] = prefix(strings[i]);
+            }
+            this.scratch = new String[strings.length];
+            this.scratchKeys = new long[strings.length];
+            this.distinct = distinct;
+        }
+
+        int compare(long leftKey, String left, int right) {
+            int result = Long.compareUnsigned(leftKey, keys[right]);
+            return result != 0 ? result : left.compareTo(strings[right]);
+        }
+
+        /**
+         * Sorts {@code [lo, hi)} and returns the end of the sorted, and if requested distinct, range.
+         */
+        int sort(int lo, int hi) {
+            if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+                return insertionSort(lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            return merge(lo, sort(lo, mid), mid, sort(mid, hi));
+        }
+
+        int insertionSort(int lo, int hi) {
+            for (int i = lo + 1; i < hi; i++) {
+                String s = strings[i];
+                long key = keys[i];
+                int j = i - 1;
+                while (j >= lo && compare(key, s, j) < 0) {
+                    strings[j + 1] = strings[j];
+                    keys[j + 1] = keys[j];
+                    j--;
+                }
+                strings[j + 1] = s;
+                keys[j + 1] = key;
+            }
+            if (!distinct || hi - lo < 2) {
+                return hi;
+            }
+            int last = lo;
+            for (int i = lo + 1; i < hi; i++) {
+                if (keys[i] != keys[last] || !strings[i].equals(strings[last])) {
+                    last++;
+                    strings[last] = strings[i];
+                    keys[last] = keys[i];
+                }
+            }
+            return last + 1;
+        }
+
+        /**
+         * Merges the sorted runs {@code [lo, leftEnd)} and {@code [mid, rightEnd)} into a run starting at {@code lo}.
+         */
+        int merge(int lo, int leftEnd, int mid, int rightEnd) {
+            if (leftEnd > lo && mid < rightEnd) {
+                int order = compare(keys[leftEnd - 1], strings[leftEnd - 1], mid);
+                if (order < 0 || (order == 0 && !distinct)) {
+                    return moveDown(mid, rightEnd, leftEnd);
+                }
+            } else {
+                return moveDown(mid, rightEnd, leftEnd);
+            }
+            int leftLength = leftEnd - lo;
+            System.arraycopy(strings, lo, scratch, lo, leftLength);
+            System.arraycopy(keys, lo, scratchKeys, lo, leftLength);
+
+            int left = lo;
+            int right = mid;
+            int out = lo;
+            while (left < leftEnd && right < rightEnd) {
+                int order = compare(scratchKeys[left], scratch[left], right);
+                if (order <= 0) {
+                    strings[out] = scratch[left];
+                    keys[out++] = scratchKeys[left++];
+                    if (order == 0 && distinct) {
+                        right++;
+                    }
+                } else {
+                    strings[out] = strings[right];
+                    keys[out++] = keys[right++];
+                }
+            }
+            System.arraycopy(scratch, left, strings, out, leftEnd - left);
+            System.arraycopy(scratchKeys, left, keys, out, leftEnd - left);
+            out += leftEnd - left;
+            return moveDown(right, rightEnd, out);
+        }
+
+        private int moveDown(int from, int to, int target) {
+            System.arraycopy(strings, from, strings, target, to - from);
+            System.arraycopy(keys, from, keys, target, to - from);
+            return target + to - from;
+        }
+    }
+
+    /**
+     * Sorts the two halves of a range in parallel and merges them, down to a size sorted sequentially.
+     */
+    private static final class SortTask extends RecursiveTask<Integer> {
+        private final Buffers buffers;
+        private final int lo;
+        private final int hi;
+
+        SortTask(Buffers buffers, int lo, int hi) {
+            this.buffers = buffers;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo <= SEQUENTIAL_THRESHOLD) {
+                return buffers.sort(lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            SortTask upper = new SortTask(buffers, mid, hi);
+            upper.fork();
+            int leftEnd = new SortTask(buffers, lo, mid).compute();
+            return buffers.merge(lo, leftEnd, mid, upper.join());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.ingvarc.jdk8.sort;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A replacement for {@code stream.distinct().sorted()} on large string streams.
+ * <p>
+ * Strings are buffered until the estimated heap footprint of the buffer exceeds the budget.
+ * The buffer is then sorted and deduplicated at once with {@link ParallelStringSort#sortDistinct},
+ * instead of going through the {@code LinkedHashSet} of {@code distinct()}, and either returned directly or,
+ * when the budget was exceeded, spilled to a temporary file.
+ * Spilled runs are stored as raw UTF-16, which round-trips any string, even one holding unpaired surrogates,
+ * and are read back through a k-way merge that drops duplicates across runs on the fly.
+ * <pre>
+ * Stream.of("Foo", "Bar", "Baz", "Baz", "Foo", "Bar").distinct().sorted();
+ * SortDistinct.sortedDistinct(Stream.of("Foo", "Bar", "Baz", "Baz", "Foo", "Bar")); // "Bar", "Baz", "Foo"
+ * </pre>
+ * A spilled run is registered with {@link File#deleteOnExit()} when it is written and opened with
+ * {@link StandardOpenOption#DELETE_ON_CLOSE} when the merge starts, and deleted once it is merged, so a run which
+ * fails or is abandoned before the returned stream is closed leaves no file behind. The returned stream should still
+ * be closed, which releases the open runs at once.
+ */
+public class SortDistinct {
+
+    /**
+     * A rough per-string estimate: the String and its byte array headers, the reference in the buffer
+     * and the prefix key and scratch copies made by the sort.
+     */
+    private static final long STRING_OVERHEAD = 80;
+
+    private final long heapBudget;
+    private final Path spillDirectory;
+
+    /**
+     * @param heapBudget     the estimated number of bytes the buffered strings may occupy before a run is spilled
+     * @param spillDirectory the directory for the spilled runs
+     */
+    public SortDistinct(long heapBudget, Path spillDirectory) {
+        if (heapBudget <= 0) {
+            throw new IllegalArgumentException("Illegal heap budget: " + heapBudget);
+        }
+        this.heapBudget = heapBudget;
+        this.spillDirectory = Objects.requireNonNull(spillDirectory);
+    }
+
+    /**
+     * Sorts and deduplicates entirely in memory.
+     */
+    public static Stream<String> sortedDistinct(Stream<String> source) {
+        String[] strings = source.toArray(String[]::new);
+        return Arrays.stream(strings, 0, ParallelStringSort.sortDistinct(strings, 0, strings.length));
+    }
+
+    public Stream<String> apply(Stream<String> source) {
+        List<Path> runs = new ArrayList<>();
+        String[] buffer = new String[1024];
+        int size = 0;
+        long footprint = 0;
+        try {
+            Iterator<String> iterator = source.iterator();
+            while (iterator.hasNext()) {
+                String s = Objects.requireNonNull(iterator.next());
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size << 1);
+                }
+                buffer[size++] = s;
+                footprint += STRING_OVERHEAD + 2L * s.length();
+                if (footprint > heapBudget) {
+                    runs.add(spill(buffer, size));
+                    Arrays.fill(buffer, 0, size, null);
+                    size = 0;
+                    footprint = 0;
+                }
+            }
+            size = ParallelStringSort.sortDistinct(buffer, 0, size);
+            if (runs.isEmpty()) {
+                return Arrays.stream(buffer, 0, size);
+            }
+            if (size > 0) {
+                runs.add(write(buffer, size));
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(runs);
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+        return merge(runs);
+    }
+
+    private Path spill(String[] buffer, int size) throws IOException {
+        return write(buffer, ParallelStringSort.sortDistinct(buffer, 0, size));
+    }
+
+    private Path write(String[] sorted, int size) throws IOException {
+        Path run = Files.createTempFile(spillDirectory, "sorted-run", ".bin");
+        run.toFile().deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (int i = 0; i < size; i++) {
+                out.writeInt(sorted[i].length());
+                out.writeChars(sorted[i]);
+            }
+        }
+        return run;
+    }
+
+    private static Stream<String> merge(List<Path> runs) {
+        KWayMerge merge = new KWayMerge(runs);
+        return StreamSupport.stream(merge, false).onClose(merge::close);
+    }
+
+    private static void delete(List<Path> runs) {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException ignored) {
+                // best effort, the file is in the spill directory anyway
+            }
+        }
+    }
+
+    /**
+     * Reads one spilled run back, one string ahead.
+     */
+    private static final class RunReader {
+        final Path path;
+        final DataInputStream in;
+        String head;
+
+        RunReader(Path path) throws IOException {
+            this.path = path;
+            this.in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(path, StandardOpenOption.DELETE_ON_CLOSE), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+            byte[] bytes = new byte[length << 1];
+            in.readFully(bytes);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) ((bytes[i << 1] & 0xFF) << 8 | (bytes[(i << 1) + 1] & 0xFF));
+            }
+            head = new String(chars);
+            return true;
+        }
+    }
+
+    /**
+     * Merges the sorted runs with a heap of their heads, skipping strings equal to the last one emitted.
+     */
+    private static final class KWayMerge extends Spliterators.AbstractSpliterator<String> {
+        private final List<Path> runs;
+        private final PriorityQueue<RunReader> heap;
+        private String last;
+
+        KWayMerge(List<Path> runs) {
+            super(Long.MAX_VALUE, ORDERED | SORTED | DISTINCT | NONNULL);
+            this.runs = runs;
+            this.heap = new PriorityQueue<>(runs.size(), Comparator.comparing((RunReader r) -> r.head));
+            try {
+                for (Path run : runs) {
+                    RunReader reader = new RunReader(run);
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    } else {
+                        reader.in.close();
+                        Files.deleteIfExists(run);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            try {
+                while (!heap.isEmpty()) {
+                    RunReader reader = heap.poll();
+                    String s = reader.head;
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    } else {
+                        reader.in.close();
+                        Files.deleteIfExists(reader.path);
+                    }
+                    if (!s.equals(last)) {
+                        last = s;
+                        action.accept(s);
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Comparator<? super String> getComparator() {
+            return null;
+        }
+
+        void close() {
+            for (RunReader reader : heap) {
+                try {
+                    reader.in.close();
+                } catch (IOException ignored) {
+                    // the file is deleted below
+                }
+            }
+            heap.clear();
+            delete(runs);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.ingvarc.jdk8.stats;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Count, mean, variance, min and max and optionally approximate quantiles of doubles, in a single pass.
+ * <p>
+ * Unlike {@code DoubleSummaryStatistics}, which only sums the values, the mean and the variance are updated with
+ * Welford's algorithm, which stays accurate where a sum of squares would cancel out, and two statistics of separate
+ * parts are combined with the pairwise formula of Chan et al., so a parallel stream gives the same result up to
+ * rounding:
+ * <pre>
+ * DoubleStatistics statistics = RandomStreams.doubles(1_000_000).parallel()
+ *         .collect(() -&gt; new DoubleStatistics(100), DoubleStatistics::accept, DoubleStatistics::combine);
+ * </pre>
+ * Quantiles are only tracked when a compression is given, in a {@link QuantileDigest}.
+ * <p>
+ * This class is not thread-safe; collect into one instance per thread and combine them.
+ */
+public class DoubleStatistics implements DoubleConsumer {
+
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final QuantileDigest quantiles;
+
+    /**
+     * Creates statistics without quantiles.
+     */
+    public DoubleStatistics() {
+        this.quantiles = null;
+    }
+
+    /**
+     * Creates statistics tracking quantiles with the given compression of the digest.
+     */
+    public DoubleStatistics(int compression) {
+        this.quantiles = new QuantileDigest(compression);
+    }
+
+    /**
+     * The statistics of the stream without quantiles, collected in parallel if the stream is parallel.
+     */
+    public static DoubleStatistics of(DoubleStream stream) {
+        return stream.collect(DoubleStatistics::new, DoubleStatistics::accept, DoubleStatistics::combine);
+    }
+
+    @Override
+    public void accept(double value) {
+        count++;
+        double deviation = value - mean;
+        mean += deviation / count;
+        squaredDeviations += deviation * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (quantiles != null) {
+            quantiles.accept(value);
+        }
+    }
+
+    /**
+     * Adds the values of the other statistics to these.
+     *
+     * @throws IllegalArgumentException if only one of them tracks quantiles
+     */
+    public void combine(DoubleStatistics other) {
+        if ((quantiles == null) != (other.quantiles == null)) {
+            throw new IllegalArgumentException("Cannot combine statistics with and without quantiles");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double deviation = other.mean - mean;
+        mean += deviation * other.count / total;
+        squaredDeviations += other.squaredDeviations + deviation * deviation * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (quantiles != null) {
+            quantiles.combine(other.quantiles);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The mean, or zero if there are no values, as in {@code DoubleSummaryStatistics}.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * The population variance, or zero if there are no values.
+     */
+    public double getVariance() {
+        return count == 0 ? 0 : squaredDeviations / count;
+    }
+
+    /**
+     * The sample variance, with Bessel's correction, or zero if there are fewer than two values.
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0 : squaredDeviations / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * The minimum, or {@code Double.POSITIVE_INFINITY} if there are no values.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * The maximum, or {@code Double.NEGATIVE_INFINITY} if there are no values.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * The approximate quantile, e.g. 0.5 for the median.
+     *
+     * @throws IllegalStateException if quantiles are not tracked
+     * @see QuantileDigest#quantile(double)
+     */
+    public double getQuantile(double q) {
+        if (quantiles == null) {
+            throw new IllegalStateException("Quantiles are not tracked");
+        }
+        return quantiles.quantile(q);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, mean=%f, variance=%f, min=%f, max=%f}",
+                getClass().getSimpleName(), count, mean, getVariance(), min, max);
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.ingvarc.jdk8.stats;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Approximate quantiles of a stream of doubles in bounded memory, a merging t-digest.
+ * <p>
+ * The values are summarized by centroids, a mean and a weight each, sorted by mean. A centroid may only hold as many
+ * values as the arcsine scale function allows at its position, so centroids near the tails stay small and the extreme
+ * quantiles stay accurate, while the middle is summarized coarsely. The compression bounds the number of centroids
+ * to about {@code compression / 2}, and the error of a quantile {@code q} is roughly proportional to
+ * {@code q (1 - q) / compression}.
+ * <p>
+ * New values are only appended to a buffer; when it is full they are sorted and merged with the centroids in one pass,
+ * so adding a value costs an amortized sort step. Two digests combine by merging their centroids the same way, which
+ * makes the digest usable as the container of a parallel {@code collect}. {@code NaN} values are ignored.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class QuantileDigest implements DoubleConsumer {
+
+    private final double compression;
+    private final double[] buffer;
+    private final double[] unitWeights;
+    private int buffered;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double[] mergedMeans;
+    private double[] mergedWeights;
+
+    /**
+     * @param compression the accuracy of the digest, 100 is usual; it keeps about {@code compression / 2} centroids
+     */
+    public QuantileDigest(int compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Illegal compression: " + compression);
+        }
+        this.compression = compression;
+        this.buffer = new double[compression * 5];
+        this.unitWeights = new double[buffer.length];
+        Arrays.fill(unitWeights, 1);
+        this.means = new double[compression];
+        this.weights = new double[compression];
+    }
+
+    @Override
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (buffered == buffer.length) {
+            flush();
+        }
+        buffer[buffered++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values summarized by the other digest to this one.
+     */
+    public void combine(QuantileDigest other) {
+        if (other.count == 0) {
+            return;
+        }
+        other.flush();
+        flush();
+        merge(other.means, other.weights, other.centroids);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The approximate value below which the fraction {@code q} of the values lies, interpolated between the
+     * centroids, or {@code NaN} if there are no values.
+     *
+     * @throws IllegalArgumentException if {@code q} is not in {@code [0, 1]}
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Illegal quantile: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        flush();
+        double index = q * count;
+        double firstHalf = weights[0] / 2;
+        if (index <= firstHalf) {
+            return firstHalf <= 0.5 ? means[0] : min + (means[0] - min) * index / firstHalf;
+        }
+        double cumulative = firstHalf;
+        for (int i = 0; i < centroids - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        int last = centroids - 1;
+        double lastHalf = weights[last] / 2;
+        if (lastHalf <= 0.5) {
+            return means[last];
+        }
+        return Math.min(max, means[last] + (max - means[last]) * (index - cumulative) / lastHalf);
+    }
+
+    /**
+     * The number of centroids after merging the buffered values.
+     */
+    public int size() {
+        flush();
+        return centroids;
+    }
+
+    private void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+        int n = buffered;
+        buffered = 0;
+        merge(buffer, unitWeights, n);
+    }
+
+    /**
+     * Merges sorted weighted points with the centroids and compresses the result in one pass.
+     */
+    private void merge(double[] otherMeans, double[] otherWeights, int otherCount) {
+        int total = centroids + otherCount;
+        if (mergedMeans == null || mergedMeans.length < total) {
+            mergedMeans = new double[total];
+            mergedWeights = new double[total];
+        }
+        double totalWeight = 0;
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j == otherCount || i < centroids && means[i] <= otherMeans[j]) {
+                mergedMeans[k] = means[i];
+                mergedWeights[k] = weights[i++];
+            } else {
+                mergedMeans[k] = otherMeans[j];
+                mergedWeights[k] = otherWeights[j++];
+            }
+            totalWeight += mergedWeights[k];
+        }
+
+        int size = 0;
+        double mean = mergedMeans[0];
+        double weight = mergedWeights[0];
+        double weightSoFar = 0;
+        double limit = totalWeight * quantileOf(scaleOf(0) + 1);
+        for (int k = 1; k < total; k++) {
+            double next = mergedWeights[k];
+            if (weightSoFar + weight + next <= limit) {
+                weight += next;
+                mean += (mergedMeans[k] - mean) * next / weight;
+            } else {
+                size = emit(size, mean, weight);
+                weightSoFar += weight;
+                limit = totalWeight * quantileOf(scaleOf(weightSoFar / totalWeight) + 1);
+                mean = mergedMeans[k];
+                weight = next;
+            }
+        }
+        centroids = emit(size, mean, weight);
+    }
+
+    private int emit(int size, double mean, double weight) {
+        if (size == means.length) {
+            means = Arrays.copyOf(means, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        means[size] = mean;
+        weights[size] = weight;
+        return size + 1;
+    }
+
+    /**
+     * The arcsine scale function, mapping a quantile to a scale in which every centroid may span at most one unit.
+     */
+    private double scaleOf(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, q) - 1);
+    }
+
+    private double quantileOf(double k) {
+        return (Math.sin(Math.min(k * 2 * Math.PI / compression, Math.PI / 2)) + 1) / 2;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.ingvarc.jdk8.stats;
+
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
+
+/**
+ * Streams of random numbers that scale with parallel streams, unlike {@code DoubleStream.generate(Math::random)}.
+ * <p>
+ * {@code Math.random()} draws from one {@code Random} shared by all threads, whose seed is updated by compare-and-set
+ * on every call, and {@code generate(...).limit(n)} is neither sized nor evenly splittable. The streams here are
+ * sized and backed by {@link SplittableRandom}: splitting the stream splits the generator, so every task of a
+ * parallel stream draws from a generator of its own without any shared state.
+ * <p>
+ * Each stream gets a generator split from a shared root, so no two streams repeat each other. With a seed a
+ * sequential stream is reproducible; a parallel one also depends on how it is split, that is on the parallelism of
+ * the pool running it.
+ */
+public final class RandomStreams {
+
+    private static final SplittableRandom ROOT = new SplittableRandom();
+
+    private RandomStreams() {
+    }
+
+    /**
+     * A stream of {@code count} doubles uniformly distributed in {@code [0, 1)}, like {@code Math.random()}.
+     */
+    public static DoubleStream doubles(long count) {
+        return generator().doubles(count);
+    }
+
+    public static DoubleStream doubles(long count, long seed) {
+        return new SplittableRandom(seed).doubles(count);
+    }
+
+    /**
+     * A generator for the calling thread to use on its own, independent of all other generators handed out.
+     */
+    public static SplittableRandom generator() {
+        synchronized (ROOT) {
+            return ROOT.split();
+        }
+    }
+}
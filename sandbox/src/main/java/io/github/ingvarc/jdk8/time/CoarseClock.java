@@ -0,0 +1,155 @@
+package io.github.ingvarc.jdk8.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Clock} whose time is refreshed by a background ticker instead of being read from the system on every call.
+ * <p>
+ * {@code Instant.now()} and {@code LocalTime.now(ZoneId.of(...))} read the system clock and resolve the zone each time.
+ * This clock resolves its zone once and reads the time from a volatile field which a daemon thread updates
+ * at the given resolution, so {@link #epochMillis()} and {@link #epochNanos()} cost a single volatile read
+ * no matter how many threads call them. The price is that the time is only accurate to the resolution.
+ * <pre>
+ * try (CoarseClock clock = CoarseClock.start(Duration.ofMillis(1), ZoneId.of("Asia/Tokyo"))) {
+ *     LocalTime.now(clock);   // the time in Tokyo, at most a millisecond old
+ *     clock.epochMillis();
+ * }
+ * </pre>
+ * Closing the clock stops the ticker, after which the time no longer advances.
+ */
+public class CoarseClock extends Clock implements AutoCloseable {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    private CoarseClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    /**
+     * Starts a clock in UTC.
+     */
+    public static CoarseClock start(Duration resolution) {
+        return start(resolution, ZoneId.of("Z"));
+    }
+
+    /**
+     * Starts a clock in the given zone, with its own ticker updating the time every {@code resolution}.
+     */
+    public static CoarseClock start(Duration resolution, ZoneId zone) {
+        Objects.requireNonNull(zone, "zone");
+        long nanos = resolution.toNanos();
+        if (nanos <= 0) {
+            throw new IllegalArgumentException("Illegal resolution: " + resolution);
+        }
+        return new CoarseClock(new Ticker(nanos), zone);
+    }
+
+    /**
+     * The current time in milliseconds since the epoch, as of the last tick.
+     */
+    public long epochMillis() {
+        return Math.floorDiv(ticker.epochNanos, 1_000_000);
+    }
+
+    /**
+     * The current time in nanoseconds since the epoch, as of the last tick.
+     * The value fits into a {@code long} until the year 2262.
+     */
+    public long epochNanos() {
+        return ticker.epochNanos;
+    }
+
+    public Duration getResolution() {
+        return Duration.ofNanos(ticker.resolutionNanos);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Returns a clock in another zone sharing this clock's ticker.
+     */
+    @Override
+    public CoarseClock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CoarseClock(ticker, zone);
+    }
+
+    @Override
+    public long millis() {
+        return epochMillis();
+    }
+
+    @Override
+    public Instant instant() {
+        long nanos = ticker.epochNanos;
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * Stops the ticker shared by this clock and all clocks derived from it with {@link #withZone}.
+     */
+    @Override
+    public void close() {
+        ticker.executor.shutdownNow();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof CoarseClock)) {
+            return false;
+        }
+        CoarseClock other = (CoarseClock) obj;
+        return ticker == other.ticker && zone.equals(other.zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(ticker) ^ zone.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseClock[" + zone + ", " + getResolution() + "]";
+    }
+
+    /**
+     * The daemon thread publishing the system time.
+     */
+    private static final class Ticker implements Runnable {
+        private final Clock source = Clock.systemUTC();
+        private final long resolutionNanos;
+        private final ScheduledExecutorService executor;
+
+        private volatile long epochNanos;
+
+        Ticker(long resolutionNanos) {
+            this.resolutionNanos = resolutionNanos;
+            run();
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "coarse-clock-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(this, resolutionNanos, resolutionNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            Instant now = source.instant();
+            epochNanos = now.getEpochSecond() * NANOS_PER_SECOND + now.getNano();
+        }
+    }
+}
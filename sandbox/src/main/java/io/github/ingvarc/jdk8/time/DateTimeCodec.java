@@ -0,0 +1,443 @@
+package io.github.ingvarc.jdk8.time;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQuery;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Formatting and parsing of dates without rebuilding a {@link DateTimeFormatter} on every call.
+ * <p>
+ * {@code DateTimeFormatter.ofPattern} parses the pattern and builds a new formatter each time it is called.
+ * Formatters are immutable and thread-safe, so this codec compiles each (pattern, locale, zone) combination once
+ * and keeps it in a bounded concurrent cache. Once the cache is full an arbitrary entry is evicted for each new one.
+ * <p>
+ * The static methods are fast paths for {@link DateTimeFormatter#BASIC_ISO_DATE},
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE} and {@link DateTimeFormatter#ISO_INSTANT}, writing into a caller-supplied
+ * {@code char[]} or {@link StringBuilder} and parsing into primitive epoch values without allocating.
+ * They produce exactly what the formatters do for years 0 to 9999 and delegate to the formatters otherwise.
+ */
+public class DateTimeCodec {
+
+    public static final int BASIC_ISO_DATE_LENGTH = 8;
+    public static final int ISO_LOCAL_DATE_LENGTH = 10;
+    /**
+     * The longest ISO instant within years 0 to 9999, e.g. {@code 2018-05-26T10:30:00.123456789Z}.
+     */
+    public static final int MAX_ISO_INSTANT_LENGTH = 30;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final ConcurrentMap<Key, DateTimeFormatter> formatters = new ConcurrentHashMap<>();
+    private final int maxFormatters;
+
+    public DateTimeCodec() {
+        this(256);
+    }
+
+    /**
+     * @param maxFormatters the number of compiled formatters kept in the cache
+     */
+    public DateTimeCodec(int maxFormatters) {
+        if (maxFormatters <= 0) {
+            throw new IllegalArgumentException("Illegal cache size: " + maxFormatters);
+        }
+        this.maxFormatters = maxFormatters;
+    }
+
+    /**
+     * The cached equivalent of {@code DateTimeFormatter.ofPattern(pattern)}.
+     */
+    public DateTimeFormatter formatter(String pattern) {
+        return formatter(pattern, Locale.getDefault(Locale.Category.FORMAT), null);
+    }
+
+    /**
+     * The cached equivalent of {@code DateTimeFormatter.ofPattern(pattern, locale)}.
+     */
+    public DateTimeFormatter formatter(String pattern, Locale locale) {
+        return formatter(pattern, locale, null);
+    }
+
+    /**
+     * The cached equivalent of {@code DateTimeFormatter.ofPattern(pattern, locale).withZone(zone)}.
+     *
+     * @param zone the override zone, or null for none
+     */
+    public DateTimeFormatter formatter(String pattern, Locale locale, ZoneId zone) {
+        Key key = new Key(pattern, locale, zone);
+        DateTimeFormatter formatter = formatters.get(key);
+        if (formatter != null) {
+            return formatter;
+        }
+        formatter = DateTimeFormatter.ofPattern(pattern, locale).withZone(zone);
+        evictIfFull();
+        DateTimeFormatter existing = formatters.putIfAbsent(key, formatter);
+        return existing != null ? existing : formatter;
+    }
+
+    public String format(TemporalAccessor temporal, String pattern) {
+        return formatter(pattern).format(temporal);
+    }
+
+    public String format(TemporalAccessor temporal, String pattern, Locale locale) {
+        return formatter(pattern, locale).format(temporal);
+    }
+
+    public <T> T parse(CharSequence text, String pattern, TemporalQuery<T> query) {
+        return formatter(pattern).parse(text, query);
+    }
+
+    public <T> T parse(CharSequence text, String pattern, Locale locale, TemporalQuery<T> query) {
+        return formatter(pattern, locale).parse(text, query);
+    }
+
+    /**
+     * The number of formatters currently cached.
+     */
+    public int size() {
+        return formatters.size();
+    }
+
+    private void evictIfFull() {
+        Iterator<Key> keys = formatters.keySet().iterator();
+        while (formatters.size() >= maxFormatters && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Writes the date like {@link DateTimeFormatter#BASIC_ISO_DATE}, e.g. {@code 20180525}.
+     *
+     * @return the offset after the last char written
+     */
+    public static int formatBasicIsoDate(LocalDate date, char[] buffer, int offset) {
+        if (!fastPath(date.getYear())) {
+            return copy(DateTimeFormatter.BASIC_ISO_DATE.format(date), buffer, offset);
+        }
+        offset = write4(date.getYear(), buffer, offset);
+        offset = write2(date.getMonthValue(), buffer, offset);
+        return write2(date.getDayOfMonth(), buffer, offset);
+    }
+
+    public static StringBuilder formatBasicIsoDate(LocalDate date, StringBuilder builder) {
+        if (!fastPath(date.getYear())) {
+            return builder.append(DateTimeFormatter.BASIC_ISO_DATE.format(date));
+        }
+        append4(date.getYear(), builder);
+        append2(date.getMonthValue(), builder);
+        return append2(date.getDayOfMonth(), builder);
+    }
+
+    /**
+     * Writes the date like {@link DateTimeFormatter#ISO_LOCAL_DATE}, e.g. {@code 2018-05-25}.
+     *
+     * @return the offset after the last char written
+     */
+    public static int formatIsoLocalDate(LocalDate date, char[] buffer, int offset) {
+        if (!fastPath(date.getYear())) {
+            return copy(DateTimeFormatter.ISO_LOCAL_DATE.format(date), buffer, offset);
+        }
+        offset = write4(date.getYear(), buffer, offset);
+        buffer[offset++] = '-';
+        offset = write2(date.getMonthValue(), buffer, offset);
+        buffer[offset++] = '-';
+        return write2(date.getDayOfMonth(), buffer, offset);
+    }
+
+    public static StringBuilder formatIsoLocalDate(LocalDate date, StringBuilder builder) {
+        if (!fastPath(date.getYear())) {
+            return builder.append(DateTimeFormatter.ISO_LOCAL_DATE.format(date));
+        }
+        append4(date.getYear(), builder).append('-');
+        append2(date.getMonthValue(), builder).append('-');
+        return append2(date.getDayOfMonth(), builder);
+    }
+
+    /**
+     * Writes the instant like {@link DateTimeFormatter#ISO_INSTANT}, e.g. {@code 2018-05-26T10:30:00Z},
+     * with the fraction of second printed in groups of three digits as needed.
+     *
+     * @return the offset after the last char written
+     */
+    public static int formatIsoInstant(long epochSecond, int nano, char[] buffer, int offset) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        long civil = EpochDays.civilFromDays(epochDay);
+        int year = (int) (civil >> 9);
+        if (!fastPath(year)) {
+            return copy(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochSecond(epochSecond, nano)), buffer, offset);
+        }
+        offset = write4(year, buffer, offset);
+        buffer[offset++] = '-';
+        offset = write2((int) (civil >> 5) & 0xF, buffer, offset);
+        buffer[offset++] = '-';
+        offset = write2((int) civil & 0x1F, buffer, offset);
+        buffer[offset++] = 'T';
+        offset = write2(secondOfDay / 3600, buffer, offset);
+        buffer[offset++] = ':';
+        offset = write2(secondOfDay / 60 % 60, buffer, offset);
+        buffer[offset++] = ':';
+        offset = write2(secondOfDay % 60, buffer, offset);
+        if (nano > 0) {
+            buffer[offset++] = '.';
+            int digits = fractionDigits(nano);
+            int value = fractionValue(nano, digits);
+            for (int i = offset + digits - 1; i >= offset; i--) {
+                buffer[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            offset += digits;
+        }
+        buffer[offset++] = 'Z';
+        return offset;
+    }
+
+    public static int formatIsoInstant(Instant instant, char[] buffer, int offset) {
+        return formatIsoInstant(instant.getEpochSecond(), instant.getNano(), buffer, offset);
+    }
+
+    public static StringBuilder formatIsoInstant(Instant instant, StringBuilder builder) {
+        long epochSecond = instant.getEpochSecond();
+        int nano = instant.getNano();
+        long civil = EpochDays.civilFromDays(Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+        int year = (int) (civil >> 9);
+        if (!fastPath(year)) {
+            return builder.append(DateTimeFormatter.ISO_INSTANT.format(instant));
+        }
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        append4(year, builder).append('-');
+        append2((int) (civil >> 5) & 0xF, builder).append('-');
+        append2((int) civil & 0x1F, builder).append('T');
+        append2(secondOfDay / 3600, builder).append(':');
+        append2(secondOfDay / 60 % 60, builder).append(':');
+        append2(secondOfDay % 60, builder);
+        if (nano > 0) {
+            builder.append('.');
+            int digits = fractionDigits(nano);
+            int value = fractionValue(nano, digits);
+            for (int divisor = digits == 3 ? 100 : digits == 6 ? 100_000 : 100_000_000; divisor > 0; divisor /= 10) {
+                builder.append((char) ('0' + value / divisor % 10));
+            }
+        }
+        return builder.append('Z');
+    }
+
+    /**
+     * Parses an {@link DateTimeFormatter#ISO_LOCAL_DATE} like {@code 2018-05-25} at the offset.
+     *
+     * @return the parsed date as epoch day
+     * @throws DateTimeParseException if the text is not a valid date in years 0 to 9999
+     */
+    public static long parseIsoLocalDate(CharSequence text, int offset) {
+        long epochDay = parseIsoLocalDateOrMin(text, offset);
+        if (epochDay == Long.MIN_VALUE) {
+            throw parseError(text, offset);
+        }
+        return epochDay;
+    }
+
+    /**
+     * Like {@link #parseIsoLocalDate} but returns {@link Long#MIN_VALUE} for malformed text instead of throwing.
+     */
+    public static long parseIsoLocalDateOrMin(CharSequence text, int offset) {
+        if (text.length() - offset < ISO_LOCAL_DATE_LENGTH
+                || text.charAt(offset + 4) != '-' || text.charAt(offset + 7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        if (year < 0 || !validDate(year, month, day)) {
+            return Long.MIN_VALUE;
+        }
+        return EpochDays.daysFromCivil(year, month, day);
+    }
+
+    /**
+     * Parses a {@link DateTimeFormatter#BASIC_ISO_DATE} without offset like {@code 20180525} at the offset.
+     *
+     * @return the parsed date as epoch day
+     * @throws DateTimeParseException if the text is not a valid date
+     */
+    public static long parseBasicIsoDate(CharSequence text, int offset) {
+        if (text.length() - offset < BASIC_ISO_DATE_LENGTH) {
+            throw parseError(text, offset);
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 4, 2);
+        int day = digits(text, offset + 6, 2);
+        if (year < 0 || !validDate(year, month, day)) {
+            throw parseError(text, offset);
+        }
+        return EpochDays.daysFromCivil(year, month, day);
+    }
+
+    /**
+     * Parses an UTC {@link DateTimeFormatter#ISO_INSTANT} like {@code 2018-05-26T10:30:00Z} or
+     * {@code 2018-05-26T10:30:00.123Z} spanning {@code [from, to)}.
+     * Digits of the fraction beyond milliseconds are truncated.
+     *
+     * @return the parsed instant as epoch millis
+     * @throws DateTimeParseException if the text is not such an instant in years 0 to 9999
+     */
+    public static long parseIsoInstant(CharSequence text, int from, int to) {
+        long millis = parseIsoInstantOrMin(text, from, to);
+        if (millis == Long.MIN_VALUE) {
+            throw parseError(text, from);
+        }
+        return millis;
+    }
+
+    /**
+     * Like {@link #parseIsoInstant} but returns {@link Long#MIN_VALUE} for malformed text instead of throwing,
+     * for callers collecting malformed input rather than failing on it.
+     */
+    public static long parseIsoInstantOrMin(CharSequence text, int from, int to) {
+        if (to - from < 20 || to > text.length()
+                || text.charAt(from + 4) != '-' || text.charAt(from + 7) != '-' || text.charAt(from + 10) != 'T'
+                || text.charAt(from + 13) != ':' || text.charAt(from + 16) != ':' || text.charAt(to - 1) != 'Z') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(text, from, 4);
+        int month = digits(text, from + 5, 2);
+        int day = digits(text, from + 8, 2);
+        int hour = digits(text, from + 11, 2);
+        int minute = digits(text, from + 14, 2);
+        int second = digits(text, from + 17, 2);
+        if (year < 0 || !validDate(year, month, day)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        int millis = 0;
+        int position = from + 19;
+        if (position < to - 1) {
+            if (text.charAt(position) != '.' || to - 1 - (position + 1) < 1 || to - 1 - (position + 1) > 9) {
+                return Long.MIN_VALUE;
+            }
+            int fraction = 0;
+            for (int i = position + 1, digit = 0; i < to - 1; i++, digit++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return Long.MIN_VALUE;
+                }
+                if (digit < 3) {
+                    fraction = fraction * 10 + (c - '0');
+                }
+            }
+            int fractionDigits = Math.min(to - 1 - (position + 1), 3);
+            millis = fractionDigits == 1 ? fraction * 100 : fractionDigits == 2 ? fraction * 10 : fraction;
+        }
+        long epochSecond = EpochDays.daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        return epochSecond * 1000 + millis;
+    }
+
+    /**
+     * The number of fraction digits {@link DateTimeFormatter#ISO_INSTANT} prints: 3, 6 or 9.
+     */
+    private static int fractionDigits(int nano) {
+        return nano % 1000_000 == 0 ? 3 : nano % 1000 == 0 ? 6 : 9;
+    }
+
+    private static int fractionValue(int nano, int digits) {
+        return digits == 3 ? nano / 1000_000 : digits == 6 ? nano / 1000 : nano;
+    }
+
+    private static boolean fastPath(int year) {
+        return year >= 0 && year <= 9999;
+    }
+
+    private static boolean validDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        return day <= EpochDays.lengthOfMonth(year, month);
+    }
+
+    /**
+     * Parses a fixed number of digits, returning -1 if any of them is not a digit.
+     */
+    private static int digits(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int write4(int value, char[] buffer, int offset) {
+        buffer[offset] = (char) ('0' + value / 1000);
+        buffer[offset + 1] = (char) ('0' + value / 100 % 10);
+        buffer[offset + 2] = (char) ('0' + value / 10 % 10);
+        buffer[offset + 3] = (char) ('0' + value % 10);
+        return offset + 4;
+    }
+
+    private static int write2(int value, char[] buffer, int offset) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+        return offset + 2;
+    }
+
+    private static StringBuilder append4(int value, StringBuilder builder) {
+        return builder.append((char) ('0' + value / 1000))
+                .append((char) ('0' + value / 100 % 10))
+                .append((char) ('0' + value / 10 % 10))
+                .append((char) ('0' + value % 10));
+    }
+
+    private static StringBuilder append2(int value, StringBuilder builder) {
+        return builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static int copy(String formatted, char[] buffer, int offset) {
+        formatted.getChars(0, formatted.length(), buffer, offset);
+        return offset + formatted.length();
+    }
+
+    private static DateTimeParseException parseError(CharSequence text, int offset) {
+        return new DateTimeParseException("Text '" + text + "' could not be parsed at index " + offset, text, offset);
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final Locale locale;
+        private final ZoneId zone;
+
+        Key(String pattern, Locale locale, ZoneId zone) {
+            this.pattern = Objects.requireNonNull(pattern, "pattern");
+            this.locale = Objects.requireNonNull(locale, "locale");
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return pattern.equals(key.pattern) && locale.equals(key.locale) && Objects.equals(zone, key.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * pattern.hashCode() + locale.hashCode()) + Objects.hashCode(zone);
+        }
+    }
+}
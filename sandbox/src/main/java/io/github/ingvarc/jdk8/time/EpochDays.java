@@ -0,0 +1,347 @@
+package io.github.ingvarc.jdk8.time;
+
+import java.time.DayOfWeek;
+
+/**
+ * Date arithmetic on {@code int} epoch days, the primitive counterpart of the {@code LocalDate}, {@code Period}
+ * and {@code TemporalAdjusters} operations in {@code DateTimeAPI}.
+ * <p>
+ * Every method gives the same result as the {@code java.time} call it mirrors, e.g.
+ * {@code plusMonths(d, 1) == (int) LocalDate.ofEpochDay(d).plusMonths(1).toEpochDay()},
+ * without allocating a {@code LocalDate} per step. The array variants apply an operation to a whole column of dates
+ * in a plain counted loop the JIT can unroll and, for the purely additive ones, vectorize.
+ * <p>
+ * A {@link #between period} is packed into a {@code long}, see {@link #periodYears}, {@link #periodMonths}
+ * and {@link #periodDays}.
+ */
+public final class EpochDays {
+
+    private static final int DAYS_PER_CYCLE = 146097;
+    /**
+     * The epoch day of March 1 of the year 0, where the computational calendar of the conversions starts.
+     */
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    /**
+     * The number of 400-year cycles the fast paths shift the calendar by, covering every {@code int} epoch day.
+     */
+    private static final long SHIFT_CYCLES = 14700;
+    private static final long SHIFT_YEARS = 400 * SHIFT_CYCLES;
+    private static final long SHIFT_DAYS = DAYS_0000_TO_1970 + DAYS_PER_CYCLE * SHIFT_CYCLES;
+    private static final long MIN_FAST_YEAR = -SHIFT_YEARS + 1;
+    private static final long MAX_FAST_YEAR = SHIFT_YEARS;
+    private static final long MIN_FAST_EPOCH_DAY = -SHIFT_DAYS + DAYS_PER_CYCLE;
+    private static final long MAX_FAST_EPOCH_DAY = SHIFT_DAYS;
+
+    private EpochDays() {
+    }
+
+    /**
+     * The epoch day of the date, like {@code LocalDate.of(year, month, day).toEpochDay()} but without validation.
+     */
+    public static int of(int year, int month, int day) {
+        return Math.toIntExact(daysFromCivil(year, month, day));
+    }
+
+    public static int year(int epochDay) {
+        return (int) (civilFromDays(epochDay) >> 9);
+    }
+
+    public static int month(int epochDay) {
+        return (int) (civilFromDays(epochDay) >> 5) & 0xF;
+    }
+
+    public static int dayOfMonth(int epochDay) {
+        return (int) civilFromDays(epochDay) & 0x1F;
+    }
+
+    /**
+     * The ISO day of week, from 1 (Monday) to 7 (Sunday).
+     */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 3L, 7) + 1;
+    }
+
+    public static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static boolean isLeapYearOfEpochDay(int epochDay) {
+        return isLeapYear(year(epochDay));
+    }
+
+    public static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    public static int lengthOfYear(long year) {
+        return isLeapYear(year) ? 366 : 365;
+    }
+
+    public static int plusDays(int epochDay, int days) {
+        return Math.addExact(epochDay, days);
+    }
+
+    public static int plusWeeks(int epochDay, int weeks) {
+        return Math.addExact(epochDay, Math.multiplyExact(weeks, 7));
+    }
+
+    /**
+     * Like {@code LocalDate.plusMonths}, clamping the day to the length of the resulting month.
+     */
+    public static int plusMonths(int epochDay, int months) {
+        long civil = civilFromDays(epochDay);
+        long prolepticMonth = (civil >> 9) * 12 + ((civil >> 5) & 0xF) - 1 + months;
+        long year = Math.floorDiv(prolepticMonth, 12);
+        int month = Math.floorMod(prolepticMonth, 12) + 1;
+        int day = Math.min((int) civil & 0x1F, lengthOfMonth(year, month));
+        return Math.toIntExact(daysFromCivil(year, month, day));
+    }
+
+    /**
+     * Like {@code LocalDate.plusYears}, turning February 29 into February 28 in non-leap years.
+     */
+    public static int plusYears(int epochDay, int years) {
+        return plusMonths(epochDay, Math.multiplyExact(years, 12));
+    }
+
+    /**
+     * Like {@code LocalDate.plus(Period.of(years, months, days))}.
+     */
+    public static int plus(int epochDay, int years, int months, int days) {
+        return plusDays(plusMonths(epochDay, Math.addExact(Math.multiplyExact(years, 12), months)), days);
+    }
+
+    /**
+     * Like {@code LocalDate.plus(Period)} with a period packed by {@link #between}.
+     */
+    public static int plusPeriod(int epochDay, long period) {
+        return plusDays(plusMonths(epochDay, (int) (period >> 32)), (int) period);
+    }
+
+    /**
+     * The period between two dates like {@code Period.between}, packed as total months in the high
+     * and days in the low 32 bits.
+     */
+    public static long between(int startEpochDay, int endEpochDay) {
+        long start = civilFromDays(startEpochDay);
+        long end = civilFromDays(endEpochDay);
+        long startYear = start >> 9;
+        long endYear = end >> 9;
+        int endMonth = (int) (end >> 5) & 0xF;
+        long totalMonths = (endYear * 12 + endMonth) - (startYear * 12 + ((start >> 5) & 0xF));
+        int days = (int) (end & 0x1F) - (int) (start & 0x1F);
+        if (totalMonths > 0 && days < 0) {
+            totalMonths--;
+            days = endEpochDay - plusMonths(startEpochDay, (int) totalMonths);
+        } else if (totalMonths < 0 && days > 0) {
+            totalMonths++;
+            days -= lengthOfMonth(endYear, endMonth);
+        }
+        return totalMonths << 32 | (days & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The years of a period packed by {@link #between}, like {@code Period.getYears}.
+     */
+    public static int periodYears(long period) {
+        return (int) (period >> 32) / 12;
+    }
+
+    /**
+     * The months of a period packed by {@link #between}, like {@code Period.getMonths}.
+     */
+    public static int periodMonths(long period) {
+        return (int) (period >> 32) % 12;
+    }
+
+    /**
+     * The days of a period packed by {@link #between}, like {@code Period.getDays}.
+     */
+    public static int periodDays(long period) {
+        return (int) period;
+    }
+
+    public static int periodTotalMonths(long period) {
+        return (int) (period >> 32);
+    }
+
+    public static int firstDayOfMonth(int epochDay) {
+        return Math.subtractExact(epochDay, dayOfMonth(epochDay) - 1);
+    }
+
+    public static int lastDayOfMonth(int epochDay) {
+        long civil = civilFromDays(epochDay);
+        return Math.addExact(epochDay, lengthOfMonth(civil >> 9, (int) (civil >> 5) & 0xF) - ((int) civil & 0x1F));
+    }
+
+    public static int firstDayOfNextMonth(int epochDay) {
+        return Math.addExact(lastDayOfMonth(epochDay), 1);
+    }
+
+    public static int firstDayOfYear(int epochDay) {
+        return Math.toIntExact(daysFromCivil(year(epochDay), 1, 1));
+    }
+
+    public static int lastDayOfYear(int epochDay) {
+        return Math.toIntExact(daysFromCivil(year(epochDay), 12, 31));
+    }
+
+    /**
+     * Like {@code TemporalAdjusters.next}: the first day strictly after the date falling on the day of week.
+     */
+    public static int next(int epochDay, DayOfWeek dayOfWeek) {
+        int days = dayOfWeek.getValue() - dayOfWeek(epochDay);
+        return Math.addExact(epochDay, days <= 0 ? days + 7 : days);
+    }
+
+    /**
+     * Like {@code TemporalAdjusters.nextOrSame}.
+     */
+    public static int nextOrSame(int epochDay, DayOfWeek dayOfWeek) {
+        int days = dayOfWeek.getValue() - dayOfWeek(epochDay);
+        return Math.addExact(epochDay, days < 0 ? days + 7 : days);
+    }
+
+    /**
+     * Like {@code TemporalAdjusters.previous}.
+     */
+    public static int previous(int epochDay, DayOfWeek dayOfWeek) {
+        int days = dayOfWeek(epochDay) - dayOfWeek.getValue();
+        return Math.subtractExact(epochDay, days <= 0 ? days + 7 : days);
+    }
+
+    /**
+     * The bulk {@link #plusDays(int, int)}, which wraps around on overflow instead of throwing, so that the loop
+     * stays vectorizable.
+     */
+    public static void plusDays(int[] epochDays, int days, int[] result) {
+        for (int i = 0; i < epochDays.length; i++) {
+            result[i] = epochDays[i] + days;
+        }
+    }
+
+    public static void plusMonths(int[] epochDays, int months, int[] result) {
+        for (int i = 0; i < epochDays.length; i++) {
+            result[i] = plusMonths(epochDays[i], months);
+        }
+    }
+
+    public static void plusYears(int[] epochDays, int years, int[] result) {
+        plusMonths(epochDays, Math.multiplyExact(years, 12), result);
+    }
+
+    public static void between(int[] startEpochDays, int[] endEpochDays, long[] result) {
+        for (int i = 0; i < startEpochDays.length; i++) {
+            result[i] = between(startEpochDays[i], endEpochDays[i]);
+        }
+    }
+
+    public static void firstDayOfMonth(int[] epochDays, int[] result) {
+        for (int i = 0; i < epochDays.length; i++) {
+            result[i] = firstDayOfMonth(epochDays[i]);
+        }
+    }
+
+    public static void lastDayOfMonth(int[] epochDays, int[] result) {
+        for (int i = 0; i < epochDays.length; i++) {
+            result[i] = lastDayOfMonth(epochDays[i]);
+        }
+    }
+
+    /**
+     * The bulk {@link #next(int, DayOfWeek)}, which wraps around on overflow like the bulk {@code plusDays}.
+     */
+    public static void next(int[] epochDays, DayOfWeek dayOfWeek, int[] result) {
+        int target = dayOfWeek.getValue();
+        for (int i = 0; i < epochDays.length; i++) {
+            int days = target - dayOfWeek(epochDays[i]);
+            result[i] = epochDays[i] + (days <= 0 ? days + 7 : days);
+        }
+    }
+
+    public static void dayOfWeek(int[] epochDays, int[] result) {
+        for (int i = 0; i < epochDays.length; i++) {
+            result[i] = dayOfWeek(epochDays[i]);
+        }
+    }
+
+    /**
+     * The epoch day of a proleptic Gregorian date.
+     * <p>
+     * Uses the multiply-and-shift algorithm of Neri and Schneider ("Euclidean affine functions and their application
+     * to calendar algorithms", 2022) on a calendar shifted by {@link #SHIFT_YEARS} so that all arithmetic is
+     * on non-negative numbers, and Howard Hinnant's {@code days_from_civil} for years outside of that range.
+     */
+    static long daysFromCivil(long year, int month, int day) {
+        if (year < MIN_FAST_YEAR || year > MAX_FAST_YEAR) {
+            return daysFromCivilSlow(year, month, day);
+        }
+        int beforeMarch = month <= 2 ? 1 : 0;
+        long shiftedYear = year + SHIFT_YEARS - beforeMarch;
+        int shiftedMonth = month + 12 * beforeMarch;
+        long century = shiftedYear / 100;
+        long yearDays = 1461 * shiftedYear / 4 - century + century / 4;
+        int monthDays = (979 * shiftedMonth - 2919) >>> 5;
+        return yearDays + monthDays + day - 1 - SHIFT_DAYS;
+    }
+
+    /**
+     * The date of an epoch day packed as {@code year << 9 | month << 5 | day}, see {@link #daysFromCivil}.
+     */
+    static long civilFromDays(long epochDay) {
+        if (epochDay < MIN_FAST_EPOCH_DAY || epochDay > MAX_FAST_EPOCH_DAY) {
+            return civilFromDaysSlow(epochDay);
+        }
+        long n = 4 * (epochDay + SHIFT_DAYS) + 3;
+        long century = n / DAYS_PER_CYCLE;
+        long dayOfCentury = 4 * ((n % DAYS_PER_CYCLE) >>> 2) + 3;
+        long p = 2939745L * dayOfCentury;
+        long yearOfCentury = p >>> 32;
+        int dayOfYear = (int) ((p & 0xFFFFFFFFL) / 2939745 / 4);
+        int m = 2141 * dayOfYear + 197913;
+        int month = m >>> 16;
+        int day = (m & 0xFFFF) / 2141 + 1;
+        int january = dayOfYear >= 306 ? 1 : 0;
+        long year = 100 * century + yearOfCentury - SHIFT_YEARS + january;
+        return year << 9 | (month - 12 * january) << 5 | day;
+    }
+
+    /**
+     * Howard Hinnant's {@code days_from_civil}.
+     */
+    private static long daysFromCivilSlow(long year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Howard Hinnant's {@code civil_from_days}.
+     */
+    private static long civilFromDaysSlow(long epochDay) {
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_PER_CYCLE);
+        long dayOfEra = z - era * DAYS_PER_CYCLE;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+}
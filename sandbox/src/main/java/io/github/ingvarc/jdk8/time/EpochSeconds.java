@@ -0,0 +1,89 @@
+package io.github.ingvarc.jdk8.time;
+
+/**
+ * Date and time arithmetic on {@code long} epoch seconds in UTC, the primitive counterpart of
+ * {@code Instant} and {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}.
+ * <p>
+ * Calendar-based operations split the seconds into an epoch day and a second of day and delegate to {@link EpochDays},
+ * keeping the time of day, e.g. {@code plusMonths(s, 1)} equals
+ * {@code LocalDateTime.ofEpochSecond(s, 0, UTC).plusMonths(1).toEpochSecond(UTC)}.
+ */
+public final class EpochSeconds {
+
+    public static final int SECONDS_PER_MINUTE = 60;
+    public static final int SECONDS_PER_HOUR = 3600;
+    public static final int SECONDS_PER_DAY = 86_400;
+
+    private EpochSeconds() {
+    }
+
+    public static int epochDay(long epochSecond) {
+        return Math.toIntExact(Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+    }
+
+    public static int secondOfDay(long epochSecond) {
+        return Math.floorMod(epochSecond, SECONDS_PER_DAY);
+    }
+
+    public static long of(int epochDay, int secondOfDay) {
+        return (long) epochDay * SECONDS_PER_DAY + secondOfDay;
+    }
+
+    public static long plusMinutes(long epochSecond, long minutes) {
+        return Math.addExact(epochSecond, Math.multiplyExact(minutes, SECONDS_PER_MINUTE));
+    }
+
+    public static long plusHours(long epochSecond, long hours) {
+        return Math.addExact(epochSecond, Math.multiplyExact(hours, SECONDS_PER_HOUR));
+    }
+
+    public static long plusDays(long epochSecond, long days) {
+        return Math.addExact(epochSecond, Math.multiplyExact(days, SECONDS_PER_DAY));
+    }
+
+    public static long plusMonths(long epochSecond, int months) {
+        return of(EpochDays.plusMonths(epochDay(epochSecond), months), secondOfDay(epochSecond));
+    }
+
+    public static long plusYears(long epochSecond, int years) {
+        return of(EpochDays.plusYears(epochDay(epochSecond), years), secondOfDay(epochSecond));
+    }
+
+    /**
+     * Like {@code Duration.between(start, end).getSeconds()}.
+     */
+    public static long between(long startEpochSecond, long endEpochSecond) {
+        return Math.subtractExact(endEpochSecond, startEpochSecond);
+    }
+
+    /**
+     * Truncates to midnight, like {@code Instant.truncatedTo(ChronoUnit.DAYS)}.
+     */
+    public static long startOfDay(long epochSecond) {
+        return epochSecond - secondOfDay(epochSecond);
+    }
+
+    public static void plusSeconds(long[] epochSeconds, long seconds, long[] result) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            result[i] = epochSeconds[i] + seconds;
+        }
+    }
+
+    public static void plusMonths(long[] epochSeconds, int months, long[] result) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            result[i] = plusMonths(epochSeconds[i], months);
+        }
+    }
+
+    public static void startOfDay(long[] epochSeconds, long[] result) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            result[i] = startOfDay(epochSeconds[i]);
+        }
+    }
+
+    public static void epochDay(long[] epochSeconds, int[] result) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            result[i] = epochDay(epochSeconds[i]);
+        }
+    }
+}
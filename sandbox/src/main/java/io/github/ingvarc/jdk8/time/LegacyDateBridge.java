@@ -0,0 +1,142 @@
+package io.github.ingvarc.jdk8.time;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Conversions between the legacy {@link Date}, {@link Calendar} and {@link TimeZone} classes and {@code java.time}
+ * for boundaries (JDBC, old APIs) which do them millions of times.
+ * <p>
+ * {@code TimeZone.getTimeZone(zoneId)} looks the zone up and clones it on every call, and
+ * {@code GregorianCalendar.from(zonedDateTime)} builds a new calendar. This bridge instead
+ * <ul>
+ * <li>caches the {@link TimeZone} of each {@link ZoneId} and the {@link ZoneId} of each time-zone ID,</li>
+ * <li>hands out one reusable {@link GregorianCalendar} per thread, set to the requested zone and time,</li>
+ * <li>converts whole arrays of dates to and from epoch millis or instants.</li>
+ * </ul>
+ * The cached {@code TimeZone} instances and the thread-local calendars are shared, so callers must not modify
+ * a time zone and must not keep a calendar beyond the call it was obtained for.
+ */
+public final class LegacyDateBridge {
+
+    private static final ConcurrentMap<ZoneId, TimeZone> TIME_ZONES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ZoneId> ZONE_IDS = new ConcurrentHashMap<>();
+
+    /**
+     * Configured like {@link GregorianCalendar#from(ZonedDateTime)}: ISO week rules and a pure Gregorian calendar.
+     */
+    private static final ThreadLocal<GregorianCalendar> CALENDAR = ThreadLocal.withInitial(() -> {
+        GregorianCalendar calendar = new GregorianCalendar();
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.setFirstDayOfWeek(Calendar.MONDAY);
+        calendar.setMinimalDaysInFirstWeek(4);
+        return calendar;
+    });
+
+    private LegacyDateBridge() {
+    }
+
+    /**
+     * The cached equivalent of {@code TimeZone.getTimeZone(zone)}; the result must not be modified.
+     */
+    public static TimeZone timeZone(ZoneId zone) {
+        TimeZone timeZone = TIME_ZONES.get(zone);
+        return timeZone != null ? timeZone : TIME_ZONES.computeIfAbsent(zone, TimeZone::getTimeZone);
+    }
+
+    /**
+     * The cached equivalent of {@code timeZone.toZoneId()}, keyed by the time-zone ID.
+     */
+    public static ZoneId zoneId(TimeZone timeZone) {
+        String id = timeZone.getID();
+        ZoneId zone = ZONE_IDS.get(id);
+        return zone != null ? zone : ZONE_IDS.computeIfAbsent(id, key -> timeZone.toZoneId());
+    }
+
+    /**
+     * The calendar of the current thread set to the instant in the zone, replacing
+     * {@code GregorianCalendar.from(ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone))}.
+     * The calendar is reused by the next call on this thread.
+     */
+    public static GregorianCalendar calendar(long epochMilli, ZoneId zone) {
+        GregorianCalendar calendar = CALENDAR.get();
+        calendar.setTimeZone(timeZone(zone));
+        calendar.setTimeInMillis(epochMilli);
+        return calendar;
+    }
+
+    /**
+     * The reusable replacement of {@code GregorianCalendar.from(dateTime)}, see {@link #calendar(long, ZoneId)}.
+     * Like {@code GregorianCalendar.from}, precision below milliseconds is dropped.
+     */
+    public static GregorianCalendar calendar(ZonedDateTime dateTime) {
+        return calendar(dateTime.toInstant().toEpochMilli(), dateTime.getZone());
+    }
+
+    /**
+     * Like {@code GregorianCalendar.toZonedDateTime()} for any calendar, using the cached zone.
+     */
+    public static ZonedDateTime toZonedDateTime(Calendar calendar) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(calendar.getTimeInMillis()), zoneId(calendar.getTimeZone()));
+    }
+
+    public static void toEpochMillis(Date[] dates, long[] result) {
+        for (int i = 0; i < dates.length; i++) {
+            result[i] = dates[i].getTime();
+        }
+    }
+
+    public static long[] toEpochMillis(Date[] dates) {
+        long[] result = new long[dates.length];
+        toEpochMillis(dates, result);
+        return result;
+    }
+
+    /**
+     * Sets each date to the corresponding epoch millis, creating it only where the slot is null.
+     * Pass the same array again to convert the next batch without allocating.
+     */
+    public static void toDates(long[] epochMillis, Date[] result) {
+        for (int i = 0; i < epochMillis.length; i++) {
+            if (result[i] == null) {
+                result[i] = new Date(epochMillis[i]);
+            } else {
+                result[i].setTime(epochMillis[i]);
+            }
+        }
+    }
+
+    public static Date[] toDates(long[] epochMillis) {
+        Date[] result = new Date[epochMillis.length];
+        toDates(epochMillis, result);
+        return result;
+    }
+
+    /**
+     * Like {@code Date.from(instant)} for each instant.
+     *
+     * @throws IllegalArgumentException if an instant is too large to be represented as a date
+     */
+    public static Date[] toDates(Instant[] instants) {
+        Date[] result = new Date[instants.length];
+        for (int i = 0; i < instants.length; i++) {
+            result[i] = Date.from(instants[i]);
+        }
+        return result;
+    }
+
+    public static Instant[] toInstants(Date[] dates) {
+        Instant[] result = new Instant[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            result[i] = Instant.ofEpochMilli(dates[i].getTime());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.ingvarc.jdk8.time;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A column of timestamps in epoch millis parsed by {@link TimestampColumnParser}, one value per input row.
+ * <p>
+ * Rows which could not be parsed hold {@link TimestampColumnParser#MALFORMED} and are listed in
+ * {@link #getMalformedRows()} with their position in the input.
+ */
+public final class TimestampColumn {
+
+    private final long[] values;
+    private final List<MalformedRow> malformedRows;
+
+    TimestampColumn(long[] values, List<MalformedRow> malformedRows) {
+        this.values = values;
+        this.malformedRows = Collections.unmodifiableList(malformedRows);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    /**
+     * The parsed values; the array is not copied.
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    public List<MalformedRow> getMalformedRows() {
+        return malformedRows;
+    }
+
+    /**
+     * A row which is neither an ISO instant, an ISO date nor an epoch number.
+     */
+    public static final class MalformedRow {
+        private final int row;
+        private final long offset;
+        private final String text;
+
+        MalformedRow(int row, long offset, String text) {
+            this.row = row;
+            this.offset = offset;
+            this.text = text;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * The position of the row in the input, in chars for a {@code CharBuffer} and in bytes otherwise.
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        MalformedRow shift(int rows) {
+            return new MalformedRow(row + rows, offset, text);
+        }
+
+        @Override
+        public String toString() {
+            return "MalformedRow{row=" + row + ", offset=" + offset + ", text='" + text + "'}";
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.ingvarc.jdk8.time;
+
+import io.github.ingvarc.jdk8.time.TimestampColumn.MalformedRow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses newline- or comma-separated timestamps straight into a {@code long[]} column of epoch millis.
+ * <p>
+ * Unlike {@code Instant.parse} and {@code LocalDate.parse} in {@code DateTimeAPI}, no {@code String} or
+ * {@code Instant} is created per row: the text is read in place from the buffer, which may be memory-mapped.
+ * Each row is one of
+ * <ul>
+ * <li>an UTC ISO instant, e.g. {@code 2018-05-26T10:30:00Z} or {@code 2018-05-26T10:30:00.123Z}; an instant
+ * with an offset such as {@code +02:00}, which {@code Instant.parse} accepts since JDK 12, is malformed,</li>
+ * <li>an ISO date, e.g. {@code 2018-05-25}, taken as midnight UTC,</li>
+ * <li>an epoch number, optionally negative, in the configured unit.</li>
+ * </ul>
+ * Surrounding spaces and a {@code \r} before the newline are ignored, empty rows are skipped.
+ * Malformed rows become {@link #MALFORMED} in the column and are collected aside, they never fail the parse.
+ * <p>
+ * The input is split into chunks at row boundaries which are parsed in parallel on a fork/join pool
+ * and concatenated in order. Files are mapped in regions of at most {@link #MAX_REGION_SIZE} bytes,
+ * so inputs larger than 2 GB are fine as long as they hold fewer than {@code Integer.MAX_VALUE} rows.
+ */
+public class TimestampColumnParser {
+
+    public static final long MALFORMED = Long.MIN_VALUE;
+
+    static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final TimeUnit epochUnit;
+
+    /**
+     * Creates a parser running in the common pool on chunks of 1 MB, reading epoch numbers as millis.
+     */
+    public TimestampColumnParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param pool      the pool parsing the chunks
+     * @param chunkSize the number of chars or bytes parsed by one task
+     * @param epochUnit the unit of the rows holding plain numbers
+     */
+    public TimestampColumnParser(ForkJoinPool pool, int chunkSize, TimeUnit epochUnit) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.epochUnit = epochUnit;
+    }
+
+    /**
+     * Parses the remaining chars of the buffer; its position is not changed.
+     */
+    public TimestampColumn parse(CharBuffer buffer) {
+        CharBuffer text = buffer.slice();
+        return parse(text, text.length(), 0);
+    }
+
+    /**
+     * Parses the remaining bytes of the buffer as ASCII; its position is not changed.
+     */
+    public TimestampColumn parse(ByteBuffer buffer) {
+        ByteBuffer bytes = buffer.slice();
+        return parse(new AsciiSequence(bytes), bytes.limit(), 0);
+    }
+
+    /**
+     * Memory-maps the file and parses it.
+     */
+    public TimestampColumn parse(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<TimestampColumn> regions = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long length = Math.min(MAX_REGION_SIZE, size - start);
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                if (start + length < size) {
+                    length = lastRowEnd(region, (int) length);
+                    if (length == 0) {
+                        throw new IOException("Row longer than " + MAX_REGION_SIZE + " bytes at offset " + start);
+                    }
+                    region.limit((int) length);
+                }
+                regions.add(parse(new AsciiSequence(region), (int) length, start));
+                start += length;
+            }
+            return concat(regions);
+        }
+    }
+
+    private TimestampColumn parse(CharSequence text, int length, long baseOffset) {
+        List<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < length) {
+            int end = start + chunkSize >= length || start + chunkSize < 0 ? length : nextRowStart(text, start + chunkSize, length);
+            chunks.add(new Chunk(text, start, end, baseOffset));
+            start = end;
+        }
+        if (chunks.size() == 1) {
+            return chunks.get(0).compute();
+        }
+        List<TimestampColumn> columns = new ArrayList<>(chunks.size());
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                for (Chunk chunk : ForkJoinTask.invokeAll(chunks)) {
+                    columns.add(chunk.join());
+                }
+                return null;
+            }
+        });
+        return concat(columns);
+    }
+
+    private static TimestampColumn concat(List<TimestampColumn> columns) {
+        if (columns.size() == 1) {
+            return columns.get(0);
+        }
+        long rows = 0;
+        for (TimestampColumn column : columns) {
+            rows += column.size();
+        }
+        if (rows > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many rows for a single column: " + rows);
+        }
+        long[] values = new long[(int) rows];
+        List<MalformedRow> malformed = new ArrayList<>();
+        int offset = 0;
+        for (TimestampColumn column : columns) {
+            System.arraycopy(column.getValues(), 0, values, offset, column.size());
+            for (MalformedRow row : column.getMalformedRows()) {
+                malformed.add(row.shift(offset));
+            }
+            offset += column.size();
+        }
+        return new TimestampColumn(values, malformed);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '\n' || c == ',';
+    }
+
+    /**
+     * The index after the first separator at or after {@code from}, or {@code length} if there is none.
+     */
+    private static int nextRowStart(CharSequence text, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (isSeparator(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private static int lastRowEnd(ByteBuffer region, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            byte b = region.get(i);
+            if (b == '\n' || b == ',') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Parses the rows of {@code [start, end)}, which begins at a row start and ends after a separator or at the end.
+     */
+    private final class Chunk extends RecursiveTask<TimestampColumn> {
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+        private final long baseOffset;
+
+        Chunk(CharSequence text, int start, int end, long baseOffset) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.baseOffset = baseOffset;
+        }
+
+        @Override
+        protected TimestampColumn compute() {
+            long[] values = new long[Math.max(16, (end - start) / 24)];
+            int size = 0;
+            List<MalformedRow> malformed = new ArrayList<>();
+            int rowStart = start;
+            while (rowStart < end) {
+                int rowEnd = rowStart;
+                while (rowEnd < end && !isSeparator(text.charAt(rowEnd))) {
+                    rowEnd++;
+                }
+                int from = rowStart;
+                int to = rowEnd;
+                while (from < to && text.charAt(from) == ' ') {
+                    from++;
+                }
+                while (to > from && (text.charAt(to - 1) == ' ' || text.charAt(to - 1) == '\r')) {
+                    to--;
+                }
+                if (from < to) {
+                    long value = parseRow(text, from, to);
+                    if (value == MALFORMED) {
+                        malformed.add(new MalformedRow(size, baseOffset + from, text.subSequence(from, to).toString()));
+                    }
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size + (size >> 1));
+                    }
+                    values[size++] = value;
+                }
+                rowStart = rowEnd + 1;
+            }
+            return new TimestampColumn(values.length == size ? values : Arrays.copyOf(values, size), malformed);
+        }
+
+        private long parseRow(CharSequence text, int from, int to) {
+            int length = to - from;
+            if (length >= 20 && text.charAt(from + 10) == 'T') {
+                return DateTimeCodec.parseIsoInstantOrMin(text, from, to);
+            }
+            if (length == DateTimeCodec.ISO_LOCAL_DATE_LENGTH && text.charAt(from + 4) == '-') {
+                long epochDay = DateTimeCodec.parseIsoLocalDateOrMin(text, from);
+                return epochDay == Long.MIN_VALUE ? MALFORMED : epochDay * 86_400_000L;
+            }
+            return parseEpoch(text, from, to);
+        }
+
+        private long parseEpoch(CharSequence text, int from, int to) {
+            boolean negative = text.charAt(from) == '-';
+            int i = negative ? from + 1 : from;
+            if (i == to || to - i > 18) {
+                return MALFORMED;
+            }
+            long value = 0;
+            for (; i < to; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return MALFORMED;
+                }
+                value = value * 10 + (c - '0');
+            }
+            value = negative ? -value : value;
+            long millis = epochUnit.toMillis(value);
+            return millis == Long.MIN_VALUE || millis == Long.MAX_VALUE ? MALFORMED : millis;
+        }
+    }
+
+    /**
+     * Reads the bytes of a buffer as ASCII chars by absolute index, without decoding or copying them.
+     */
+    private static final class AsciiSequence implements CharSequence {
+        private final ByteBuffer bytes;
+
+        AsciiSequence(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            char[] chars = new char[end - start];
+            for (int i = start; i < end; i++) {
+                chars[i - start] = charAt(i);
+            }
+            return new String(chars);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.ingvarc.jdk8.time;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * The offset transitions of a zone over a range of years, precomputed into sorted primitive arrays.
+ * <p>
+ * {@code LocalDateTime.ofInstant(instant, zone)} and {@code localDateTime.atZone(zone)} look the offset up
+ * in the {@link ZoneRules} and allocate on the way. This index answers the same questions with a binary search
+ * over a {@code long[]} of transition epoch seconds, on primitive epoch seconds or millis, singly or in bulk.
+ * Values outside of the indexed years fall back to the zone rules, so the results are always correct.
+ * <p>
+ * "Local" epoch seconds are the local date-time as if it were UTC, i.e. {@code localDateTime.toEpochSecond(UTC)}.
+ * Converting them back follows {@link LocalDateTime#atZone}: a local time in a gap is shifted forward by the gap,
+ * a local time in an overlap takes the earlier offset.
+ * <pre>
+ * ZoneOffsetIndex tokyo = ZoneOffsetIndex.of(ZoneId.of("Asia/Tokyo"), 2000, 2040);
+ * tokyo.toLocalEpochSecond(1527330600L);  // 1527363000, 2018-05-26T19:30 in Tokyo
+ * </pre>
+ */
+public final class ZoneOffsetIndex {
+
+    /**
+     * The widest offset allowed by {@link ZoneOffset}, used as the margin of the local range.
+     */
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final long fromEpochSecond;
+    private final long toEpochSecond;
+
+    /**
+     * The epoch seconds of the transitions within the range.
+     */
+    private final long[] transitions;
+    /**
+     * The local epoch seconds from which on the offset after a transition applies to local times.
+     */
+    private final long[] localTransitions;
+    /**
+     * The offset before the first transition followed by the offset after each one; one longer than the transitions.
+     */
+    private final int[] offsets;
+
+    private ZoneOffsetIndex(ZoneId zone, long fromEpochSecond, long toEpochSecond,
+                            long[] transitions, long[] localTransitions, int[] offsets) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fromEpochSecond = fromEpochSecond;
+        this.toEpochSecond = toEpochSecond;
+        this.transitions = transitions;
+        this.localTransitions = localTransitions;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Indexes the transitions of the zone from the start of {@code fromYear} to the end of {@code toYear} in UTC.
+     */
+    public static ZoneOffsetIndex of(ZoneId zone, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("Illegal year range: " + fromYear + " to " + toYear);
+        }
+        ZoneRules rules = zone.getRules();
+        long from = EpochDays.daysFromCivil(fromYear, 1, 1) * EpochSeconds.SECONDS_PER_DAY;
+        long to = EpochDays.daysFromCivil(toYear + 1L, 1, 1) * EpochSeconds.SECONDS_PER_DAY;
+
+        long[] transitions = new long[16];
+        long[] localTransitions = new long[16];
+        int[] offsets = new int[17];
+        offsets[0] = rules.getOffset(Instant.ofEpochSecond(from)).getTotalSeconds();
+        int count = 0;
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(from));
+        while (transition != null && transition.toEpochSecond() < to) {
+            if (count == transitions.length) {
+                transitions = Arrays.copyOf(transitions, count << 1);
+                localTransitions = Arrays.copyOf(localTransitions, count << 1);
+                offsets = Arrays.copyOf(offsets, (count << 1) + 1);
+            }
+            int before = transition.getOffsetBefore().getTotalSeconds();
+            int after = transition.getOffsetAfter().getTotalSeconds();
+            transitions[count] = transition.toEpochSecond();
+            localTransitions[count] = transition.toEpochSecond() + Math.max(before, after);
+            offsets[++count] = after;
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        return new ZoneOffsetIndex(zone, from, to, Arrays.copyOf(transitions, count),
+                Arrays.copyOf(localTransitions, count), Arrays.copyOf(offsets, count + 1));
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * The number of transitions within the indexed years.
+     */
+    public int getTransitionCount() {
+        return transitions.length;
+    }
+
+    /**
+     * The offset in effect at the instant, like {@code rules.getOffset(instant).getTotalSeconds()}.
+     */
+    public int getOffsetSeconds(long epochSecond) {
+        if (epochSecond < fromEpochSecond || epochSecond >= toEpochSecond) {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+        return offsets[transitionsUpTo(transitions, epochSecond)];
+    }
+
+    /**
+     * The offset {@link LocalDateTime#atZone} applies to the local date-time: the earlier offset in an overlap
+     * and the offset before the gap for a local time within it.
+     */
+    public int getOffsetSecondsOfLocal(long localEpochSecond) {
+        if (localEpochSecond < fromEpochSecond + MAX_OFFSET_SECONDS
+                || localEpochSecond >= toEpochSecond - MAX_OFFSET_SECONDS) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+            return (int) (localEpochSecond - local.atZone(zone).toEpochSecond());
+        }
+        return offsets[transitionsUpTo(localTransitions, localEpochSecond)];
+    }
+
+    /**
+     * Like {@code LocalDateTime.ofInstant(instant, zone).toEpochSecond(ZoneOffset.UTC)}.
+     */
+    public long toLocalEpochSecond(long epochSecond) {
+        return epochSecond + getOffsetSeconds(epochSecond);
+    }
+
+    /**
+     * Like {@code localDateTime.atZone(zone).toEpochSecond()}.
+     */
+    public long toEpochSecond(long localEpochSecond) {
+        return localEpochSecond - getOffsetSecondsOfLocal(localEpochSecond);
+    }
+
+    /**
+     * Like {@link #toLocalEpochSecond} on epoch millis.
+     */
+    public long toLocalEpochMilli(long epochMilli) {
+        return epochMilli + getOffsetSeconds(Math.floorDiv(epochMilli, 1000)) * 1000L;
+    }
+
+    /**
+     * Like {@link #toEpochSecond} on epoch millis.
+     */
+    public long toEpochMilli(long localEpochMilli) {
+        return localEpochMilli - getOffsetSecondsOfLocal(Math.floorDiv(localEpochMilli, 1000)) * 1000L;
+    }
+
+    public void toLocalEpochSeconds(long[] epochSeconds, long[] result) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            result[i] = toLocalEpochSecond(epochSeconds[i]);
+        }
+    }
+
+    public void toEpochSeconds(long[] localEpochSeconds, long[] result) {
+        for (int i = 0; i < localEpochSeconds.length; i++) {
+            result[i] = toEpochSecond(localEpochSeconds[i]);
+        }
+    }
+
+    public void toLocalEpochMillis(long[] epochMillis, long[] result) {
+        for (int i = 0; i < epochMillis.length; i++) {
+            result[i] = toLocalEpochMilli(epochMillis[i]);
+        }
+    }
+
+    public void toEpochMillis(long[] localEpochMillis, long[] result) {
+        for (int i = 0; i < localEpochMillis.length; i++) {
+            result[i] = toEpochMilli(localEpochMillis[i]);
+        }
+    }
+
+    /**
+     * The number of points less than or equal to the value, which indexes the offset in effect.
+     */
+    private static int transitionsUpTo(long[] points, long value) {
+        int index = Arrays.binarySearch(points, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneOffsetIndex[" + zone + ", " + transitions.length + " transitions]";
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.ingvarc.jdk8.window;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Count, sum, average, min and max of doubles over a tumbling or sliding window, updated as the values come.
+ * <p>
+ * {@code DoubleStream.average()} and {@code DoubleStatistics} aggregate a whole stream once it ends, so an endless
+ * stream has to be limited first. A window instead completes again and again, every {@code slide} values or time
+ * units, with the aggregates of the last {@code size} of them; a window whose slide equals its size tumbles. Each
+ * value costs a constant time amortized whatever the size, in arrays allocated up front, and is summed without ever
+ * being subtracted again, so the sum does not drift however long the stream is. The completed windows are either
+ * pushed to a listener or pulled:
+ * <pre>
+ * DoubleWindow.ofCount(1000, 100)
+ *         .onWindow(window -&gt; log(window.getAverage()));  // every 100 values, the average of the last 1000
+ * DoubleWindow.aggregate(DoubleStream.generate(Math::random), 1000, 1000, DoubleWindow::getAverage)
+ *         .limit(3);                                    // the averages of three tumbling windows
+ * </pre>
+ * A time window takes a timestamp, in any unit, with each value; its windows are aligned to multiples of the slide,
+ * and only the ones holding values complete, once a later timestamp or {@link #advanceTo(long)} passes their end.
+ * <p>
+ * The window is passed to the listener itself, and its getters describe the last completed window; copy what has to
+ * outlive the next value. A window keeps seven numbers for every {@code gcd(size, slide)} values or time units it
+ * spans. The constant time is amortized: the value whose pane empties the front of the two stacks pays for flipping
+ * all the panes of the back at once. This class is not thread-safe.
+ */
+public final class DoubleWindow extends PaneWindow implements DoubleConsumer {
+
+    private final double[] paneSums;
+    private final double[] paneMins;
+    private final double[] paneMaxs;
+    private final double[] frontSums;
+    private final double[] frontMins;
+    private final double[] frontMaxs;
+
+    private double openSum;
+    private double openMin = Double.POSITIVE_INFINITY;
+    private double openMax = Double.NEGATIVE_INFINITY;
+    private double backSum;
+    private double backMin = Double.POSITIVE_INFINITY;
+    private double backMax = Double.NEGATIVE_INFINITY;
+
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private Consumer<? super DoubleWindow> listener;
+
+    private DoubleWindow(long size, long slide, boolean timed) {
+        super(size, slide, timed);
+        this.paneSums = new double[panes];
+        this.paneMins = new double[panes];
+        this.paneMaxs = new double[panes];
+        this.frontSums = new double[panes];
+        this.frontMins = new double[panes];
+        this.frontMaxs = new double[panes];
+    }
+
+    /**
+     * A tumbling window over every {@code size} values.
+     */
+    public static DoubleWindow ofCount(int size) {
+        return new DoubleWindow(size, size, false);
+    }
+
+    /**
+     * A window over the last {@code size} values, completed at the {@code size}th value and then every {@code slide}
+     * values.
+     *
+     * @throws IllegalArgumentException unless {@code 0 < slide <= size}
+     */
+    public static DoubleWindow ofCount(int size, int slide) {
+        return new DoubleWindow(size, slide, false);
+    }
+
+    /**
+     * A tumbling window over every {@code duration} time units.
+     */
+    public static DoubleWindow ofTime(long duration) {
+        return new DoubleWindow(duration, duration, true);
+    }
+
+    /**
+     * A window over the last {@code duration} time units, completed every {@code slide} time units.
+     *
+     * @throws IllegalArgumentException unless {@code 0 < slide <= duration} and the window spans less than
+     *                                  {@code Integer.MAX_VALUE} times {@code gcd(duration, slide)}
+     */
+    public static DoubleWindow ofTime(long duration, long slide) {
+        return new DoubleWindow(duration, slide, true);
+    }
+
+    /**
+     * The results of the windows of a count over the stream, pulled lazily, so the stream may be endless. Closing
+     * the result closes the stream.
+     */
+    public static DoubleStream aggregate(DoubleStream source, int size, int slide,
+                                         ToDoubleFunction<? super DoubleWindow> result) {
+        DoubleWindow window = ofCount(size, slide);
+        Spliterator.OfDouble spliterator = source.spliterator();
+        return StreamSupport.doubleStream(new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                long windows = window.getWindows();
+                while (spliterator.tryAdvance(window)) {
+                    if (window.getWindows() != windows) {
+                        action.accept(result.applyAsDouble(window));
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }, false).onClose(source::close);
+    }
+
+    /**
+     * Sets the listener to call with every completed window, replacing any earlier one.
+     */
+    public DoubleWindow onWindow(Consumer<? super DoubleWindow> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Adds the next value of a count window, and calls the listener if it completes a window.
+     *
+     * @throws IllegalStateException if this is a time window
+     */
+    @Override
+    public void accept(double value) {
+        if (add(value)) {
+            completed();
+        }
+    }
+
+    /**
+     * Adds the next value of a count window, without calling the listener.
+     *
+     * @return whether the value completed a window, which the getters then describe
+     * @throws IllegalStateException if this is a time window
+     */
+    public boolean add(double value) {
+        openSum += value;
+        openMin = Math.min(openMin, value);
+        openMax = Math.max(openMax, value);
+        return counted();
+    }
+
+    /**
+     * Adds a value of a time window, after calling the listener with the windows which end at or before its time.
+     *
+     * @throws IllegalStateException    if this is a count window
+     * @throws IllegalArgumentException if the time is before the pane of an earlier value
+     */
+    public void accept(long time, double value) {
+        advanceTo(time);
+        openSum += value;
+        openMin = Math.min(openMin, value);
+        openMax = Math.max(openMax, value);
+        countedAt();
+    }
+
+    @Override
+    void store(int slot) {
+        paneSums[slot] = openSum;
+        paneMins[slot] = openMin;
+        paneMaxs[slot] = openMax;
+        backSum += openSum;
+        backMin = Math.min(backMin, openMin);
+        backMax = Math.max(backMax, openMax);
+        openSum = 0;
+        openMin = Double.POSITIVE_INFINITY;
+        openMax = Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    void flip() {
+        double suffixSum = 0;
+        double suffixMin = Double.POSITIVE_INFINITY;
+        double suffixMax = Double.NEGATIVE_INFINITY;
+        for (int i = stored - 1; i >= 0; i--) {
+            int slot = slot(i);
+            suffixSum = paneSums[slot] + suffixSum;
+            suffixMin = Math.min(paneMins[slot], suffixMin);
+            suffixMax = Math.max(paneMaxs[slot], suffixMax);
+            frontSums[slot] = suffixSum;
+            frontMins[slot] = suffixMin;
+            frontMaxs[slot] = suffixMax;
+        }
+        clear();
+    }
+
+    @Override
+    void clear() {
+        backSum = 0;
+        backMin = Double.POSITIVE_INFINITY;
+        backMax = Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    void snapshot() {
+        if (front > 0) {
+            sum = frontSums[head] + backSum;
+            min = Math.min(frontMins[head], backMin);
+            max = Math.max(frontMaxs[head], backMax);
+        } else {
+            sum = backSum;
+            min = backMin;
+            max = backMax;
+        }
+    }
+
+    @Override
+    void completed() {
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * The average, or zero before the first window, as in {@code DoubleSummaryStatistics}.
+     */
+    public double getAverage() {
+        long count = getCount();
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * The minimum, or {@code Double.POSITIVE_INFINITY} before the first window.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * The maximum, or {@code Double.NEGATIVE_INFINITY} before the first window.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{start=%d, end=%d, count=%d, sum=%f, min=%f, max=%f}",
+                getClass().getSimpleName(), getStart(), getEnd(), getCount(), sum, min, max);
+    }
+}
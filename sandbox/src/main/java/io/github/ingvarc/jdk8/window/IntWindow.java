@@ -0,0 +1,248 @@
+package io.github.ingvarc.jdk8.window;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Count, sum, average, min and max of ints over a tumbling or sliding window, as {@link DoubleWindow} does for
+ * doubles.
+ * <p>
+ * The sum is a {@code long}, as in {@code IntSummaryStatistics}, and the min and max are ints:
+ * <pre>
+ * IntWindow.aggregate(IntStream.iterate(0, i -&gt; i + 1), 10, 5, IntWindow::getMax)
+ *         .limit(3);  // 9, 14, 19
+ * </pre>
+ * This class is not thread-safe.
+ */
+public final class IntWindow extends PaneWindow implements IntConsumer {
+
+    private final long[] paneSums;
+    private final int[] paneMins;
+    private final int[] paneMaxs;
+    private final long[] frontSums;
+    private final int[] frontMins;
+    private final int[] frontMaxs;
+
+    private long openSum;
+    private int openMin = Integer.MAX_VALUE;
+    private int openMax = Integer.MIN_VALUE;
+    private long backSum;
+    private int backMin = Integer.MAX_VALUE;
+    private int backMax = Integer.MIN_VALUE;
+
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private Consumer<? super IntWindow> listener;
+
+    private IntWindow(long size, long slide, boolean timed) {
+        super(size, slide, timed);
+        this.paneSums = new long[panes];
+        this.paneMins = new int[panes];
+        this.paneMaxs = new int[panes];
+        this.frontSums = new long[panes];
+        this.frontMins = new int[panes];
+        this.frontMaxs = new int[panes];
+    }
+
+    /**
+     * A tumbling window over every {@code size} values.
+     */
+    public static IntWindow ofCount(int size) {
+        return new IntWindow(size, size, false);
+    }
+
+    /**
+     * A window over the last {@code size} values, completed at the {@code size}th value and then every {@code slide}
+     * values.
+     *
+     * @throws IllegalArgumentException unless {@code 0 < slide <= size}
+     */
+    public static IntWindow ofCount(int size, int slide) {
+        return new IntWindow(size, slide, false);
+    }
+
+    /**
+     * A tumbling window over every {@code duration} time units.
+     */
+    public static IntWindow ofTime(long duration) {
+        return new IntWindow(duration, duration, true);
+    }
+
+    /**
+     * A window over the last {@code duration} time units, completed every {@code slide} time units.
+     *
+     * @throws IllegalArgumentException unless {@code 0 < slide <= duration} and the window spans less than
+     *                                  {@code Integer.MAX_VALUE} times {@code gcd(duration, slide)}
+     */
+    public static IntWindow ofTime(long duration, long slide) {
+        return new IntWindow(duration, slide, true);
+    }
+
+    /**
+     * The results of the windows of a count over the stream, pulled lazily, so the stream may be endless. Closing
+     * the result closes the stream.
+     */
+    public static DoubleStream aggregate(IntStream source, int size, int slide,
+                                         ToDoubleFunction<? super IntWindow> result) {
+        IntWindow window = ofCount(size, slide);
+        Spliterator.OfInt spliterator = source.spliterator();
+        return StreamSupport.doubleStream(new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                long windows = window.getWindows();
+                while (spliterator.tryAdvance(window)) {
+                    if (window.getWindows() != windows) {
+                        action.accept(result.applyAsDouble(window));
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }, false).onClose(source::close);
+    }
+
+    /**
+     * Sets the listener to call with every completed window, replacing any earlier one.
+     */
+    public IntWindow onWindow(Consumer<? super IntWindow> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Adds the next value of a count window, and calls the listener if it completes a window.
+     *
+     * @throws IllegalStateException if this is a time window
+     */
+    @Override
+    public void accept(int value) {
+        if (add(value)) {
+            completed();
+        }
+    }
+
+    /**
+     * Adds the next value of a count window, without calling the listener.
+     *
+     * @return whether the value completed a window, which the getters then describe
+     * @throws IllegalStateException if this is a time window
+     */
+    public boolean add(int value) {
+        openSum += value;
+        openMin = Math.min(openMin, value);
+        openMax = Math.max(openMax, value);
+        return counted();
+    }
+
+    /**
+     * Adds a value of a time window, after calling the listener with the windows which end at or before its time.
+     *
+     * @throws IllegalStateException    if this is a count window
+     * @throws IllegalArgumentException if the time is before the pane of an earlier value
+     */
+    public void accept(long time, int value) {
+        advanceTo(time);
+        openSum += value;
+        openMin = Math.min(openMin, value);
+        openMax = Math.max(openMax, value);
+        countedAt();
+    }
+
+    @Override
+    void store(int slot) {
+        paneSums[slot] = openSum;
+        paneMins[slot] = openMin;
+        paneMaxs[slot] = openMax;
+        backSum += openSum;
+        backMin = Math.min(backMin, openMin);
+        backMax = Math.max(backMax, openMax);
+        openSum = 0;
+        openMin = Integer.MAX_VALUE;
+        openMax = Integer.MIN_VALUE;
+    }
+
+    @Override
+    void flip() {
+        long suffixSum = 0;
+        int suffixMin = Integer.MAX_VALUE;
+        int suffixMax = Integer.MIN_VALUE;
+        for (int i = stored - 1; i >= 0; i--) {
+            int slot = slot(i);
+            suffixSum += paneSums[slot];
+            suffixMin = Math.min(paneMins[slot], suffixMin);
+            suffixMax = Math.max(paneMaxs[slot], suffixMax);
+            frontSums[slot] = suffixSum;
+            frontMins[slot] = suffixMin;
+            frontMaxs[slot] = suffixMax;
+        }
+        clear();
+    }
+
+    @Override
+    void clear() {
+        backSum = 0;
+        backMin = Integer.MAX_VALUE;
+        backMax = Integer.MIN_VALUE;
+    }
+
+    @Override
+    void snapshot() {
+        if (front > 0) {
+            sum = frontSums[head] + backSum;
+            min = Math.min(frontMins[head], backMin);
+            max = Math.max(frontMaxs[head], backMax);
+        } else {
+            sum = backSum;
+            min = backMin;
+            max = backMax;
+        }
+    }
+
+    @Override
+    void completed() {
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * The average, or zero before the first window, as in {@code IntSummaryStatistics}.
+     */
+    public double getAverage() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * The minimum, or {@code Integer.MAX_VALUE} before the first window.
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * The maximum, or {@code Integer.MIN_VALUE} before the first window.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{start=%d, end=%d, count=%d, sum=%d, min=%d, max=%d}",
+                getClass().getSimpleName(), getStart(), getEnd(), getCount(), sum, min, max);
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.ingvarc.jdk8.window;
+
+/**
+ * The bookkeeping of a window which slides over a ring of panes, shared by the primitive windows.
+ * <p>
+ * A window of {@code size} elements or time units which moves by {@code slide} is cut into panes of their greatest
+ * common divisor, so that every window is made of whole panes and every pane is aggregated once, when it closes,
+ * however many windows it belongs to. A count window first completes once it is full and then every slide, a time
+ * window at every multiple of the slide. The closed panes of the current window are kept in a ring as a queue of two
+ * stacks: the front holds the aggregates of every suffix of the older panes, the back a running aggregate of the
+ * newer ones. A pane is pushed on the back, the oldest pane is popped off the front, and when the front runs empty
+ * the whole back is flipped into it, so every pane is aggregated at most three times, with no subtraction which
+ * would lose the precision of a sum or could not undo a minimum.
+ * <p>
+ * The subclasses hold the values of the panes and their aggregates in arrays of the same ring.
+ */
+abstract class PaneWindow {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final long size;
+    private final long slide;
+    private final boolean timed;
+    private final long paneLength;
+    private final int slidePanes;
+
+    final int panes;
+    private final long[] counts;
+
+    /**
+     * The ring slot of the oldest closed pane, the number of closed panes and how many of them are in the front.
+     */
+    int head;
+    int stored;
+    int front;
+
+    private long count;
+    private long paneCount;
+    private long pane;
+    private long end;
+    private long windowCount;
+    private long windows;
+
+    PaneWindow(long size, long slide, boolean timed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        if (slide <= 0 || slide > size) {
+            throw new IllegalArgumentException("Illegal slide: " + slide);
+        }
+        long paneLength = gcd(size, slide);
+        if (size / paneLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Illegal slide: " + slide + ", too many panes for size " + size);
+        }
+        this.size = size;
+        this.slide = slide;
+        this.timed = timed;
+        this.paneLength = paneLength;
+        this.slidePanes = (int) (slide / paneLength);
+        this.panes = (int) (size / paneLength);
+        this.counts = new long[panes];
+        this.pane = timed ? NOT_STARTED : 0;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     * Folds the open pane into the given slot and the back, and empties it.
+     */
+    abstract void store(int slot);
+
+    /**
+     * Computes the suffix aggregates of all closed panes into the front and empties the back.
+     */
+    abstract void flip();
+
+    /**
+     * Empties the back, once all closed panes are gone.
+     */
+    abstract void clear();
+
+    /**
+     * Keeps the aggregates of all closed panes as those of the window which was just completed.
+     */
+    abstract void snapshot();
+
+    /**
+     * Calls the listener with the window which was just completed.
+     */
+    abstract void completed();
+
+    /**
+     * Counts a value of the open pane of a count window, and closes the pane once it is full.
+     *
+     * @return whether the value completed a window
+     */
+    final boolean counted() {
+        if (timed) {
+            throw new IllegalStateException("Not a count window");
+        }
+        return ++paneCount == paneLength && close();
+    }
+
+    /**
+     * Counts a value of the open pane of a time window, after {@link #advanceTo(long)} its timestamp.
+     */
+    final void countedAt() {
+        paneCount++;
+    }
+
+    /**
+     * Closes every pane which ends at or before the time, and calls the listener with every completed window which
+     * holds any value. Panes which fall out of the window while there are no values are skipped all at once.
+     *
+     * @throws IllegalStateException    if this is a count window
+     * @throws IllegalArgumentException if the time is before the open pane
+     */
+    public final void advanceTo(long time) {
+        if (!timed) {
+            throw new IllegalStateException("Not a time window");
+        }
+        long target = Math.floorDiv(time, paneLength);
+        if (pane == NOT_STARTED) {
+            pane = target;
+            return;
+        }
+        if (target < pane) {
+            throw new IllegalArgumentException("Illegal time: " + time + " before " + pane * paneLength);
+        }
+        while (pane < target) {
+            if (count == 0 && paneCount == 0) {
+                head = 0;
+                stored = 0;
+                front = 0;
+                clear();
+                pane = target;
+                return;
+            }
+            if (close()) {
+                completed();
+            }
+        }
+    }
+
+    private boolean close() {
+        if (stored == panes) {
+            evict();
+        }
+        int slot = slot(stored);
+        counts[slot] = paneCount;
+        count += paneCount;
+        store(slot);
+        stored++;
+        paneCount = 0;
+        pane++;
+        if (timed ? pane % slidePanes != 0 || count == 0 : stored < panes || (pane - panes) % slidePanes != 0) {
+            return false;
+        }
+        end = pane * paneLength;
+        windowCount = count;
+        windows++;
+        snapshot();
+        return true;
+    }
+
+    private void evict() {
+        if (front == 0) {
+            flip();
+            front = stored;
+        }
+        count -= counts[head];
+        head = head + 1 < panes ? head + 1 : 0;
+        stored--;
+        front--;
+    }
+
+    /**
+     * The ring slot {@code i} panes after the oldest closed pane.
+     */
+    final int slot(int i) {
+        int slot = head + i;
+        return slot < panes ? slot : slot - panes;
+    }
+
+    /**
+     * The start of the last completed window, in elements or time units, inclusive.
+     */
+    public long getStart() {
+        return end - size;
+    }
+
+    /**
+     * The end of the last completed window, in elements or time units, exclusive.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * The number of values in the last completed window.
+     */
+    public long getCount() {
+        return windowCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getSlide() {
+        return slide;
+    }
+
+    public boolean isTimed() {
+        return timed;
+    }
+
+    /**
+     * The number of windows completed so far.
+     */
+    public long getWindows() {
+        return windows;
+    }
+}
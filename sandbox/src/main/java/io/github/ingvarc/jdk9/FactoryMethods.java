@@ -1,5 +1,8 @@
 package io.github.ingvarc.jdk9;
 
+import io.github.ingvarc.jdk9.collections.CompactCollections;
+import io.github.ingvarc.jdk9.collections.InternedMaps;
+
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,5 +47,20 @@ public class FactoryMethods {
                 Map.entry("JDK", "nine"),
                 Map.entry("JRE", "ten")
         );
+
+        // the same contract with dense layouts for thousands of read-mostly entries
+        CompactCollections.stringSetOf("Java", "nine", "factory", "methods").contains("nine"); // true
+        CompactCollections.stringMapOfEntries(
+                Map.entry("Java", "eight"),
+                Map.entry("JDK", "nine"),
+                Map.entry("JRE", "ten")
+        ).get("JDK"); // nine
+        // CompactCollections.setOf("Java", "nine", "Java"); // throws IllegalArgumentException
+
+        // equal maps loaded twice share one instance, and so do their equal keys and values
+        InternedMaps interned = new InternedMaps();
+        Map<String, String> first = interned.ofEntries(Map.entry("Java", "eight"), Map.entry("JDK", "nine"));
+        Map<String, String> second = interned.ofEntries(Map.entry("Java", "eight"), Map.entry("JDK", "nine"));
+        boolean same = first == second; // true
     }
 }
@@ -1,8 +1,13 @@
 package io.github.ingvarc.jdk9;
 
+import io.github.ingvarc.jdk9.optional.OptionalCollectors;
+import io.github.ingvarc.jdk9.optional.OptionalStreams;
+import io.github.ingvarc.jdk9.optional.PresenceCount;
+
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Several new methods in Optional class.
@@ -33,6 +38,13 @@ public class OptionalUpdates {
         optionals.stream()
                 .forEach(v -> v.ifPresentOrElse(x -> successCounter.incrementAndGet(), onEmptyOptionalCounter::incrementAndGet));
 
+        // the same counts without shared counters, which also holds up in parallel
+        PresenceCount<List<String>> counts = optionals.parallelStream()
+                .collect(OptionalCollectors.partitioningByPresence(Collectors.toList()));
+        counts.getPresent(); // 5
+        counts.getEmpty(); // 2
+        counts.getPresentValues(); // [Java, nine, Optional, JDK9, Updates]
+
         optionals.stream()
                 .forEach(System.out::println); // optionals in list
 
@@ -43,5 +55,8 @@ public class OptionalUpdates {
         optionals.stream()
                 .flatMap(Optional::stream)
                 .forEach(System.out::println); // Only present Optional values
+
+        OptionalStreams.present(optionals.stream())
+                .forEach(System.out::println); // Only present Optional values, without a stream per value
     }
 }
@@ -0,0 +1,148 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Factory methods of immutable sets and maps laid out for thousands of read-mostly entries.
+ * <p>
+ * Past a handful of entries {@code Set.of} and {@code Map.ofEntries} store the elements in an open addressing table
+ * with twice as many slots as entries. The collections created here store them densely instead:
+ * <ul>
+ * <li>the {@code String} variants build a minimal perfect hash, so a lookup compares with one candidate only,
+ * and pack all the keys into one {@code byte[]}, or one {@code char[]} if any of them is not Latin-1,
+ * instead of keeping a {@code String} with its own array per key;</li>
+ * <li>the other variants sort the keys by hash code and binary search a contiguous {@code int[]} of them.</li>
+ * </ul>
+ * The collections follow the contract of {@code Set.of} and {@code Map.of}: changing them throws
+ * UnsupportedOperationException, null elements, keys and values throw NullPointerException and so does querying
+ * for null, and duplicates passed to the {@code of} methods throw IllegalArgumentException.
+ * <p>
+ * The packed strings are created again when iterated over, so iterating over the {@code String} variants allocates.
+ * Their iteration order, like that of {@code Set.of}, is unspecified.
+ */
+public final class CompactCollections {
+
+    private CompactCollections() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if an element is duplicated
+     * @throws NullPointerException     if an element is null
+     */
+    @SafeVarargs
+    public static <E> Set<E> setOf(E... elements) {
+        // copied into an Object[], the type HashSortedSet takes, so that the varargs array itself does not escape
+        return new HashSortedSet<>(requireNonNulls(Arrays.copyOf(elements, elements.length, Object[].class)));
+    }
+
+    /**
+     * Duplicates are allowed, as in {@code Set.copyOf}.
+     *
+     * @throws NullPointerException if an element is null
+     */
+    public static <E> Set<E> setCopyOf(Collection<? extends E> elements) {
+        if (elements instanceof HashSortedSet) {
+            @SuppressWarnings("unchecked") Set<E> set = (Set<E>) elements;
+            return set;
+        }
+        return new HashSortedSet<>(requireNonNulls(new LinkedHashSet<>(elements).toArray()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if an element is duplicated
+     * @throws NullPointerException     if an element is null
+     */
+    public static Set<String> stringSetOf(String... elements) {
+        return new PerfectHashStringSet(requireNonNulls(elements.clone()));
+    }
+
+    /**
+     * Duplicates are allowed, as in {@code Set.copyOf}.
+     *
+     * @throws NullPointerException if an element is null
+     */
+    public static Set<String> stringSetCopyOf(Collection<String> elements) {
+        if (elements instanceof PerfectHashStringSet) {
+            return (Set<String>) elements;
+        }
+        return new PerfectHashStringSet(requireNonNulls(new LinkedHashSet<>(elements).toArray(new String[0])));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a key is duplicated
+     * @throws NullPointerException     if an entry, a key or a value is null
+     */
+    @SafeVarargs
+    public static <K, V> Map<K, V> mapOfEntries(Map.Entry<? extends K, ? extends V>... entries) {
+        Object[] keys = new Object[entries.length];
+        Object[] values = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = Objects.requireNonNull(entries[i].getKey());
+            values[i] = Objects.requireNonNull(entries[i].getValue());
+        }
+        return new HashSortedMap<>(keys, values);
+    }
+
+    /**
+     * @throws NullPointerException if a key or a value is null
+     */
+    public static <K, V> Map<K, V> mapCopyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof HashSortedMap) {
+            @SuppressWarnings("unchecked") Map<K, V> copy = (Map<K, V>) map;
+            return copy;
+        }
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[map.size()];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            keys[i] = Objects.requireNonNull(entry.getKey());
+            values[i++] = Objects.requireNonNull(entry.getValue());
+        }
+        return new HashSortedMap<>(keys, values);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a key is duplicated
+     * @throws NullPointerException     if an entry, a key or a value is null
+     */
+    @SafeVarargs
+    public static <V> Map<String, V> stringMapOfEntries(Map.Entry<String, ? extends V>... entries) {
+        String[] keys = new String[entries.length];
+        Object[] values = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = Objects.requireNonNull(entries[i].getKey());
+            values[i] = Objects.requireNonNull(entries[i].getValue());
+        }
+        return new PerfectHashStringMap<>(keys, values);
+    }
+
+    /**
+     * @throws NullPointerException if a key or a value is null
+     */
+    public static <V> Map<String, V> stringMapCopyOf(Map<String, ? extends V> map) {
+        if (map instanceof PerfectHashStringMap) {
+            @SuppressWarnings("unchecked") Map<String, V> copy = (Map<String, V>) map;
+            return copy;
+        }
+        String[] keys = new String[map.size()];
+        Object[] values = new Object[map.size()];
+        int i = 0;
+        for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+            keys[i] = Objects.requireNonNull(entry.getKey());
+            values[i++] = Objects.requireNonNull(entry.getValue());
+        }
+        return new PerfectHashStringMap<>(keys, values);
+    }
+
+    private static <T> T[] requireNonNulls(T[] elements) {
+        for (T element : elements) {
+            Objects.requireNonNull(element);
+        }
+        return elements;
+    }
+}
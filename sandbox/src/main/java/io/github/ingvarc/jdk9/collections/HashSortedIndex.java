@@ -0,0 +1,72 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.Arrays;
+
+/**
+ * Keys sorted by hash code with the hash codes in a parallel {@code int[]}.
+ * <p>
+ * A lookup binary searches the hash codes, which are contiguous in memory, and compares with {@code equals} only the
+ * keys of an equal hash code. The layout needs no empty slots and no per-entry nodes.
+ */
+final class HashSortedIndex {
+
+    final int[] hashes;
+    final Object[] keys;
+
+    /**
+     * Sorts the keys, and the values alongside them if not null, by hash code.
+     *
+     * @param what what the keys are called in the message of a duplicate, "element" or "key"
+     * @throws IllegalArgumentException if a key is duplicated
+     */
+    HashSortedIndex(Object[] keys, Object[] values, String what) {
+        int size = keys.length;
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (long) keys[i].hashCode() << 32 | i;
+        }
+        Arrays.sort(order);
+        hashes = new int[size];
+        this.keys = new Object[size];
+        Object[] sortedValues = values == null ? null : new Object[size];
+        for (int i = 0; i < size; i++) {
+            int from = (int) order[i];
+            hashes[i] = (int) (order[i] >> 32);
+            this.keys[i] = keys[from];
+            if (values != null) {
+                sortedValues[i] = values[from];
+            }
+            for (int j = i - 1; j >= 0 && hashes[j] == hashes[i]; j--) {
+                if (this.keys[j].equals(this.keys[i])) {
+                    throw new IllegalArgumentException("duplicate " + what + ": " + keys[from]);
+                }
+            }
+        }
+        if (values != null) {
+            System.arraycopy(sortedValues, 0, values, 0, size);
+        }
+    }
+
+    /**
+     * The index of the key, or -1 if it is not one of the keys.
+     */
+    int indexOf(Object key) {
+        int hash = key.hashCode();
+        int low = 0;
+        int high = hashes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hashes[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < hashes.length && hashes[i] == hash; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
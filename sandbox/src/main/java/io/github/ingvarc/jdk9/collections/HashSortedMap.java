@@ -0,0 +1,89 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map with the keys stored in a {@link HashSortedIndex} and the values in the same order.
+ */
+final class HashSortedMap<K, V> extends ImmutableMapBase<K, V> {
+
+    private final HashSortedIndex index;
+    private final Object[] values;
+
+    /**
+     * Takes ownership of the values array, which is reordered together with the keys.
+     */
+    HashSortedMap(Object[] keys, Object[] values) {
+        index = new HashSortedIndex(keys, values, "key");
+        this.values = values;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V getNonNull(Object key) {
+        int i = index.indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < values.length; i++) {
+            action.accept((K) index.keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new ImmutableSetBase<>() {
+            @Override
+            boolean containsNonNull(Object o) {
+                if (!(o instanceof Map.Entry) || ((Map.Entry<?, ?>) o).getKey() == null) {
+                    return false;
+                }
+                Object value = get(((Map.Entry<?, ?>) o).getKey());
+                return value != null && value.equals(((Map.Entry<?, ?>) o).getValue());
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+                    private int i;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < values.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<K, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<K, V> entry = new SimpleImmutableEntry<>((K) index.keys[i], (V) values[i]);
+                        i++;
+                        return entry;
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * An immutable set stored in a {@link HashSortedIndex}.
+ */
+final class HashSortedSet<E> extends ImmutableSetBase<E> {
+
+    private final HashSortedIndex index;
+
+    HashSortedSet(Object[] elements) {
+        index = new HashSortedIndex(elements, null, "element");
+    }
+
+    @Override
+    boolean containsNonNull(Object o) {
+        return index.indexOf(o) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return index.keys.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        return (Iterator<E>) Arrays.asList(index.keys).iterator();
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int hash : index.hashes) {
+            hashCode += hash;
+        }
+        return hashCode;
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The contract of the {@code Map.of} maps: every mutator throws {@link UnsupportedOperationException}
+ * and querying for a null key or value throws {@link NullPointerException}.
+ */
+abstract class ImmutableMapBase<K, V> extends AbstractMap<K, V> {
+
+    static UnsupportedOperationException uoe() {
+        return new UnsupportedOperationException();
+    }
+
+    @Override
+    public V get(Object key) {
+        return getNonNull(Objects.requireNonNull(key));
+    }
+
+    /**
+     * Returns the value of the key, or null if it is absent.
+     */
+    abstract V getNonNull(Object key);
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return super.containsValue(Objects.requireNonNull(value));
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw uoe();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw uoe();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw uoe();
+    }
+
+    @Override
+    public void clear() {
+        throw uoe();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw uoe();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        throw uoe();
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        throw uoe();
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        throw uoe();
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw uoe();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw uoe();
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw uoe();
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The contract of the {@code Set.of} sets: every mutator throws {@link UnsupportedOperationException}
+ * and querying for null throws {@link NullPointerException}.
+ */
+abstract class ImmutableSetBase<E> extends AbstractSet<E> {
+
+    static UnsupportedOperationException uoe() {
+        return new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return containsNonNull(Objects.requireNonNull(o));
+    }
+
+    abstract boolean containsNonNull(Object o);
+
+    @Override
+    public boolean add(E e) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw uoe();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        throw uoe();
+    }
+
+    @Override
+    public void clear() {
+        throw uoe();
+    }
+}
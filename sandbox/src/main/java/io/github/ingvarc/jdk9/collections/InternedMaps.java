@@ -0,0 +1,129 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A factory of {@code Map.ofEntries} maps which shares equal maps, keys and values.
+ * <p>
+ * Reference data loaded once per tenant repeats the same maps with equal but distinct keys and values. The factory
+ * replaces every key and value with the canonical instance from a weak pool and then the whole map likewise, so all the
+ * tenants retain one copy. The pools hold the canonical instances weakly: once no map or caller refers to them they
+ * are collected like any other object.
+ * <p>
+ * The maps returned are plain {@code Map.ofEntries} maps with their contract. The keys and values must be immutable,
+ * since they are shared.
+ * <p>
+ * The bytes saved are estimated for a 64-bit JVM with compressed references: {@code String}s are sized exactly,
+ * boxed primitives and the {@code Map.ofEntries} tables by their layout, and other objects as a bare object.
+ */
+public final class InternedMaps {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private final WeakInterner<Object> elements = new WeakInterner<>(InternedMaps::sizeOf);
+    private final WeakInterner<Map<?, ?>> maps = new WeakInterner<>(map -> mapTableSize(map.size()));
+
+    /**
+     * Same as {@code Map.ofEntries}, returning the map equal to the entries if one was already created.
+     *
+     * @throws IllegalArgumentException if a key is duplicated
+     * @throws NullPointerException     if an entry, a key or a value is null
+     */
+    @SafeVarargs
+    public final <K, V> Map<K, V> ofEntries(Map.Entry<? extends K, ? extends V>... entries) {
+        @SuppressWarnings("unchecked")
+        Map.Entry<K, V>[] canonical = (Map.Entry<K, V>[]) new Map.Entry<?, ?>[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            canonical[i] = Map.<K, V>entry(intern(entries[i].getKey()), intern(entries[i].getValue()));
+        }
+        @SuppressWarnings("unchecked") Map<K, V> map = (Map<K, V>) maps.intern(Map.ofEntries(canonical));
+        return map;
+    }
+
+    /**
+     * Same as {@code Map.copyOf}, returning the map equal to the given one if one was already created.
+     *
+     * @throws NullPointerException if a key or a value is null
+     */
+    public <K, V> Map<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        @SuppressWarnings("unchecked")
+        Map.Entry<? extends K, ? extends V>[] entries =
+                (Map.Entry<? extends K, ? extends V>[]) map.entrySet().toArray(new Map.Entry<?, ?>[0]);
+        return ofEntries(entries);
+    }
+
+    private <T> T intern(T element) {
+        @SuppressWarnings("unchecked") T canonical = (T) elements.intern(Objects.requireNonNull(element));
+        return canonical;
+    }
+
+    /**
+     * The number of canonical maps, keys and values still referenced.
+     */
+    public int size() {
+        return maps.size() + elements.size();
+    }
+
+    public long getLookups() {
+        return maps.lookups() + elements.lookups();
+    }
+
+    /**
+     * The number of maps, keys and values replaced by an equal canonical instance.
+     */
+    public long getHits() {
+        return maps.hits() + elements.hits();
+    }
+
+    public double getHitRate() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) getHits() / lookups;
+    }
+
+    /**
+     * The estimated size of the maps, keys and values replaced by an equal canonical instance.
+     */
+    public long getBytesSaved() {
+        return maps.bytesSaved() + elements.bytesSaved();
+    }
+
+    /**
+     * The retained size of the object, estimated for the common value types.
+     */
+    static long sizeOf(Object o) {
+        if (o instanceof String) {
+            String s = (String) o;
+            boolean latin1 = true;
+            for (int i = 0; i < s.length() && latin1; i++) {
+                latin1 = s.charAt(i) < 256;
+            }
+            // the String itself with its hash, coder and value fields, then the byte[] value
+            return align(OBJECT_HEADER + 4 + 1 + 1 + REFERENCE) + align(ARRAY_HEADER + (long) s.length() * (latin1 ? 1 : 2));
+        }
+        if (o instanceof Long || o instanceof Double) {
+            return align(OBJECT_HEADER + 8);
+        }
+        if (o instanceof Number || o instanceof Character || o instanceof Boolean) {
+            return align(OBJECT_HEADER + 4);
+        }
+        return align(OBJECT_HEADER);
+    }
+
+    /**
+     * The size of a {@code Map.ofEntries} map without its keys and values: the map with its size field and a table
+     * reference, then a table of twice as many key and value slots as entries, or a single entry for one mapping.
+     */
+    static long mapTableSize(int size) {
+        if (size <= 1) {
+            return align(OBJECT_HEADER + 2L * REFERENCE);
+        }
+        return align(OBJECT_HEADER + 4 + REFERENCE) + align(ARRAY_HEADER + 2L * 2 * size * REFERENCE);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7;
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map with string keys stored in a {@link StringPerfectHash} and the values in slot order.
+ */
+final class PerfectHashStringMap<V> extends ImmutableMapBase<String, V> {
+
+    private final StringPerfectHash hash;
+    private final Object[] values;
+
+    PerfectHashStringMap(String[] keys, Object[] values) {
+        hash = new StringPerfectHash(keys, "key");
+        this.values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.values[hash.slotOfKey[i]] = values[i];
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V getNonNull(Object key) {
+        int slot = key instanceof String ? hash.slot((String) key) : -1;
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int slot = 0; slot < values.length; slot++) {
+            action.accept(hash.key(slot), (V) values[slot]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new ImmutableSetBase<>() {
+            @Override
+            boolean containsNonNull(Object o) {
+                if (!(o instanceof Map.Entry) || ((Map.Entry<?, ?>) o).getKey() == null) {
+                    return false;
+                }
+                Object value = get(((Map.Entry<?, ?>) o).getKey());
+                return value != null && value.equals(((Map.Entry<?, ?>) o).getValue());
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<>() {
+                    private int slot;
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < values.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<String, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, V> entry = new SimpleImmutableEntry<>(hash.key(slot), (V) values[slot]);
+                        slot++;
+                        return entry;
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of strings stored in a {@link StringPerfectHash}.
+ */
+final class PerfectHashStringSet extends ImmutableSetBase<String> {
+
+    private final StringPerfectHash hash;
+
+    PerfectHashStringSet(String[] elements) {
+        hash = new StringPerfectHash(elements, "element");
+    }
+
+    @Override
+    boolean containsNonNull(Object o) {
+        return o instanceof String && hash.slot((String) o) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return hash.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int slot;
+
+            @Override
+            public boolean hasNext() {
+                return slot < hash.size();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return hash.key(slot++);
+            }
+        };
+    }
+}
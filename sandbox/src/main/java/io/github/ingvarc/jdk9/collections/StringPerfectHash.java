@@ -0,0 +1,258 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A minimal perfect hash of a fixed set of strings with the strings packed into one array.
+ * <p>
+ * The keys are hashed with a seeded 64-bit hash into buckets of about four keys. The hash is derived from the cached
+ * {@code String.hashCode} unless two keys share it, in which case it is computed from the chars. Following the
+ * "hash, displace and compress" scheme, every bucket, largest first, gets the first seed which sends all its keys
+ * to free slots; buckets of one key take a free slot directly. A lookup therefore hashes the key once, reads the seed
+ * of its bucket and compares the key with the single slot it may occupy.
+ * <p>
+ * The keys are stored in slot order in one {@code byte[]} if all of them are Latin-1 and in one {@code char[]}
+ * otherwise, with an {@code int[]} of offsets, instead of one {@code String} and one array object per key.
+ * The low 32 bits of the hash of every key are kept in slot order too, so most misses compare no chars.
+ */
+final class StringPerfectHash {
+
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MAX_SEED = 1 << 16;
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final long hashSeed;
+    private final boolean charHash;
+    private final int[] seeds;
+    private final int[] fingerprints;
+    private final int[] offsets;
+    private final byte[] latin1;
+    private final char[] utf16;
+
+    /**
+     * The slot each of the input keys was placed in.
+     */
+    final int[] slotOfKey;
+
+    /**
+     * @param what what the keys are called in the message of a duplicate, "element" or "key"
+     * @throws IllegalArgumentException if a key is duplicated
+     */
+    StringPerfectHash(String[] keys, String what) {
+        int size = keys.length;
+        int bucketCount = Math.max(1, (size + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET);
+        int[] hashCodes = new int[size];
+        for (int i = 0; i < size; i++) {
+            hashCodes[i] = keys[i].hashCode();
+        }
+        Arrays.sort(hashCodes);
+        boolean charHash = false;
+        for (int i = 1; i < size && !charHash; i++) {
+            charHash = hashCodes[i - 1] == hashCodes[i];
+        }
+        long hashSeed = 0x9E3779B97F4A7C15L;
+        int[] seeds = null;
+        int[] slotOfKey = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++, hashSeed = mix(hashSeed + attempt)) {
+            seeds = new int[bucketCount];
+            slotOfKey = new int[size];
+            if (place(keys, what, charHash, hashSeed, seeds, slotOfKey)) {
+                break;
+            }
+            seeds = null;
+        }
+        if (seeds == null) {
+            throw new IllegalStateException("Could not build a perfect hash of " + size + " keys");
+        }
+        this.hashSeed = hashSeed;
+        this.charHash = charHash;
+        this.seeds = seeds;
+        this.slotOfKey = slotOfKey;
+
+        fingerprints = new int[size];
+        String[] slots = new String[size];
+        int length = 0;
+        boolean allLatin1 = true;
+        for (int i = 0; i < size; i++) {
+            slots[slotOfKey[i]] = keys[i];
+            fingerprints[slotOfKey[i]] = (int) hash(keys[i], charHash, hashSeed);
+            length += keys[i].length();
+            for (int c = 0; c < keys[i].length() && allLatin1; c++) {
+                allLatin1 = keys[i].charAt(c) < 256;
+            }
+        }
+        offsets = new int[size + 1];
+        latin1 = allLatin1 ? new byte[length] : null;
+        utf16 = allLatin1 ? null : new char[length];
+        int offset = 0;
+        for (int slot = 0; slot < size; slot++) {
+            String key = slots[slot];
+            offsets[slot] = offset;
+            for (int c = 0; c < key.length(); c++) {
+                if (allLatin1) {
+                    latin1[offset + c] = (byte) key.charAt(c);
+                } else {
+                    utf16[offset + c] = key.charAt(c);
+                }
+            }
+            offset += key.length();
+        }
+        offsets[size] = offset;
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * The slot of the key, or -1 if it is not one of the keys.
+     */
+    int slot(String key) {
+        int size = size();
+        if (size == 0) {
+            return -1;
+        }
+        long hash = hash(key, charHash, hashSeed);
+        int seed = seeds[bucket(hash, seeds.length)];
+        int slot = seed < 0 ? -seed - 1 : slot(hash, seed, size);
+        return fingerprints[slot] == (int) hash && matches(slot, key) ? slot : -1;
+    }
+
+    String key(int slot) {
+        int from = offsets[slot];
+        int to = offsets[slot + 1];
+        return latin1 != null
+                ? new String(latin1, from, to - from, StandardCharsets.ISO_8859_1)
+                : new String(utf16, from, to - from);
+    }
+
+    private boolean matches(int slot, String key) {
+        int from = offsets[slot];
+        if (offsets[slot + 1] - from != key.length()) {
+            return false;
+        }
+        if (latin1 != null) {
+            for (int i = 0; i < key.length(); i++) {
+                if ((latin1[from + i] & 0xFF) != key.charAt(i)) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < key.length(); i++) {
+                if (utf16[from + i] != key.charAt(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean place(String[] keys, String what, boolean charHash, long hashSeed,
+                                 int[] seeds, int[] slotOfKey) {
+        int size = keys.length;
+        long[] hashes = new long[size];
+        List<List<Integer>> buckets = new ArrayList<>(seeds.length);
+        for (int b = 0; b < seeds.length; b++) {
+            buckets.add(new ArrayList<>(KEYS_PER_BUCKET));
+        }
+        for (int i = 0; i < size; i++) {
+            hashes[i] = hash(keys[i], charHash, hashSeed);
+            buckets.get(bucket(hashes[i], seeds.length)).add(i);
+        }
+        Integer[] order = new Integer[seeds.length];
+        for (int b = 0; b < order.length; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (left, right) -> buckets.get(right).size() - buckets.get(left).size());
+
+        boolean[] taken = new boolean[size];
+        int[] candidate = new int[KEYS_PER_BUCKET * 8];
+        int nextFree = 0;
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            if (bucket.size() == 1) {
+                while (taken[nextFree]) {
+                    nextFree++;
+                }
+                taken[nextFree] = true;
+                slotOfKey[bucket.get(0)] = nextFree;
+                seeds[b] = -nextFree - 1;
+                continue;
+            }
+            if (bucket.size() > candidate.length) {
+                candidate = new int[bucket.size()];
+            }
+            int seed = 1;
+            for (; seed < MAX_SEED; seed++) {
+                if (fits(bucket, hashes, seed, taken, candidate, keys, what)) {
+                    break;
+                }
+            }
+            if (seed == MAX_SEED) {
+                return false;
+            }
+            seeds[b] = seed;
+            for (int k = 0; k < bucket.size(); k++) {
+                taken[candidate[k]] = true;
+                slotOfKey[bucket.get(k)] = candidate[k];
+            }
+        }
+        return true;
+    }
+
+    private static boolean fits(List<Integer> bucket, long[] hashes, int seed, boolean[] taken, int[] candidate,
+                                String[] keys, String what) {
+        for (int k = 0; k < bucket.size(); k++) {
+            int slot = slot(hashes[bucket.get(k)], seed, taken.length);
+            if (taken[slot]) {
+                return false;
+            }
+            for (int j = 0; j < k; j++) {
+                if (candidate[j] == slot) {
+                    if (keys[bucket.get(j)].equals(keys[bucket.get(k)])) {
+                        throw new IllegalArgumentException("duplicate " + what + ": " + keys[bucket.get(k)]);
+                    }
+                    return false;
+                }
+            }
+            candidate[k] = slot;
+        }
+        return true;
+    }
+
+    private static int bucket(long hash, int buckets) {
+        return (int) (((hash >>> 32) * buckets) >>> 32);
+    }
+
+    private static int slot(long hash, int seed, int size) {
+        return (int) (((mix(hash + seed * 0x9E3779B97F4A7C15L) >>> 32) * size) >>> 32);
+    }
+
+    private static long hash(String key, boolean charHash, long seed) {
+        if (!charHash) {
+            return mix(seed ^ key.hashCode());
+        }
+        long h = seed ^ key.length();
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * The finalizer of MurmurHash3.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
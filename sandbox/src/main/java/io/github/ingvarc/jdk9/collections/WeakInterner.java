@@ -0,0 +1,107 @@
+package io.github.ingvarc.jdk9.collections;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * A concurrent pool of canonical instances which does not keep them alive.
+ * <p>
+ * The pool maps weak references to themselves, compared by the equality of their referents. References cleared by the
+ * garbage collector are removed on the next call.
+ */
+final class WeakInterner<T> {
+
+    private final ConcurrentHashMap<Ref<T>, Ref<T>> pool = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> cleared = new ReferenceQueue<>();
+    private final ToLongFunction<? super T> sizeOf;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param sizeOf the estimated retained size of an instance, counted as saved when an equal instance is pooled
+     */
+    WeakInterner(ToLongFunction<? super T> sizeOf) {
+        this.sizeOf = sizeOf;
+    }
+
+    /**
+     * The pooled instance equal to the value, or the value itself after pooling it.
+     */
+    T intern(T value) {
+        expungeCleared();
+        lookups.increment();
+        Ref<T> ref = new Ref<>(value, cleared);
+        while (true) {
+            Ref<T> pooled = pool.putIfAbsent(ref, ref);
+            if (pooled == null) {
+                return value;
+            }
+            T canonical = pooled.get();
+            if (canonical != null) {
+                if (canonical != value) {
+                    hits.increment();
+                    bytesSaved.add(sizeOf.applyAsLong(value));
+                }
+                return canonical;
+            }
+            pool.remove(pooled, pooled);
+        }
+    }
+
+    int size() {
+        expungeCleared();
+        return pool.size();
+    }
+
+    long lookups() {
+        return lookups.sum();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    private void expungeCleared() {
+        for (Object ref; (ref = cleared.poll()) != null; ) {
+            pool.remove(ref, ref);
+        }
+    }
+
+    private static final class Ref<T> extends WeakReference<T> {
+
+        private final int hash;
+
+        Ref(T referent, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * A cleared reference equals only itself, so that it can still be removed.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Ref)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && hash == ((Ref<?>) o).hash && referent.equals(((Ref<?>) o).get());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.ingvarc.jdk9.optional;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collectors which count present and empty {@code Optional}s in one pass.
+ * <p>
+ * Counting with {@code ifPresentOrElse} and a shared {@code AtomicInteger} makes every thread of a parallel stream
+ * write the same cache line. The collectors here count into the container of each thread instead and add the
+ * counts up when the containers are combined, so there is no shared state to contend on.
+ */
+public final class OptionalCollectors {
+
+    private OptionalCollectors() {
+    }
+
+    /**
+     * Counts present and empty values.
+     */
+    public static <T> Collector<Optional<T>, ?, PresenceCount<Void>> countingPresence() {
+        return Collector.of(
+                Counts::new,
+                (counts, optional) -> {
+                    if (optional.isPresent()) {
+                        counts.present++;
+                    } else {
+                        counts.empty++;
+                    }
+                },
+                (left, right) -> {
+                    left.present += right.present;
+                    left.empty += right.empty;
+                    return left;
+                },
+                counts -> new PresenceCount<>(counts.present, counts.empty, null),
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Counts present and empty values and collects the present ones with the downstream collector.
+     */
+    public static <T, A, R> Collector<Optional<T>, ?, PresenceCount<R>> partitioningByPresence(
+            Collector<? super T, A, R> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        BinaryOperator<A> combiner = downstream.combiner();
+        Function<A, R> finisher = downstream.finisher();
+        Set<Collector.Characteristics> characteristics = EnumSet.noneOf(Collector.Characteristics.class);
+        if (downstream.characteristics().contains(Collector.Characteristics.UNORDERED)) {
+            characteristics.add(Collector.Characteristics.UNORDERED);
+        }
+        return Collector.of(
+                () -> new Counts<>(supplier.get()),
+                (counts, optional) -> {
+                    if (optional.isPresent()) {
+                        counts.present++;
+                        accumulator.accept(counts.container, optional.get());
+                    } else {
+                        counts.empty++;
+                    }
+                },
+                (left, right) -> {
+                    left.present += right.present;
+                    left.empty += right.empty;
+                    left.container = combiner.apply(left.container, right.container);
+                    return left;
+                },
+                counts -> new PresenceCount<>(counts.present, counts.empty, finisher.apply(counts.container)),
+                characteristics.toArray(new Collector.Characteristics[0]));
+    }
+
+    private static final class Counts<A> {
+
+        long present;
+        long empty;
+        A container;
+
+        Counts() {
+        }
+
+        Counts(A container) {
+            this.container = container;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.ingvarc.jdk9.optional;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams of the present values of streams of {@code Optional}s.
+ * <p>
+ * {@code flatMap(Optional::stream)} creates a stream, with its pipeline objects, for every element just to pass on
+ * one value or none. The streams here wrap the source spliterator instead and skip empty values in place, which
+ * allocates nothing per element, and the primitive variants also avoid boxing the values of {@code OptionalInt},
+ * {@code OptionalLong} and {@code OptionalDouble}.
+ * <p>
+ * The streams split like their source and keep its ordering, but are not sized since how many values are present is
+ * not known in advance. Closing them closes the source.
+ */
+public final class OptionalStreams {
+
+    /**
+     * The characteristics of the source which still hold for the present values; they are never null though.
+     */
+    private static final int KEPT = ~(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED);
+
+    private OptionalStreams() {
+    }
+
+    /**
+     * Same as {@code optionals.flatMap(Optional::stream)}.
+     */
+    public static <T> Stream<T> present(Stream<Optional<T>> optionals) {
+        return StreamSupport.stream(new Present<>(optionals.spliterator()), optionals.isParallel())
+                .onClose(optionals::close);
+    }
+
+    /**
+     * Same as {@code optionals.flatMapToInt(OptionalInt::stream)}.
+     */
+    public static IntStream presentInts(Stream<OptionalInt> optionals) {
+        return StreamSupport.intStream(new PresentInts(optionals.spliterator()), optionals.isParallel())
+                .onClose(optionals::close);
+    }
+
+    /**
+     * Same as {@code optionals.flatMapToLong(OptionalLong::stream)}.
+     */
+    public static LongStream presentLongs(Stream<OptionalLong> optionals) {
+        return StreamSupport.longStream(new PresentLongs(optionals.spliterator()), optionals.isParallel())
+                .onClose(optionals::close);
+    }
+
+    /**
+     * Same as {@code optionals.flatMapToDouble(OptionalDouble::stream)}.
+     */
+    public static DoubleStream presentDoubles(Stream<OptionalDouble> optionals) {
+        return StreamSupport.doubleStream(new PresentDoubles(optionals.spliterator()), optionals.isParallel())
+                .onClose(optionals::close);
+    }
+
+    /**
+     * Holds the element the source advanced to, so that it can be advanced without a capturing lambda.
+     */
+    private abstract static class PresentSpliterator<O, S extends PresentSpliterator<O, S>> implements Consumer<O> {
+
+        final Spliterator<O> source;
+        O current;
+
+        PresentSpliterator(Spliterator<O> source) {
+            this.source = source;
+        }
+
+        @Override
+        public void accept(O optional) {
+            current = optional;
+        }
+
+        abstract S wrap(Spliterator<O> split);
+
+        public S trySplit() {
+            Spliterator<O> split = source.trySplit();
+            return split == null ? null : wrap(split);
+        }
+
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        public int characteristics() {
+            return source.characteristics() & KEPT | Spliterator.NONNULL;
+        }
+    }
+
+    private static final class Present<T> extends PresentSpliterator<Optional<T>, Present<T>>
+            implements Spliterator<T> {
+
+        Present(Spliterator<Optional<T>> source) {
+            super(source);
+        }
+
+        @Override
+        Present<T> wrap(Spliterator<Optional<T>> split) {
+            return new Present<>(split);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (source.tryAdvance(this)) {
+                Optional<T> optional = current;
+                current = null;
+                if (optional.isPresent()) {
+                    action.accept(optional.get());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            source.forEachRemaining(optional -> optional.ifPresent(action));
+        }
+    }
+
+    private static final class PresentInts extends PresentSpliterator<OptionalInt, PresentInts>
+            implements Spliterator.OfInt {
+
+        PresentInts(Spliterator<OptionalInt> source) {
+            super(source);
+        }
+
+        @Override
+        PresentInts wrap(Spliterator<OptionalInt> split) {
+            return new PresentInts(split);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (source.tryAdvance(this)) {
+                OptionalInt optional = current;
+                current = null;
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsInt());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            source.forEachRemaining(optional -> optional.ifPresent(action));
+        }
+    }
+
+    private static final class PresentLongs extends PresentSpliterator<OptionalLong, PresentLongs>
+            implements Spliterator.OfLong {
+
+        PresentLongs(Spliterator<OptionalLong> source) {
+            super(source);
+        }
+
+        @Override
+        PresentLongs wrap(Spliterator<OptionalLong> split) {
+            return new PresentLongs(split);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (source.tryAdvance(this)) {
+                OptionalLong optional = current;
+                current = null;
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsLong());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            source.forEachRemaining(optional -> optional.ifPresent(action));
+        }
+    }
+
+    private static final class PresentDoubles extends PresentSpliterator<OptionalDouble, PresentDoubles>
+            implements Spliterator.OfDouble {
+
+        PresentDoubles(Spliterator<OptionalDouble> source) {
+            super(source);
+        }
+
+        @Override
+        PresentDoubles wrap(Spliterator<OptionalDouble> split) {
+            return new PresentDoubles(split);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            while (source.tryAdvance(this)) {
+                OptionalDouble optional = current;
+                current = null;
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsDouble());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            source.forEachRemaining(optional -> optional.ifPresent(action));
+        }
+    }
+}
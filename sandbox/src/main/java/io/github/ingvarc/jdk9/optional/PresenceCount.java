@@ -0,0 +1,44 @@
+package io.github.ingvarc.jdk9.optional;
+
+/**
+ * The numbers of present and empty {@code Optional}s in a stream, with the present values collected downstream.
+ *
+ * @param <R> the result of the downstream collector
+ */
+public final class PresenceCount<R> {
+
+    private final long present;
+    private final long empty;
+    private final R presentValues;
+
+    PresenceCount(long present, long empty, R presentValues) {
+        this.present = present;
+        this.empty = empty;
+        this.presentValues = presentValues;
+    }
+
+    public long getPresent() {
+        return present;
+    }
+
+    public long getEmpty() {
+        return empty;
+    }
+
+    public long getTotal() {
+        return present + empty;
+    }
+
+    /**
+     * The result of the downstream collector, or null if the present values were only counted.
+     */
+    public R getPresentValues() {
+        return presentValues;
+    }
+
+    @Override
+    public String toString() {
+        return "PresenceCount{present=" + present + ", empty=" + empty
+                + (presentValues != null ? ", presentValues=" + presentValues : "") + '}';
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.ingvarc.jdk9.optional;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Counts present and empty {@code Optional}s passed from any number of threads, such as from {@code forEach} of a
+ * parallel stream.
+ * <p>
+ * The counts are kept in {@link LongAdder}s, which spread contending threads over separate cells instead of retrying
+ * a compare-and-set on one shared value. Where the counting can be a reduction, {@link OptionalCollectors} avoids the
+ * shared counters altogether.
+ */
+public final class PresenceCounter implements Consumer<Optional<?>> {
+
+    private final LongAdder present = new LongAdder();
+    private final LongAdder empty = new LongAdder();
+
+    @Override
+    public void accept(Optional<?> optional) {
+        if (optional.isPresent()) {
+            present.increment();
+        } else {
+            empty.increment();
+        }
+    }
+
+    public long getPresent() {
+        return present.sum();
+    }
+
+    public long getEmpty() {
+        return empty.sum();
+    }
+
+    /**
+     * The counts so far, which are exact only once the threads passing values have finished.
+     */
+    public PresenceCount<Void> snapshot() {
+        return new PresenceCount<>(present.sum(), empty.sum(), null);
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.ingvarc.jdk10.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link Utf8} against {@code new String(bytes, UTF_8)} and {@link MappedLineReader} against
+ * {@code Files.readAllLines}, with multi-byte sequences split by the end of the decoded range, lines longer than the
+ * {@link MappedLineReader#KEPT_CHARS} chars kept per thread, CRLF, empty lines and a last line without a newline.
+ */
+class MappedLineReaderTest {
+
+    private static final int LINES = 2000;
+
+    private final Random random = new Random(42);
+
+    private int nextCodePoint() {
+        switch (random.nextInt(5)) {
+            case 0:
+                return 0x80 + random.nextInt(0x800 - 0x80);
+            case 1:
+                int codePoint = 0x800 + random.nextInt(0x10000 - 0x800 - 0x800);
+                return codePoint < Character.MIN_SURROGATE ? codePoint : codePoint + 0x800;
+            case 2:
+                return Character.MIN_SUPPLEMENTARY_CODE_POINT
+                        + random.nextInt(Character.MAX_CODE_POINT + 1 - Character.MIN_SUPPLEMENTARY_CODE_POINT);
+            default:
+                return ' ' + random.nextInt('~' - ' ' + 1);
+        }
+    }
+
+    private String nextText(int codePoints) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < codePoints; i++) {
+            sb.appendCodePoint(nextCodePoint());
+        }
+        return sb.toString();
+    }
+
+    private static String ascii(int length) {
+        char[] chars = new char[length];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    /**
+     * A line of ASCII up to a few bytes before the end of the chars kept per thread, continued by a multi-byte
+     * sequence crossing it, or a line as long as the kept chars give or take a byte.
+     */
+    private String nextLongLine() {
+        int kept = MappedLineReader.KEPT_CHARS;
+        switch (random.nextInt(4)) {
+            case 0:
+                return ascii(kept - 1 - random.nextInt(3)) + "\u00e9\u20ac\ud83d\ude00" + nextText(random.nextInt(10));
+            case 1:
+                return ascii(kept - 1 + random.nextInt(3));
+            case 2:
+                return nextText(kept + random.nextInt(kept));
+            default:
+                return ascii(random.nextInt(kept)) + nextText(random.nextInt(100));
+        }
+    }
+
+    private String nextLine() {
+        int kind = random.nextInt(100);
+        if (kind < 5) {
+            return "";
+        }
+        if (kind < 7) {
+            return nextLongLine();
+        }
+        return nextText(random.nextInt(80));
+    }
+
+    private byte[] nextFile(int lines, boolean lastNewline) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append(nextLine());
+            if (i < lines - 1 || lastNewline) {
+                sb.append(random.nextBoolean() ? "\n" : "\r\n");
+            }
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        char[] chars = new char[to - from];
+        long decoded = Utf8.decode(buffer, from, to, (byte) '\n', chars);
+        assertEquals(to, (int) (decoded >>> 32));
+        return new String(chars, 0, (int) decoded);
+    }
+
+    private static void assertDecodes(byte[] bytes, int from, int to) {
+        String expected = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        assertEquals(expected, decode(ByteBuffer.wrap(bytes), from, to), () -> "bytes " + from + " to " + to);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        assertEquals(expected, decode(direct, from, to), () -> "direct bytes " + from + " to " + to);
+    }
+
+    @Test
+    void decodesLikeTheJdk() {
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = nextText(random.nextInt(50)).getBytes(StandardCharsets.UTF_8);
+            int from = random.nextInt(bytes.length + 1);
+            assertDecodes(bytes, 0, bytes.length);
+            assertDecodes(bytes, from, from + random.nextInt(bytes.length - from + 1));
+        }
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = new byte[random.nextInt(50)];
+            for (int j = 0; j < bytes.length; j++) {
+                // without 0xED, the lead byte of encoded surrogates, which the JDK replaces differently
+                do {
+                    bytes[j] = (byte) random.nextInt();
+                } while (bytes[j] == (byte) 0xED || bytes[j] == '\n');
+            }
+            assertDecodes(bytes, 0, bytes.length);
+        }
+    }
+
+    @Test
+    void decodingStopsAtTheStopByte() {
+        byte[] bytes = "a\u00e9b\nc".getBytes(StandardCharsets.UTF_8);
+        char[] chars = new char[bytes.length];
+        long decoded = Utf8.decode(ByteBuffer.wrap(bytes), 0, bytes.length, (byte) '\n', chars);
+        assertEquals(4, (int) (decoded >>> 32));
+        assertEquals("a\u00e9b", new String(chars, 0, (int) decoded));
+    }
+
+    private static List<String> read(MappedLineReader reader, Path file) throws IOException {
+        Map<Long, LineBatch> batches = new ConcurrentSkipListMap<>();
+        long count = reader.forEachBatch(file, batch -> batches.put(batch.getIndex(), batch));
+        List<String> lines = new ArrayList<>();
+        long index = 0;
+        long offset = -1;
+        for (LineBatch batch : batches.values()) {
+            assertEquals(index++, batch.getIndex());
+            assertTrue(batch.getOffset() > offset);
+            offset = batch.getOffset();
+            for (int i = 0; i < batch.size(); i++) {
+                lines.add(batch.get(i));
+            }
+        }
+        assertEquals(lines.size(), count);
+        return lines;
+    }
+
+    @Test
+    void readsLinesLikeReadAllLines(@TempDir Path directory) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (boolean lastNewline : new boolean[]{true, false}) {
+                Path file = Files.write(directory.resolve("lines-" + lastNewline + ".txt"),
+                        nextFile(LINES, lastNewline));
+                List<String> expected = Files.readAllLines(file);
+                for (int segmentSize : new int[]{1, 1000, MappedLineReader.KEPT_CHARS, 1 << 20}) {
+                    List<String> lines = read(new MappedLineReader(pool, segmentSize, 2), file);
+                    assertEquals(expected, lines, "segments of " + segmentSize);
+                }
+                assertEquals(expected, read(new MappedLineReader(), file));
+            }
+            for (String text : new String[]{"", "\n", "\r\n", "a", "a\r\n\r\nb", "\n\nc\n"}) {
+                Path file = Files.write(directory.resolve("short.txt"), text.getBytes(StandardCharsets.UTF_8));
+                assertEquals(Files.readAllLines(file), read(new MappedLineReader(pool, 1, 1), file), text);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    @Test
+    void handlerExceptionsAreRethrown(@TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("lines.txt"), nextFile(100, true));
+        MappedLineReader reader = new MappedLineReader(ForkJoinPool.commonPool(), 100, 2);
+        for (Exception thrown : new Exception[]{new IOException("io"), new TimeoutException("checked"),
+                new IllegalStateException("unchecked")}) {
+            Exception e = assertThrows(Exception.class, () -> reader.forEachBatch(file, batch -> {
+                throw MappedLineReaderTest.<RuntimeException>sneakyThrow(thrown);
+            }));
+            assertSame(thrown, e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.ingvarc.jdk8.merge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link MultiStreams#mergeSorted} only reports its result as sorted when the streams are, so that
+ * {@code sorted()} and {@code distinct()} after a merge of unsorted streams still sort and drop duplicates.
+ */
+class MultiStreamsTest {
+
+    @Test
+    void mergeOfUnsortedStreamsIsNotSorted() {
+        assertFalse(MultiStreams.mergeSorted(List.of(Stream.of(3, 1, 2), Stream.of(5, 4))).spliterator()
+                .hasCharacteristics(Spliterator.SORTED));
+        assertEquals(List.of(1, 2, 3, 4, 5), MultiStreams.mergeSorted(List.of(Stream.of(3, 1, 2), Stream.of(5, 4)))
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(List.of(1, 2), MultiStreams.mergeSorted(List.of(Stream.of(1, 2, 1), Stream.of(2, 1)))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 3, 4, 5),
+                MultiStreams.mergeSortedInts(List.of(IntStream.of(3, 1, 2), IntStream.of(5, 4)))
+                        .sorted()
+                        .boxed()
+                        .collect(Collectors.toList()));
+        assertEquals(List.of(1, 2), MultiStreams.mergeSortedInts(List.of(IntStream.of(1, 2, 1), IntStream.of(2, 1)))
+                .distinct()
+                .sorted()
+                .boxed()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void mergeOfSortedStreamsIsSortedAndStable() {
+        assertTrue(MultiStreams.mergeSorted(List.of(Stream.of(3, 1, 2).sorted(), Stream.of(5, 4).sorted()))
+                .spliterator()
+                .hasCharacteristics(Spliterator.SORTED));
+        assertEquals(List.of(1, 2, 3, 4, 5),
+                MultiStreams.mergeSorted(List.of(Stream.of(3, 1, 2).sorted(), Stream.of(5, 4).sorted()))
+                        .sorted()
+                        .collect(Collectors.toList()));
+        assertTrue(MultiStreams.mergeSortedInts(List.of(IntStream.range(0, 3), IntStream.of(2, 1).sorted()))
+                .spliterator()
+                .hasCharacteristics(Spliterator.SORTED));
+
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        assertEquals(List.of("a", "b", "cc", "dd", "eee"),
+                MultiStreams.mergeSorted(List.of(Stream.of("a", "cc", "eee"), Stream.of("b", "dd")), byLength)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void mergeIsOnlySortedInTheOrderOfTheStreams() {
+        Comparator<Integer> reversed = Comparator.reverseOrder();
+        TreeSet<Integer> descending = new TreeSet<>(reversed);
+        descending.addAll(List.of(1, 3, 5));
+        assertTrue(MultiStreams.mergeSorted(List.of(descending.stream()), reversed).spliterator()
+                .hasCharacteristics(Spliterator.SORTED));
+        assertFalse(MultiStreams.mergeSorted(List.of(descending.stream(), Stream.of(4, 2).sorted()), reversed)
+                .spliterator()
+                .hasCharacteristics(Spliterator.SORTED));
+        assertEquals(List.of(1, 3, 5), MultiStreams.mergeSorted(List.of(descending.stream()))
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+}
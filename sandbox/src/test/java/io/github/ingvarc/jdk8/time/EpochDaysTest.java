@@ -0,0 +1,188 @@
+package io.github.ingvarc.jdk8.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks {@link EpochDays} against the {@code java.time} calls it mirrors on random epoch days: over the whole
+ * {@code int} range, at both of its ends and around the epoch.
+ */
+class EpochDaysTest {
+
+    private static final int SAMPLES = 200_000;
+
+    private final Random random = new Random(42);
+
+    private int nextEpochDay() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt();
+            case 1:
+                return Integer.MAX_VALUE - random.nextInt(1000);
+            case 2:
+                return Integer.MIN_VALUE + random.nextInt(1000);
+            default:
+                return random.nextInt(146097) - 73048;
+        }
+    }
+
+    private static LocalDate date(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Asserts the epoch day of the expected date, or an {@code ArithmeticException} if it does not fit an int.
+     */
+    private static void assertEpochDay(LocalDate expected, IntSupplier actual, String message) {
+        long epochDay = expected.toEpochDay();
+        if (epochDay == (int) epochDay) {
+            assertEquals(epochDay, actual.getAsInt(), message);
+        } else {
+            assertThrows(ArithmeticException.class, actual::getAsInt, message);
+        }
+    }
+
+    @Test
+    void fieldsAndDayOfWeek() {
+        int[] edges = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        for (int epochDay : edges) {
+            assertEquals(date(epochDay).getDayOfWeek().getValue(), EpochDays.dayOfWeek(epochDay), "" + epochDay);
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            int epochDay = nextEpochDay();
+            LocalDate date = date(epochDay);
+            String message = "" + epochDay;
+            assertEquals(date.getYear(), EpochDays.year(epochDay), message);
+            assertEquals(date.getMonthValue(), EpochDays.month(epochDay), message);
+            assertEquals(date.getDayOfMonth(), EpochDays.dayOfMonth(epochDay), message);
+            assertEquals(date.getDayOfWeek().getValue(), EpochDays.dayOfWeek(epochDay), message);
+            assertEquals(date.isLeapYear(), EpochDays.isLeapYearOfEpochDay(epochDay), message);
+            assertEquals(epochDay, EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()), message);
+        }
+    }
+
+    @Test
+    void plusMonthsAndYears() {
+        for (int i = 0; i < SAMPLES; i++) {
+            int epochDay = nextEpochDay();
+            int months = random.nextBoolean() ? random.nextInt(2401) - 1200 : random.nextInt(200_000_001) - 100_000_000;
+            int years = months / 12;
+            LocalDate date = date(epochDay);
+            String message = epochDay + " + " + months + " months";
+            assertEpochDay(date.plusMonths(months), () -> EpochDays.plusMonths(epochDay, months), message);
+            assertEpochDay(date.plusYears(years), () -> EpochDays.plusYears(epochDay, years), message);
+            assertEpochDay(date.plus(Period.of(years, months % 12, months % 31)),
+                    () -> EpochDays.plus(epochDay, years, months % 12, months % 31), message);
+        }
+    }
+
+    @Test
+    void between() {
+        for (int i = 0; i < SAMPLES; i++) {
+            int start = nextEpochDay();
+            int end = random.nextBoolean() ? nextEpochDay() : start + random.nextInt(3000) - 1500;
+            if (random.nextInt(8) == 0) {
+                end = start;
+            }
+            Period expected = Period.between(date(start), date(end));
+            long period = EpochDays.between(start, end);
+            String message = start + " to " + end;
+            assertEquals(expected.toTotalMonths(), EpochDays.periodTotalMonths(period), message);
+            assertEquals(expected.getYears(), EpochDays.periodYears(period), message);
+            assertEquals(expected.getMonths(), EpochDays.periodMonths(period), message);
+            assertEquals(expected.getDays(), EpochDays.periodDays(period), message);
+            assertEpochDay(date(start).plus(expected), () -> EpochDays.plusPeriod(start, period), message);
+        }
+    }
+
+    @Test
+    void adjusters() {
+        DayOfWeek[] days = DayOfWeek.values();
+        for (int i = 0; i < SAMPLES; i++) {
+            int epochDay = nextEpochDay();
+            DayOfWeek dayOfWeek = days[random.nextInt(days.length)];
+            LocalDate date = date(epochDay);
+            String message = epochDay + " " + dayOfWeek;
+            assertEpochDay(date.with(TemporalAdjusters.firstDayOfMonth()),
+                    () -> EpochDays.firstDayOfMonth(epochDay), message);
+            assertEpochDay(date.with(TemporalAdjusters.lastDayOfMonth()),
+                    () -> EpochDays.lastDayOfMonth(epochDay), message);
+            assertEpochDay(date.with(TemporalAdjusters.firstDayOfNextMonth()),
+                    () -> EpochDays.firstDayOfNextMonth(epochDay), message);
+            assertEpochDay(date.with(TemporalAdjusters.firstDayOfYear()),
+                    () -> EpochDays.firstDayOfYear(epochDay), message);
+            assertEpochDay(date.with(TemporalAdjusters.lastDayOfYear()),
+                    () -> EpochDays.lastDayOfYear(epochDay), message);
+            assertEpochDay(date.with(TemporalAdjusters.next(dayOfWeek)),
+                    () -> EpochDays.next(epochDay, dayOfWeek), message);
+            assertEpochDay(date.with(TemporalAdjusters.nextOrSame(dayOfWeek)),
+                    () -> EpochDays.nextOrSame(epochDay, dayOfWeek), message);
+            assertEpochDay(date.with(TemporalAdjusters.previous(dayOfWeek)),
+                    () -> EpochDays.previous(epochDay, dayOfWeek), message);
+        }
+    }
+
+    @Test
+    void bulkVariantsMatchScalarOnes() {
+        int[] epochDays = new int[1000];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = random.nextInt(2_000_000) - 1_000_000;
+        }
+        int[] ends = new int[epochDays.length];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = epochDays[i] + random.nextInt(3000) - 1500;
+        }
+        int[] result = new int[epochDays.length];
+        long[] periods = new long[epochDays.length];
+
+        EpochDays.plusDays(epochDays, 40, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.plusDays(epochDays[i], 40), result[i]);
+        }
+        EpochDays.plusMonths(epochDays, -7, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.plusMonths(epochDays[i], -7), result[i]);
+        }
+        EpochDays.plusYears(epochDays, 3, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.plusYears(epochDays[i], 3), result[i]);
+        }
+        EpochDays.between(epochDays, ends, periods);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.between(epochDays[i], ends[i]), periods[i]);
+        }
+        EpochDays.firstDayOfMonth(epochDays, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.firstDayOfMonth(epochDays[i]), result[i]);
+        }
+        EpochDays.lastDayOfMonth(epochDays, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.lastDayOfMonth(epochDays[i]), result[i]);
+        }
+        EpochDays.next(epochDays, DayOfWeek.FRIDAY, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.next(epochDays[i], DayOfWeek.FRIDAY), result[i]);
+        }
+        EpochDays.dayOfWeek(epochDays, result);
+        for (int i = 0; i < epochDays.length; i++) {
+            assertEquals(EpochDays.dayOfWeek(epochDays[i]), result[i]);
+        }
+    }
+
+    @Test
+    void bulkPlusDaysWrapsAround() {
+        int[] result = new int[1];
+        EpochDays.plusDays(new int[]{Integer.MAX_VALUE}, 1, result);
+        assertEquals(Integer.MIN_VALUE, result[0]);
+        assertThrows(ArithmeticException.class, () -> EpochDays.plusDays(Integer.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.ingvarc.jdk8.time;
+
+import io.github.ingvarc.jdk8.time.TimestampColumn.MalformedRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.ingvarc.jdk8.time.TimestampColumnParser.MALFORMED;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks {@link TimestampColumnParser} against {@code Instant.parse}, {@code LocalDate.parse} and
+ * {@code Long.parseLong} on random rows of every kind, with fractions of every length, surrounding spaces, CRLF,
+ * empty rows and malformed rows, parsed in chunks small enough to split the input at every kind of row boundary.
+ */
+class TimestampColumnParserTest {
+
+    private static final int ROWS = 5000;
+    private static final long MIN_EPOCH_SECOND = LocalDate.of(0, 1, 1).toEpochDay() * 86400;
+    private static final long MAX_EPOCH_SECOND = LocalDate.of(10000, 1, 1).toEpochDay() * 86400 - 1;
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+
+    /**
+     * Malformed for the parser and for the JDK alike.
+     */
+    private static final String[] MALFORMED_ROWS = {
+            "2018-13-26T10:30:00Z", "2018-02-29T10:30:00Z", "2018-05-26T24:30:00Z", "2018-05-26T10:60:00Z",
+            "2018-05-26T10:30:00.1234567890Z", "2018-05-26T10:30:00.12aZ",
+            "2018-05-26T10:30:00", "2018-05-26 10:30:00Z", "2018-05-32", "2018-00-10", "2018-5-26", "12a4", "-",
+            "--5", "1e6", "2018-05-26T10:30:00Y"
+    };
+
+    /**
+     * Instants which {@code Instant.parse} accepts but the parser takes as malformed: with an offset, accepted since
+     * JDK 12, or with a dot but no fraction digits.
+     */
+    private static final List<String> JDK_ONLY_ROWS = List.of(
+            "2018-05-26T10:30:00+02:00", "2018-05-26T10:30:00.5-05:30", "2018-05-26T10:30:00+00:00",
+            "2018-05-26T10:30:00.Z");
+
+    private final Random random = new Random(42);
+
+    /**
+     * The input text with the values and malformed rows the parser should find in it.
+     */
+    private static final class Input {
+        final StringBuilder text = new StringBuilder();
+        final List<Long> values = new ArrayList<>();
+        final List<MalformedRow> malformed = new ArrayList<>();
+
+        void add(String row, long expected) {
+            if (expected == MALFORMED) {
+                malformed.add(new MalformedRow(values.size(), text.length(), row));
+            }
+            values.add(expected);
+            text.append(row);
+        }
+
+        long[] expectedValues() {
+            return values.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    private String nextInstant() {
+        long epochSecond = MIN_EPOCH_SECOND + (long) (random.nextDouble() * (MAX_EPOCH_SECOND - MIN_EPOCH_SECOND));
+        String row = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(SECONDS);
+        int fractionDigits = random.nextInt(10);
+        if (fractionDigits > 0) {
+            row += "." + String.format("%09d", random.nextInt(1_000_000_000)).substring(0, fractionDigits);
+        }
+        return row + "Z";
+    }
+
+    private String nextRow() {
+        switch (random.nextInt(8)) {
+            case 0:
+            case 1:
+            case 2:
+                return nextInstant();
+            case 3:
+            case 4:
+                return LocalDate.ofEpochDay(MIN_EPOCH_SECOND / 86400
+                        + random.nextInt((int) ((MAX_EPOCH_SECOND - MIN_EPOCH_SECOND) / 86400))).toString();
+            case 5:
+                return Long.toString(random.nextLong() % 1_000_000_000_000_000L);
+            case 6:
+                return MALFORMED_ROWS[random.nextInt(MALFORMED_ROWS.length)];
+            default:
+                return JDK_ONLY_ROWS.get(random.nextInt(JDK_ONLY_ROWS.size()));
+        }
+    }
+
+    /**
+     * What the JDK makes of the row, except for the {@link #JDK_ONLY_ROWS}.
+     */
+    private static long expected(String row) {
+        if (JDK_ONLY_ROWS.contains(row)) {
+            return MALFORMED;
+        }
+        if (row.length() > 10 && row.charAt(10) == 'T') {
+            try {
+                return Instant.parse(row).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return MALFORMED;
+            }
+        }
+        try {
+            return LocalDate.parse(row).toEpochDay() * 86_400_000L;
+        } catch (DateTimeParseException e) {
+            try {
+                return Long.parseLong(row);
+            } catch (NumberFormatException notNumber) {
+                return MALFORMED;
+            }
+        }
+    }
+
+    private void padding(Input input) {
+        for (int spaces = random.nextInt(4) == 0 ? random.nextInt(3) : 0; spaces > 0; spaces--) {
+            input.text.append(' ');
+        }
+    }
+
+    private Input nextInput() {
+        Input input = new Input();
+        for (int i = 0; i < ROWS; i++) {
+            if (random.nextInt(20) == 0) {
+                input.text.append(random.nextBoolean() ? "\n" : "  ,");
+                continue;
+            }
+            padding(input);
+            String row = nextRow();
+            input.add(row, expected(row));
+            padding(input);
+            if (i < ROWS - 1 || random.nextBoolean()) {
+                int separator = random.nextInt(3);
+                input.text.append(separator == 0 ? "\n" : separator == 1 ? "," : "\r\n");
+            }
+        }
+        return input;
+    }
+
+    private static void assertColumn(Input input, TimestampColumn column, String message) {
+        assertArrayEquals(input.expectedValues(), column.getValues(), message);
+        assertEquals(input.malformed.size(), column.getMalformedRows().size(), message);
+        for (int i = 0; i < input.malformed.size(); i++) {
+            MalformedRow expected = input.malformed.get(i);
+            MalformedRow actual = column.getMalformedRows().get(i);
+            assertEquals(expected.toString(), actual.toString(), message);
+        }
+    }
+
+    @Test
+    void matchesJdkParsersAtEveryChunkSize() {
+        Input input = nextInput();
+        byte[] ascii = input.text.toString().getBytes(StandardCharsets.US_ASCII);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkSize : new int[]{1, 7, 23, 64, 1000, 1 << 20}) {
+                TimestampColumnParser parser = new TimestampColumnParser(pool, chunkSize, TimeUnit.MILLISECONDS);
+                assertColumn(input, parser.parse(CharBuffer.wrap(input.text)), "chars, chunks of " + chunkSize);
+                assertColumn(input, parser.parse(ByteBuffer.wrap(ascii)), "bytes, chunks of " + chunkSize);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parsesMappedFilesLikeBuffers(@TempDir Path directory) throws IOException {
+        Input input = nextInput();
+        Path file = Files.write(directory.resolve("timestamps.csv"),
+                input.text.toString().getBytes(StandardCharsets.US_ASCII));
+        assertColumn(input, new TimestampColumnParser().parse(file), "file");
+        assertColumn(input, new TimestampColumnParser(ForkJoinPool.commonPool(), 100, TimeUnit.MILLISECONDS)
+                .parse(file), "file, chunks of 100");
+    }
+
+    @Test
+    void offsetsAndMalformedRowsAreCollected() {
+        for (String row : JDK_ONLY_ROWS) {
+            Instant.parse(row);
+        }
+        List<String> rows = new ArrayList<>(List.of(MALFORMED_ROWS));
+        rows.addAll(JDK_ONLY_ROWS);
+        rows.add("1234567890123456789");
+        TimestampColumn column = new TimestampColumnParser().parse(CharBuffer.wrap(String.join("\n", rows)));
+        assertEquals(rows.size(), column.size());
+        assertEquals(rows.size(), column.getMalformedRows().size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(MALFORMED, column.get(i), rows.get(i));
+            assertEquals(rows.get(i), column.getMalformedRows().get(i).getText());
+            assertEquals(i, column.getMalformedRows().get(i).getRow());
+        }
+    }
+
+    @Test
+    void epochNumbersInTheConfiguredUnit() {
+        TimestampColumnParser parser = new TimestampColumnParser(ForkJoinPool.commonPool(), 4, TimeUnit.SECONDS);
+        TimestampColumn column = parser.parse(CharBuffer.wrap("1527330600,-1, 0,2018-05-26T10:30:00.999Z"));
+        assertArrayEquals(new long[]{1527330600_000L, -1000, 0, 1527330600_999L}, column.getValues());
+    }
+}
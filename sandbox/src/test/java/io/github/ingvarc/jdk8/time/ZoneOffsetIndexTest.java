@@ -0,0 +1,105 @@
+package io.github.ingvarc.jdk8.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks {@link ZoneOffsetIndex} against {@link ZoneRules} for every available zone: around every transition, in
+ * its gaps and overlaps, at both edges of the indexed range and of the margin within which local times fall back to
+ * the rules, and at random points in and out of the range.
+ */
+class ZoneOffsetIndexTest {
+
+    private static final int FROM_YEAR = 1960;
+    private static final int TO_YEAR = 2040;
+    private static final long MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final int RANDOM_SAMPLES = 200;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void matchesZoneRulesInEveryZone() {
+        long from = LocalDate.of(FROM_YEAR, 1, 1).toEpochDay() * 86400;
+        long to = LocalDate.of(TO_YEAR + 1, 1, 1).toEpochDay() * 86400;
+        for (String id : new TreeSet<>(ZoneId.getAvailableZoneIds())) {
+            ZoneId zone = ZoneId.of(id);
+            ZoneOffsetIndex index = ZoneOffsetIndex.of(zone, FROM_YEAR, TO_YEAR);
+
+            TreeSet<Long> points = new TreeSet<>();
+            for (long edge : new long[]{from, to, from + MAX_OFFSET_SECONDS, to - MAX_OFFSET_SECONDS}) {
+                for (long delta = -2; delta <= 2; delta++) {
+                    points.add(edge + delta);
+                }
+            }
+            ZoneRules rules = zone.getRules();
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(from - 86400));
+            while (transition != null && transition.toEpochSecond() < to + 86400) {
+                long instant = transition.toEpochSecond();
+                long before = transition.getOffsetBefore().getTotalSeconds();
+                long after = transition.getOffsetAfter().getTotalSeconds();
+                for (long delta = -1; delta <= 1; delta++) {
+                    points.add(instant + delta);
+                    points.add(instant + before + delta);
+                    points.add(instant + after + delta);
+                }
+                points.add(instant + (before + after) / 2);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+            long span = to - from;
+            for (int i = 0; i < RANDOM_SAMPLES; i++) {
+                points.add(from - span / 2 + (long) (random.nextDouble() * span * 2));
+            }
+
+            for (long point : points) {
+                assertEquals(LocalDateTime.ofInstant(Instant.ofEpochSecond(point), zone).toEpochSecond(ZoneOffset.UTC),
+                        index.toLocalEpochSecond(point), id + " instant " + point);
+                assertEquals(LocalDateTime.ofEpochSecond(point, 0, ZoneOffset.UTC).atZone(zone).toEpochSecond(),
+                        index.toEpochSecond(point), id + " local " + point);
+                long milli = point * 1000 + 999;
+                assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(milli), zone)
+                                .toInstant(ZoneOffset.UTC).toEpochMilli(),
+                        index.toLocalEpochMilli(milli), id + " instant milli " + milli);
+                assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(milli), ZoneOffset.UTC)
+                                .atZone(zone).toInstant().toEpochMilli(),
+                        index.toEpochMilli(milli), id + " local milli " + milli);
+            }
+        }
+    }
+
+    @Test
+    void bulkVariantsMatchScalarOnes() {
+        ZoneOffsetIndex index = ZoneOffsetIndex.of(ZoneId.of("Europe/Berlin"), 2000, 2040);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 946684800L + (long) (random.nextDouble() * 41 * 365 * 86400);
+        }
+        long[] result = new long[values.length];
+        index.toLocalEpochSeconds(values, result);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(index.toLocalEpochSecond(values[i]), result[i]);
+        }
+        index.toEpochSeconds(values, result);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(index.toEpochSecond(values[i]), result[i]);
+        }
+        index.toLocalEpochMillis(values, result);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(index.toLocalEpochMilli(values[i]), result[i]);
+        }
+        index.toEpochMillis(values, result);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(index.toEpochMilli(values[i]), result[i]);
+        }
+    }
+}
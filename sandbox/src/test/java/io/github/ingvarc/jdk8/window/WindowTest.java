@@ -0,0 +1,183 @@
+package io.github.ingvarc.jdk8.window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks {@link IntWindow} and {@link DoubleWindow} against the aggregates of every window computed from scratch, for
+ * count and time windows of random sizes and slides, slides which do not divide the size included, over random values
+ * with random gaps between their timestamps and random calls of {@code advanceTo}.
+ */
+class WindowTest {
+
+    private static final int RUNS = 500;
+
+    private final Random random = new Random(42);
+
+    /**
+     * What a completed window holds, and how many values had been added when it completed.
+     */
+    private static String describe(long start, long end, long count, long sum, long min, long max, int added) {
+        return "[" + start + ", " + end + ") count=" + count + " sum=" + sum + " min=" + min + " max=" + max
+                + " after " + added + " values";
+    }
+
+    private static String describe(long start, long end, LongSummaryStatistics statistics, int added) {
+        return describe(start, end, statistics.getCount(), statistics.getSum(), statistics.getMin(),
+                statistics.getMax(), added);
+    }
+
+    private static String describe(IntWindow window, int added) {
+        assertEquals(window.getCount() == 0 ? 0 : (double) window.getSum() / window.getCount(), window.getAverage());
+        return describe(window.getStart(), window.getEnd(), window.getCount(), window.getSum(), window.getMin(),
+                window.getMax(), added);
+    }
+
+    /**
+     * The values are whole numbers far below 2^53, so the sums of doubles are exact.
+     */
+    private static String describe(DoubleWindow window, int added) {
+        assertEquals(window.getCount() == 0 ? 0 : window.getSum() / window.getCount(), window.getAverage());
+        return describe(window.getStart(), window.getEnd(), window.getCount(), (long) window.getSum(),
+                (long) window.getMin(), (long) window.getMax(), added);
+    }
+
+    private int[] nextValues() {
+        int bound = random.nextBoolean() ? 100 : 1 << 30;
+        return random.ints(random.nextInt(400), -bound, bound).toArray();
+    }
+
+    private int nextSize() {
+        return 1 + random.nextInt(random.nextInt(10) == 0 ? 200 : 30);
+    }
+
+    private int nextSlide(int size) {
+        return random.nextInt(4) == 0 ? size : 1 + random.nextInt(size);
+    }
+
+    @Test
+    void countWindowsMatchTheValuesTheyCover() {
+        for (int run = 0; run < RUNS; run++) {
+            int size = nextSize();
+            int slide = nextSlide(size);
+            int[] values = nextValues();
+
+            List<String> expected = new ArrayList<>();
+            for (int end = size; end <= values.length; end += slide) {
+                LongSummaryStatistics statistics = IntStream.of(values).skip(end - size).limit(size)
+                        .asLongStream().summaryStatistics();
+                expected.add(describe(end - size, end, statistics, end - 1));
+            }
+
+            List<String> ints = new ArrayList<>();
+            List<String> doubles = new ArrayList<>();
+            int[] added = {0};
+            IntWindow intWindow = IntWindow.ofCount(size, slide)
+                    .onWindow(window -> ints.add(describe(window, added[0])));
+            DoubleWindow doubleWindow = DoubleWindow.ofCount(size, slide);
+            for (int value : values) {
+                intWindow.accept(value);
+                if (doubleWindow.add(value)) {
+                    doubles.add(describe(doubleWindow, added[0]));
+                }
+                added[0]++;
+            }
+            String message = "size " + size + ", slide " + slide;
+            assertEquals(expected, ints, message);
+            assertEquals(expected, doubles, message);
+            assertEquals(expected.size(), intWindow.getWindows(), message);
+            assertEquals(expected.size(), doubleWindow.getWindows(), message);
+        }
+    }
+
+    @Test
+    void timeWindowsMatchTheValuesTheyCover() {
+        for (int run = 0; run < RUNS; run++) {
+            long size = nextSize();
+            long slide = nextSlide((int) size);
+            int[] values = nextValues();
+            long[] times = new long[values.length];
+            long time = random.nextInt(2000) - 1000;
+            for (int i = 0; i < values.length; i++) {
+                time += random.nextInt(10) == 0 ? random.nextInt((int) (5 * size)) : random.nextInt(3);
+                times[i] = time;
+            }
+            long last = time + random.nextInt((int) (3 * size));
+
+            List<String> ints = new ArrayList<>();
+            List<String> doubles = new ArrayList<>();
+            int[] added = {0};
+            IntWindow intWindow = IntWindow.ofTime(size, slide)
+                    .onWindow(window -> ints.add(describe(window, added[0])));
+            DoubleWindow doubleWindow = DoubleWindow.ofTime(size, slide)
+                    .onWindow(window -> doubles.add(describe(window, added[0])));
+            long first = values.length == 0 ? last : times[0];
+            if (random.nextInt(4) == 0) {
+                first -= random.nextInt((int) (3 * size));
+                intWindow.advanceTo(first);
+                doubleWindow.advanceTo(first);
+            }
+            for (int i = 0; i < values.length; i++) {
+                intWindow.accept(times[i], values[i]);
+                doubleWindow.accept(times[i], values[i]);
+                added[0]++;
+                if (random.nextInt(8) == 0) {
+                    long next = i + 1 < values.length ? times[i + 1] : last;
+                    long between = times[i] + (long) (random.nextDouble() * (next - times[i]));
+                    intWindow.advanceTo(between);
+                    doubleWindow.advanceTo(between);
+                }
+            }
+            intWindow.advanceTo(last);
+            doubleWindow.advanceTo(last);
+
+            List<String> expected = new ArrayList<>();
+            for (long end = Math.floorDiv(first, slide) * slide + slide; end <= last; end += slide) {
+                long start = end - size;
+                long windowEnd = end;
+                LongSummaryStatistics statistics = IntStream.range(0, values.length)
+                        .filter(i -> times[i] >= start && times[i] < windowEnd)
+                        .mapToLong(i -> values[i])
+                        .summaryStatistics();
+                if (statistics.getCount() > 0) {
+                    int before = (int) IntStream.range(0, values.length).filter(i -> times[i] < windowEnd).count();
+                    expected.add(describe(start, end, statistics, before));
+                }
+            }
+            String message = "size " + size + ", slide " + slide + ", times " + Arrays.toString(times);
+            assertEquals(expected, ints, message);
+            assertEquals(expected, doubles, message);
+            assertEquals(expected.size(), intWindow.getWindows(), message);
+            assertEquals(expected.size(), doubleWindow.getWindows(), message);
+        }
+    }
+
+    @Test
+    void aggregatesPullTheCountWindows() {
+        assertEquals(List.of(9.0, 14.0, 19.0), IntWindow.aggregate(IntStream.iterate(0, i -> i + 1), 10, 5,
+                IntWindow::getMax).limit(3).boxed().collect(Collectors.toList()));
+        assertEquals(List.of(1.5, 5.5), DoubleWindow.aggregate(IntStream.range(0, 9).asDoubleStream(), 4, 4,
+                DoubleWindow::getAverage).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void illegalTimesAndWindowsAreRejected() {
+        IntWindow window = IntWindow.ofTime(10, 5);
+        window.accept(17, 1);
+        window.accept(15, 2);
+        assertThrows(IllegalArgumentException.class, () -> window.accept(14, 3));
+        assertThrows(IllegalStateException.class, () -> window.accept(3));
+        assertThrows(IllegalStateException.class, () -> IntWindow.ofCount(3).advanceTo(0));
+        assertThrows(IllegalArgumentException.class, () -> DoubleWindow.ofCount(3, 4));
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.ingvarc.jdk9.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the sets and maps of {@link CompactCollections} against {@code Set.of} and {@code Map.ofEntries}: lookups of
+ * present and absent keys, iteration, {@code equals} and {@code hashCode}, for random keys, Latin-1 and not, and for
+ * keys sharing their hash codes.
+ */
+class CompactCollectionsTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 7, 64, 1000, 5000};
+
+    private final Random random = new Random(42);
+
+    /**
+     * A key whose hash code is shared by many other keys.
+     */
+    private static final class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{id=" + id + ", hash=" + hash + "}";
+        }
+    }
+
+    private String nextString(char maxChar) {
+        StringBuilder sb = new StringBuilder();
+        for (int length = random.nextInt(16); length > 0; length--) {
+            sb.append(random.nextInt(4) == 0 ? (char) random.nextInt(maxChar + 1) : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The distinct keys of the present and of the absent list, none in both.
+     */
+    private static <K> void distinct(List<K> keys, int size, List<K> present, List<K> absent) {
+        Set<K> seen = new LinkedHashSet<>(keys);
+        for (K key : seen) {
+            (present.size() < size ? present : absent).add(key);
+        }
+    }
+
+    /**
+     * The strings of {@code 2 * blocks} chars made of the blocks "Aa" and "BB", which all share one hash code.
+     */
+    private static List<String> collidingStrings(int blocks) {
+        List<String> strings = new ArrayList<>();
+        for (int bits = 0; bits < 1 << blocks; bits++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < blocks; i++) {
+                sb.append((bits >>> i & 1) == 0 ? "Aa" : "BB");
+            }
+            strings.add(sb.toString());
+        }
+        return strings;
+    }
+
+    private static <E> void assertSet(Set<E> expected, Set<E> actual, List<E> absent) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        for (E element : expected) {
+            assertTrue(actual.contains(element), () -> "contains " + element);
+        }
+        for (E element : absent) {
+            assertFalse(actual.contains(element), () -> "does not contain " + element);
+        }
+        List<E> iterated = new ArrayList<>();
+        actual.forEach(iterated::add);
+        assertEquals(expected.size(), iterated.size());
+        assertEquals(expected, new HashSet<>(iterated));
+        assertTrue(expected.equals(actual));
+        assertTrue(actual.equals(expected));
+        assertEquals(expected.hashCode(), actual.hashCode());
+        if (!absent.isEmpty()) {
+            Set<E> other = new HashSet<>(expected);
+            other.add(absent.get(0));
+            assertFalse(actual.equals(other));
+            other.remove(absent.get(0));
+            if (!other.isEmpty()) {
+                other.remove(other.iterator().next());
+                other.add(absent.get(0));
+                assertFalse(actual.equals(other));
+            }
+        }
+    }
+
+    private static <K> void assertMap(Map<K, Integer> expected, Map<K, Integer> actual, List<K> absent) {
+        assertEquals(expected.size(), actual.size());
+        for (Map.Entry<K, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), actual.get(entry.getKey()), () -> "get " + entry.getKey());
+            assertTrue(actual.containsKey(entry.getKey()));
+        }
+        for (K key : absent) {
+            assertNull(actual.get(key), () -> "get " + key);
+            assertFalse(actual.containsKey(key));
+            assertEquals(-1, actual.getOrDefault(key, -1));
+        }
+        List<Map.Entry<K, Integer>> iterated = new ArrayList<>(actual.entrySet());
+        assertEquals(expected.size(), iterated.size());
+        assertEquals(expected.entrySet(), new HashSet<>(iterated));
+        List<K> keys = new ArrayList<>();
+        actual.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            keys.add(key);
+        });
+        assertEquals(expected.keySet(), new HashSet<>(keys));
+        assertEquals(expected.size(), keys.size());
+        assertTrue(expected.equals(actual));
+        assertTrue(actual.equals(expected));
+        assertEquals(expected.hashCode(), actual.hashCode());
+        if (!expected.isEmpty()) {
+            Map<K, Integer> other = new HashMap<>(expected);
+            K key = keys.get(0);
+            other.put(key, other.get(key) + 1);
+            assertFalse(actual.equals(other));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Map.Entry<K, Integer>[] entries(List<K> keys) {
+        Map.Entry<K, Integer>[] entries = (Map.Entry<K, Integer>[]) new Map.Entry<?, ?>[keys.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = Map.entry(keys.get(i), i * 31);
+        }
+        return entries;
+    }
+
+    private static <E> void assertSets(List<E> present, List<E> absent, Function<List<E>, Set<E>> compact) {
+        Set<E> expected = Set.copyOf(present);
+        assertSet(expected, compact.apply(present), absent);
+        List<E> shuffled = new ArrayList<>(present);
+        Collections.shuffle(shuffled, new Random(present.size()));
+        assertSet(expected, compact.apply(shuffled), absent);
+    }
+
+    private static <K> void assertMaps(List<K> present, List<K> absent,
+                                       Function<Map.Entry<K, Integer>[], Map<K, Integer>> compact) {
+        Map.Entry<K, Integer>[] entries = entries(present);
+        Map<K, Integer> expected = Map.ofEntries(entries);
+        Map<K, Integer> actual = compact.apply(entries);
+        assertMap(expected, actual, absent);
+    }
+
+    private void checkObjects(List<Object> keys, int size) {
+        List<Object> present = new ArrayList<>();
+        List<Object> absent = new ArrayList<>();
+        distinct(keys, size, present, absent);
+        assertSets(present, absent, elements -> CompactCollections.setOf(elements.toArray()));
+        assertSets(present, absent, CompactCollections::setCopyOf);
+        assertMaps(present, absent, CompactCollections::mapOfEntries);
+        assertMap(Map.ofEntries(entries(present)), CompactCollections.mapCopyOf(Map.ofEntries(entries(present))),
+                absent);
+    }
+
+    private void checkStrings(List<String> keys, int size) {
+        List<String> present = new ArrayList<>();
+        List<String> absent = new ArrayList<>();
+        distinct(keys, size, present, absent);
+        assertSets(present, absent, elements -> CompactCollections.stringSetOf(elements.toArray(new String[0])));
+        assertSets(present, absent, CompactCollections::stringSetCopyOf);
+        assertMaps(present, absent, CompactCollections::stringMapOfEntries);
+        assertMap(Map.ofEntries(entries(present)),
+                CompactCollections.stringMapCopyOf(Map.ofEntries(entries(present))), absent);
+        List<Object> objects = new ArrayList<>(keys);
+        checkObjects(objects, size);
+    }
+
+    @Test
+    void randomKeysMatchTheJdkCollections() {
+        for (int size : SIZES) {
+            List<Object> numbers = new ArrayList<>();
+            for (int i = 0; i < size + 100; i++) {
+                numbers.add(random.nextBoolean() ? random.nextInt() : (Object) random.nextLong());
+            }
+            checkObjects(numbers, size);
+            for (char maxChar : new char[]{'\u007f', '\u00ff', '\uffff'}) {
+                List<String> strings = new ArrayList<>();
+                for (int i = 0; i < size + 100; i++) {
+                    strings.add(nextString(maxChar));
+                }
+                checkStrings(strings, size);
+            }
+        }
+    }
+
+    @Test
+    void collidingKeysMatchTheJdkCollections() {
+        for (int blocks : new int[]{1, 3, 8, 11}) {
+            List<String> strings = collidingStrings(blocks);
+            Collections.shuffle(strings, random);
+            checkStrings(strings, strings.size() / 2);
+            List<String> mixed = new ArrayList<>(strings);
+            for (int i = 0; i < strings.size(); i++) {
+                mixed.add(nextString('\uffff'));
+            }
+            Collections.shuffle(mixed, random);
+            checkStrings(mixed, mixed.size() * 2 / 3);
+        }
+        for (int size : SIZES) {
+            for (int hashes : new int[]{1, 3, Math.max(1, size / 8)}) {
+                List<Object> keys = new ArrayList<>();
+                for (int i = 0; i < size + 50; i++) {
+                    keys.add(new Key(i, random.nextInt(hashes) * 0x9e3779b9));
+                }
+                Collections.shuffle(keys, random);
+                checkObjects(keys, size);
+            }
+        }
+    }
+}